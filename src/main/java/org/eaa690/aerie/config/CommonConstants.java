@@ -238,16 +238,31 @@ public class CommonConstants {
      */
     public static final int FORTY_THREE = 43;
 
+    /**
+     * SIXTY.
+     */
+    public static final int SIXTY = 60;
+
     /**
      * ONE_HUNDRED.
      */
     public static final int ONE_HUNDRED = 100;
 
+    /**
+     * THREE_HUNDRED.
+     */
+    public static final int THREE_HUNDRED = 300;
+
     /**
      * THREE_HUNDRED_THIRTY.
      */
     public static final int THREE_HUNDRED_THIRTY = 330;
 
+    /**
+     * FIVE_HUNDRED.
+     */
+    public static final int FIVE_HUNDRED = 500;
+
     /**
      * ONE_THOUSAND.
      */
@@ -278,6 +293,11 @@ public class CommonConstants {
      */
     public static final int FIVE_HUNDRED_THOUSAND = 500000;
 
+    /**
+     * NINE_HUNDRED_THOUSAND.
+     */
+    public static final int NINE_HUNDRED_THOUSAND = 900000;
+
     /**
      * METAR Key.
      */
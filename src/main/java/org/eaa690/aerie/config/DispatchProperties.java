@@ -0,0 +1,71 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Message Dispatch Properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("aerie.dispatch")
+public class DispatchProperties {
+
+    /**
+     * URL shortening stage threads.
+     */
+    private int shortenThreads = CommonConstants.FOUR;
+
+    /**
+     * Template rendering stage threads.
+     */
+    private int renderThreads = 2;
+
+    /**
+     * Email delivery stage threads.
+     */
+    private int emailThreads = 2;
+
+    /**
+     * Slack delivery completion threads.  Slack posts themselves are paced by the Slack sender.
+     */
+    private int slackThreads = 1;
+
+    /**
+     * Maximum queued tasks per stage before the submitting thread runs the task itself.
+     */
+    private int queueCapacity = CommonConstants.ONE_THOUSAND;
+
+    /**
+     * Maximum emails sent per second.
+     */
+    private double emailPerSecond = CommonConstants.FIVE;
+
+    /**
+     * Maximum attempts per stage, including the first.
+     */
+    private int maxAttempts = CommonConstants.THREE;
+
+    /**
+     * Delay before the first retry, in milliseconds.  Doubled on each subsequent retry.
+     */
+    private long backoffMillis = CommonConstants.ONE_THOUSAND;
+
+}
@@ -52,4 +52,24 @@ public class EmailProperties {
      * Template Path.
      */
     private String templatePath;
+
+    /**
+     * Minimum time between checks of a cached template's file for modifications, in milliseconds.
+     */
+    private long templateCheckMillis = CommonConstants.ONE_THOUSAND;
+
+    /**
+     * Connect over SSL.
+     */
+    private boolean ssl = true;
+
+    /**
+     * Maximum number of SMTP connections held open per sender.
+     */
+    private int poolSize = 2;
+
+    /**
+     * Seconds an idle SMTP connection is kept before it is closed rather than reused.
+     */
+    private int maxIdleSeconds = CommonConstants.THIRTY;
 }
@@ -53,4 +53,9 @@ public class MembershipProperties {
      */
     private String renewSubject;
 
+    /**
+     * Maximum number of member name search results.
+     */
+    private int searchLimit = CommonConstants.TWENTY_FIVE;
+
 }
@@ -0,0 +1,61 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Outbound Message Queue Properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties("aerie.outbox")
+public class OutboxProperties {
+
+    /**
+     * Number of outbox workers.
+     */
+    private int workers = 2;
+
+    /**
+     * Maximum messages claimed by a worker at a time.
+     */
+    private int batchSize = CommonConstants.TEN;
+
+    /**
+     * Delay between polls when the outbox is empty, in milliseconds.
+     */
+    private long pollMillis = CommonConstants.ONE_THOUSAND;
+
+    /**
+     * How long a claimed message is leased to a worker before another worker may claim it, in seconds.
+     */
+    private long leaseSeconds = CommonConstants.THREE_HUNDRED_THIRTY;
+
+    /**
+     * Maximum delivery attempts, including the first.
+     */
+    private int maxAttempts = CommonConstants.FIVE;
+
+    /**
+     * Delay before the first retry, in seconds.  Doubled on each subsequent retry.
+     */
+    private long backoffSeconds = CommonConstants.THIRTY;
+
+}
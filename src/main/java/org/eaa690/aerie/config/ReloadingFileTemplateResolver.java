@@ -0,0 +1,153 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.config;
+
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.cache.ICacheEntryValidity;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * File template resolver whose parsed templates stay cached until the template file is modified.  The file's
+ * modification time is checked at most once per check interval, so bulk renders reuse the parsed template while edits
+ * made by operators are still picked up without a restart.
+ */
+public class ReloadingFileTemplateResolver extends FileTemplateResolver {
+
+    /**
+     * Minimum time between modification checks of a cached template, in milliseconds.
+     */
+    private final long checkIntervalMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param intervalMillis minimum time between modification checks, in milliseconds
+     */
+    public ReloadingFileTemplateResolver(final long intervalMillis) {
+        checkIntervalMillis = intervalMillis;
+        setCacheable(Boolean.TRUE);
+    }
+
+    /**
+     * Ties the cached template's validity to the modification time of its file.
+     *
+     * @param configuration engine configuration
+     * @param ownerTemplate owner template
+     * @param template template name
+     * @param templateResolutionAttributes resolution attributes
+     * @return ICacheEntryValidity
+     */
+    @Override
+    protected ICacheEntryValidity computeValidity(final IEngineConfiguration configuration,
+                                                  final String ownerTemplate,
+                                                  final String template,
+                                                  final Map<String, Object> templateResolutionAttributes) {
+        final ICacheEntryValidity validity =
+                super.computeValidity(configuration, ownerTemplate, template, templateResolutionAttributes);
+        if (!validity.isCacheable()) {
+            return validity;
+        }
+        final String resourceName = computeResourceName(configuration, ownerTemplate, template, getPrefix(),
+                getSuffix(), getForceSuffix(), getTemplateAliases(), templateResolutionAttributes);
+        return new FileModifiedValidity(Paths.get(resourceName), checkIntervalMillis);
+    }
+
+    /**
+     * Cache validity that expires once the file's modification time changes.
+     */
+    static final class FileModifiedValidity implements ICacheEntryValidity {
+
+        /**
+         * Template file.
+         */
+        private final Path path;
+
+        /**
+         * Modification time of the file when it was resolved, or -1 if it could not be read.
+         */
+        private final long lastModified;
+
+        /**
+         * Minimum time between modification checks, in milliseconds.
+         */
+        private final long checkIntervalMillis;
+
+        /**
+         * Earliest time of the next modification check.
+         */
+        private volatile long nextCheck;
+
+        /**
+         * Whether the file has been seen to change.
+         */
+        private volatile boolean modified;
+
+        /**
+         * Constructor.
+         *
+         * @param file template file
+         * @param intervalMillis minimum time between modification checks, in milliseconds
+         */
+        FileModifiedValidity(final Path file, final long intervalMillis) {
+            path = file;
+            checkIntervalMillis = intervalMillis;
+            lastModified = lastModified(file);
+            nextCheck = System.currentTimeMillis() + intervalMillis;
+        }
+
+        @Override
+        public boolean isCacheable() {
+            return lastModified >= 0;
+        }
+
+        @Override
+        public boolean isCacheStillValid() {
+            if (modified) {
+                return false;
+            }
+            final long now = System.currentTimeMillis();
+            if (now < nextCheck) {
+                return true;
+            }
+            nextCheck = now + checkIntervalMillis;
+            if (lastModified(path) != lastModified) {
+                modified = true;
+            }
+            return !modified;
+        }
+
+        /**
+         * Reads a file's modification time.
+         *
+         * @param file file
+         * @return modification time in milliseconds, or -1 if it could not be read
+         */
+        private static long lastModified(final Path file) {
+            try {
+                return Files.getLastModifiedTime(file).toMillis();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -20,18 +20,33 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ullink.slack.simpleslackapi.SlackSession;
 import com.ullink.slack.simpleslackapi.impl.SlackSessionFactory;
 import org.apache.catalina.connector.Connector;
-import org.eaa690.aerie.model.WeatherProductRepository;
 import org.eaa690.aerie.roster.RosterManager;
 import org.eaa690.aerie.service.EmailService;
+import org.eaa690.aerie.service.EngagementService;
 import org.eaa690.aerie.service.GateCodeService;
+import org.eaa690.aerie.service.InlineAssetCache;
 import org.eaa690.aerie.service.JotFormService;
 import org.eaa690.aerie.service.NotamService;
+import org.eaa690.aerie.service.OutboxService;
 import org.eaa690.aerie.service.QuestionService;
+import org.eaa690.aerie.service.RenewalDispatcher;
+import org.eaa690.aerie.service.MemberNameIndex;
+import org.eaa690.aerie.service.MetarStore;
+import org.eaa690.aerie.service.MemberSegments;
+import org.eaa690.aerie.service.MembershipReportEngine;
+import org.eaa690.aerie.service.RfidIndex;
 import org.eaa690.aerie.service.RosterService;
+import org.eaa690.aerie.service.SlackDirectory;
+import org.eaa690.aerie.service.SlackIdentityIndex;
+import org.eaa690.aerie.service.SlackSender;
 import org.eaa690.aerie.service.SlackService;
+import org.eaa690.aerie.service.SmtpTransportPool;
+import org.eaa690.aerie.service.TafStore;
 import org.eaa690.aerie.service.TimedTasksService;
 import org.eaa690.aerie.service.TinyURLService;
+import org.eaa690.aerie.service.TrackingEventBuffer;
 import org.eaa690.aerie.service.TrackingService;
+import org.eaa690.aerie.service.WeatherFeedFetcher;
 import org.eaa690.aerie.service.WeatherService;
 import org.eaa690.aerie.ssl.GSDecryptor;
 import org.eaa690.aerie.ssl.SSLUtilities;
@@ -47,7 +62,6 @@ import org.springframework.http.converter.json.MappingJackson2HttpMessageConvert
 import org.springframework.web.client.RestTemplate;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import org.thymeleaf.templatemode.TemplateMode;
-import org.thymeleaf.templateresolver.FileTemplateResolver;
 
 import java.io.IOException;
 import java.net.http.HttpClient;
@@ -60,6 +74,8 @@ import java.time.Duration;
 @EnableConfigurationProperties({
         WeatherProperties.class,
         TinyUrlProperties.class,
+        DispatchProperties.class,
+        OutboxProperties.class,
         RosterProperties.class,
         JotFormProperties.class,
         EmailProperties.class,
@@ -86,11 +102,11 @@ public class ServiceConfig {
     @Bean
     public SpringTemplateEngine thymeleafTemplateEngine(final EmailProperties emailProperties) {
         final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
-        final FileTemplateResolver templateResolver = new FileTemplateResolver();
+        final ReloadingFileTemplateResolver templateResolver =
+                new ReloadingFileTemplateResolver(emailProperties.getTemplateCheckMillis());
         templateResolver.setPrefix(emailProperties.getTemplatePath());
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.TEXT);
-        templateResolver.setCacheable(Boolean.FALSE);
         templateEngine.setTemplateResolver(templateResolver);
         return templateEngine;
     }
@@ -115,26 +131,66 @@ public class ServiceConfig {
     /**
      * WeatherService.
      *
-     * @param restTemplate RestTemplate
      * @param props WeatherProperties
-     * @param sslUtilities SSLUtilities
-     * @param wpRepository WeatherProductRepository
+     * @param store MetarStore
+     * @param forecasts TafStore
+     * @param fetcher WeatherFeedFetcher
      * @return WeatherService
      */
     @Bean
     public WeatherService weatherService(
-            final RestTemplate restTemplate,
             final WeatherProperties props,
-            final SSLUtilities sslUtilities,
-            final WeatherProductRepository wpRepository) {
+            final MetarStore store,
+            final TafStore forecasts,
+            final WeatherFeedFetcher fetcher) {
         final WeatherService weatherService = new WeatherService();
-        weatherService.setRestTemplate(restTemplate);
-        weatherService.setSSLUtilities(sslUtilities);
         weatherService.setWeatherProperties(props);
-        weatherService.setWeatherProductRepository(wpRepository);
+        weatherService.setMetarStore(store);
+        weatherService.setTafStore(forecasts);
+        weatherService.setWeatherFeedFetcher(fetcher);
         return weatherService;
     }
 
+    /**
+     * WeatherFeedFetcher.  Uses its own rest template, whose HTTP client leaves gzip responses compressed for the
+     * fetcher to inflate and measure.
+     *
+     * @param restTemplateBuilder RestTemplateBuilder
+     * @param sslUtilities SSLUtilities
+     * @return WeatherFeedFetcher
+     */
+    @Bean
+    public WeatherFeedFetcher weatherFeedFetcher(final RestTemplateBuilder restTemplateBuilder,
+                                                 final SSLUtilities sslUtilities) {
+        final WeatherFeedFetcher weatherFeedFetcher = new WeatherFeedFetcher(restTemplateBuilder
+                .requestFactory(WeatherFeedFetcher::requestFactory)
+                .setConnectTimeout(Duration.ofMillis(CommonConstants.ONE_THOUSAND))
+                .setReadTimeout(Duration.ofMillis(CommonConstants.TEN_THOUSAND))
+                .build());
+        weatherFeedFetcher.setSSLUtilities(sslUtilities);
+        return weatherFeedFetcher;
+    }
+
+    /**
+     * MetarStore.
+     *
+     * @return MetarStore
+     */
+    @Bean
+    public MetarStore metarStore() {
+        return new MetarStore();
+    }
+
+    /**
+     * TafStore.
+     *
+     * @return TafStore
+     */
+    @Bean
+    public TafStore tafStore() {
+        return new TafStore();
+    }
+
     /**
      * RosterManager.
      *
@@ -207,6 +263,26 @@ public class ServiceConfig {
         return new GateCodeService();
     }
 
+    /**
+     * InlineAssetCache.
+     *
+     * @return InlineAssetCache
+     */
+    @Bean
+    public InlineAssetCache inlineAssetCache() {
+        return new InlineAssetCache();
+    }
+
+    /**
+     * SmtpTransportPool.
+     *
+     * @return SmtpTransportPool
+     */
+    @Bean
+    public SmtpTransportPool smtpTransportPool() {
+        return new SmtpTransportPool();
+    }
+
     /**
      * EmailService.
      *
@@ -245,6 +321,96 @@ public class ServiceConfig {
         return slackService;
     }
 
+    /**
+     * RfidIndex.
+     *
+     * @return RfidIndex
+     */
+    @Bean
+    public RfidIndex rfidIndex() {
+        return new RfidIndex();
+    }
+
+    /**
+     * SlackDirectory.
+     *
+     * @return SlackDirectory
+     */
+    @Bean
+    public SlackDirectory slackDirectory() {
+        return new SlackDirectory();
+    }
+
+    /**
+     * SlackSender.
+     *
+     * @return SlackSender
+     */
+    @Bean
+    public SlackSender slackSender() {
+        return new SlackSender();
+    }
+
+    /**
+     * SlackIdentityIndex.
+     *
+     * @return SlackIdentityIndex
+     */
+    @Bean
+    public SlackIdentityIndex slackIdentityIndex() {
+        return new SlackIdentityIndex();
+    }
+
+    /**
+     * MembershipReportEngine.
+     *
+     * @return MembershipReportEngine
+     */
+    @Bean
+    public MembershipReportEngine membershipReportEngine() {
+        return new MembershipReportEngine();
+    }
+
+    /**
+     * MemberSegments.
+     *
+     * @return MemberSegments
+     */
+    @Bean
+    public MemberSegments memberSegments() {
+        return new MemberSegments();
+    }
+
+    /**
+     * MemberNameIndex.
+     *
+     * @return MemberNameIndex
+     */
+    @Bean
+    public MemberNameIndex memberNameIndex() {
+        return new MemberNameIndex();
+    }
+
+    /**
+     * RenewalDispatcher.
+     *
+     * @return RenewalDispatcher
+     */
+    @Bean
+    public RenewalDispatcher renewalDispatcher() {
+        return new RenewalDispatcher();
+    }
+
+    /**
+     * OutboxService.
+     *
+     * @return OutboxService
+     */
+    @Bean
+    public OutboxService outboxService() {
+        return new OutboxService();
+    }
+
     /**
      * TrackingService.
      *
@@ -255,6 +421,26 @@ public class ServiceConfig {
         return new TrackingService();
     }
 
+    /**
+     * EngagementService.
+     *
+     * @return EngagementService
+     */
+    @Bean
+    public EngagementService engagementService() {
+        return new EngagementService();
+    }
+
+    /**
+     * TrackingEventBuffer.
+     *
+     * @return TrackingEventBuffer
+     */
+    @Bean
+    public TrackingEventBuffer trackingEventBuffer() {
+        return new TrackingEventBuffer();
+    }
+
     /**
      * Membership Bot SlackSession.
      *
@@ -42,4 +42,29 @@ public class SlackProperties {
      * Template Path.
      */
     private String templatePath;
+
+    /**
+     * Maximum chat.postMessage calls per second.
+     */
+    private double postMessagePerSecond = 1;
+
+    /**
+     * Maximum conversations.open calls per minute.
+     */
+    private double conversationsOpenPerMinute = CommonConstants.FORTY;
+
+    /**
+     * How long to wait for further messages to the same user before posting, in milliseconds.
+     */
+    private long coalesceMillis = CommonConstants.TWO_THOUSAND;
+
+    /**
+     * Maximum messages combined into a single post.
+     */
+    private int coalesceMaxMessages = CommonConstants.TEN;
+
+    /**
+     * Interval between full refreshes of the Slack user directory, in milliseconds.
+     */
+    private long directoryRefreshMillis = CommonConstants.NINE_HUNDRED_THOUSAND;
 }
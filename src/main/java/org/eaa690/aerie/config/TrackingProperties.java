@@ -33,4 +33,29 @@ public class TrackingProperties {
      */
     private String host;
 
+    /**
+     * Maximum number of tracking events held in memory awaiting write.
+     */
+    private int bufferCapacity = CommonConstants.TEN_THOUSAND;
+
+    /**
+     * Delay between background writes of buffered tracking events, in milliseconds.
+     */
+    private long flushMillis = CommonConstants.ONE_THOUSAND;
+
+    /**
+     * Tracking events per JDBC batch insert.
+     */
+    private int batchSize = CommonConstants.FIVE_HUNDRED;
+
+    /**
+     * Number of times an event from a failed batch is written on its own before it is given up on.
+     */
+    private int maxWriteAttempts = CommonConstants.THREE;
+
+    /**
+     * Repeat opens of a message by the same member within this many seconds are ignored.
+     */
+    private long dedupeWindowSeconds = CommonConstants.THREE_HUNDRED;
+
 }
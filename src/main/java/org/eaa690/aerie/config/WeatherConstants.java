@@ -90,4 +90,49 @@ public class WeatherConstants {
      * Raw Observation.
      */
     public static final String RAW_OBSERVATION = "rawOb";
+
+    /**
+     * TAF Issue Time.
+     */
+    public static final String ISSUE_TIME = "issueTime";
+
+    /**
+     * TAF Bulletin Time.
+     */
+    public static final String BULLETIN_TIME = "bulletinTime";
+
+    /**
+     * TAF Valid From Time.
+     */
+    public static final String VALID_TIME_FROM = "validTimeFrom";
+
+    /**
+     * TAF Valid To Time.
+     */
+    public static final String VALID_TIME_TO = "validTimeTo";
+
+    /**
+     * Raw TAF.
+     */
+    public static final String RAW_TAF = "rawTAF";
+
+    /**
+     * Forecast Period Change Indicator.
+     */
+    public static final String FORECAST_TYPE = "fcstType";
+
+    /**
+     * Forecast Period Start Time.
+     */
+    public static final String FORECAST_TIME_FROM = "fcstTimeFrom";
+
+    /**
+     * Forecast Period End Time.
+     */
+    public static final String FORECAST_TIME_TO = "fcstTimeTo";
+
+    /**
+     * Wind Gust.
+     */
+    public static final String WIND_GUST = "wgst";
 }
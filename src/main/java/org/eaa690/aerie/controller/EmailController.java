@@ -16,9 +16,11 @@
 
 package org.eaa690.aerie.controller;
 
+import org.eaa690.aerie.model.SmtpPoolStats;
 import org.eaa690.aerie.service.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -70,4 +72,16 @@ public class EmailController {
         emailService.setEnabled(Boolean.parseBoolean(flag));
     }
 
+    /**
+     * Gets SMTP connection pool metrics.
+     *
+     * @return SmtpPoolStats
+     */
+    @GetMapping(path = {
+            "/pool"
+    })
+    public SmtpPoolStats pool() {
+        return emailService.getPoolStats();
+    }
+
 }
@@ -16,7 +16,9 @@
 
 package org.eaa690.aerie.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.model.CursorPage;
 import org.eaa690.aerie.model.GateCode;
 import org.eaa690.aerie.model.Member;
 import org.eaa690.aerie.model.SlackCommand;
@@ -25,12 +27,15 @@ import org.eaa690.aerie.service.JotFormService;
 import org.eaa690.aerie.service.RosterService;
 import org.eaa690.aerie.service.SlackService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Date;
 import java.util.List;
@@ -67,6 +72,21 @@ public class GateCodeController {
      */
     private org.eaa690.aerie.service.SlackService slackService;
 
+    /**
+     * ObjectMapper.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * Sets ObjectMapper.
+     *
+     * @param value ObjectMapper
+     */
+    @Autowired
+    public void setObjectMapper(final ObjectMapper value) {
+        objectMapper = value;
+    }
+
     /**
      * Sets GateCodeService.
      *
@@ -129,11 +149,7 @@ public class GateCodeController {
     public String slashGateCode(@RequestBody final String message) {
         log.info("Received message from Slack: {}", message);
         final SlackCommand slackCommand = slackService.getSlackCommand(message);
-        final Optional<Member> memberOpt = rosterService
-                .getAllMembers()
-                .stream()
-                .filter(m -> slackCommand.getUserId().equalsIgnoreCase(slackService.getUserIDForUsername(m.getSlack())))
-                .findFirst();
+        final Optional<Member> memberOpt = rosterService.getMemberBySlackUserId(slackCommand.getUserId());
         if (memberOpt.isPresent()) {
             final Member member = memberOpt.get();
             if (member.getExpiration().after(new Date())) {
@@ -177,4 +193,26 @@ public class GateCodeController {
         return gateCodeService.getAll();
     }
 
+    /**
+     * Gets one page of gate codes, in ID order.
+     *
+     * @param after cursor returned with the previous page, omitted for the first page
+     * @param limit page size
+     * @return CursorPage of GateCode
+     */
+    @GetMapping(path = {"/page"})
+    public CursorPage<GateCode> getPage(@RequestParam(name = "after", required = false) final Long after,
+                                        @RequestParam(name = "limit", defaultValue = "100") final int limit) {
+        return KeysetPaging.page(gateCodeService::getGateCodesAfter, GateCode::getId, after, limit);
+    }
+
+    /**
+     * Streams all gate codes as newline delimited JSON, in ID order.
+     *
+     * @return GateCode stream
+     */
+    @GetMapping(path = {"/stream"})
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return KeysetPaging.stream(objectMapper, gateCodeService::getGateCodesAfter, GateCode::getId);
+    }
 }
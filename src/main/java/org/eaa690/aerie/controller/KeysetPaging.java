@@ -0,0 +1,111 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.CursorPage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination and NDJSON streaming for the bulk listing endpoints.  Each fetch reads the rows following a
+ * cursor (the key of the last row already returned), so neither a page nor a stream ever holds more than one batch of
+ * rows in memory, however large the table grows.
+ */
+final class KeysetPaging {
+
+    /**
+     * Newline delimited JSON media type.
+     */
+    static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Rows read per fetch while streaming.
+     */
+    private static final int STREAM_BATCH = CommonConstants.FIVE_HUNDRED;
+
+    /**
+     * Hidden constructor.
+     */
+    private KeysetPaging() {
+        // utility class
+    }
+
+    /**
+     * Fetches one page.
+     *
+     * @param fetch reads up to the provided number of rows after the provided cursor (null for the first page)
+     * @param cursor key of a row
+     * @param after cursor of the last row already returned, or null
+     * @param limit requested page size
+     * @param <T> row type
+     * @param <C> cursor type
+     * @return CursorPage
+     */
+    static <T, C> CursorPage<T> page(final BiFunction<C, Integer, List<T>> fetch,
+                                     final Function<T, C> cursor,
+                                     final C after,
+                                     final int limit) {
+        final int size = Math.max(1, Math.min(limit, CommonConstants.ONE_THOUSAND));
+        final List<T> items = fetch.apply(after, size);
+        String next = null;
+        if (items.size() == size) {
+            next = String.valueOf(cursor.apply(items.get(items.size() - 1)));
+        }
+        return new CursorPage<>(items, next);
+    }
+
+    /**
+     * Streams every row as newline delimited JSON, writing each batch as soon as it is read.
+     *
+     * @param mapper ObjectMapper
+     * @param fetch reads up to the provided number of rows after the provided cursor (null for the first batch)
+     * @param cursor key of a row
+     * @param <T> row type
+     * @param <C> cursor type
+     * @return streaming response
+     */
+    static <T, C> ResponseEntity<StreamingResponseBody> stream(final ObjectMapper mapper,
+                                                               final BiFunction<C, Integer, List<T>> fetch,
+                                                               final Function<T, C> cursor) {
+        final ObjectWriter writer = mapper.writer();
+        final StreamingResponseBody body = out -> {
+            C after = null;
+            List<T> batch = fetch.apply(after, STREAM_BATCH);
+            while (!batch.isEmpty()) {
+                for (final T row : batch) {
+                    out.write(writer.writeValueAsBytes(row));
+                    out.write('\n');
+                }
+                out.flush();
+                if (batch.size() < STREAM_BATCH) {
+                    break;
+                }
+                after = cursor.apply(batch.get(batch.size() - 1));
+                batch = fetch.apply(after, STREAM_BATCH);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+}
@@ -16,17 +16,25 @@
 
 package org.eaa690.aerie.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.eaa690.aerie.exception.ResourceNotFoundException;
+import org.eaa690.aerie.model.CursorPage;
+import org.eaa690.aerie.model.DispatchSummary;
 import org.eaa690.aerie.model.MemberData;
 import org.eaa690.aerie.model.FindByRFIDResponse;
 import org.eaa690.aerie.model.Member;
 import org.eaa690.aerie.model.RFIDRequest;
+import org.eaa690.aerie.model.RosterSyncSummary;
 import org.eaa690.aerie.model.SlackCommand;
+import org.eaa690.aerie.model.roster.MemberType;
+import org.eaa690.aerie.model.roster.Status;
 import org.eaa690.aerie.service.JotFormService;
 import org.eaa690.aerie.service.RosterService;
 import org.eaa690.aerie.service.SlackService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -36,6 +44,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -70,6 +79,21 @@ public class RosterController {
      */
     private JotFormService jotFormService;
 
+    /**
+     * ObjectMapper.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * Sets ObjectMapper.
+     *
+     * @param value ObjectMapper
+     */
+    @Autowired
+    public void setObjectMapper(final ObjectMapper value) {
+        objectMapper = value;
+    }
+
     /**
      * Sets RosterService.
      *
@@ -102,12 +126,14 @@ public class RosterController {
 
     /**
      * Updates data from roster database.
+     *
+     * @return RosterSyncSummary
      */
     @PostMapping(path = {
             "/update"
     })
-    public void update() {
-        rosterService.update();
+    public RosterSyncSummary update() {
+        return rosterService.syncRoster();
     }
 
     /**
@@ -123,11 +149,7 @@ public class RosterController {
     public String slashMembership(@RequestBody final String message) {
         log.info("Received message from Slack: {}", message);
         final SlackCommand slackCommand = slackService.getSlackCommand(message);
-        final Optional<Member> memberOpt = rosterService
-                .getAllMembers()
-                .stream()
-                .filter(m -> slackCommand.getUserId().equalsIgnoreCase(slackService.getUserIDForUsername(m.getSlack())))
-                .findFirst();
+        final Optional<Member> memberOpt = rosterService.getMemberBySlackUserId(slackCommand.getUserId());
         if (memberOpt.isPresent()) {
             final Member member = memberOpt.get();
             if (member.getExpiration().before(new Date())) {
@@ -176,17 +198,17 @@ public class RosterController {
      * Sends Membership Renewal Messages.
      *
      * @param rosterId Member Roster ID (-1 for all expiring members)
+     * @return DispatchSummary
      * @throws ResourceNotFoundException when member is not found
      */
     @PostMapping(path = {"/{rosterId}/renew"})
-    public void sendMembershipRenewalMessages(@PathVariable("rosterId") final Long rosterId)
+    public DispatchSummary sendMembershipRenewalMessages(@PathVariable("rosterId") final Long rosterId)
             throws ResourceNotFoundException {
         if (rosterId == -1) {
-            rosterService.sendMembershipRenewalMessages();
-        } else {
-            final Member member = rosterService.getMemberByRosterID(rosterId);
-            rosterService.sendRenewMembershipMsg(member);
+            return rosterService.sendMembershipRenewalMessages();
         }
+        final Member member = rosterService.getMemberByRosterID(rosterId);
+        return rosterService.sendRenewMembershipMsg(member);
     }
 
     /**
@@ -243,12 +265,7 @@ public class RosterController {
      */
     @PostMapping(path = {"/find-by-rfid"})
     public FindByRFIDResponse findByRFID(@RequestBody final RFIDRequest rfidRequest) throws ResourceNotFoundException {
-        final Member member = rosterService.getMemberByRFID(rfidRequest.getRfid());
-        final FindByRFIDResponse rfidResponse = new FindByRFIDResponse();
-        rfidResponse.setId(member.getId());
-        rfidResponse.setAdmin(Boolean.FALSE); // TODO
-        rfidResponse.setRosterId(member.getRosterId());
-        return rfidResponse;
+        return rosterService.findByRFID(rfidRequest.getRfid());
     }
 
     /**
@@ -256,12 +273,43 @@ public class RosterController {
      *
      * @param firstName First name
      * @param lastName Last name
+     * @param limit maximum number of results
      * @return MemberData list
      */
     @GetMapping(path = {"/find-by-name"})
     public List<MemberData> findByName(@RequestParam(name = "firstName", required = false) final String firstName,
-                                       @RequestParam(name = "lastName", required = false) final String lastName) {
-        return rosterService.findByName(firstName, lastName);
+                                       @RequestParam(name = "lastName", required = false) final String lastName,
+                                       @RequestParam(name = "limit", required = false) final Integer limit) {
+        if (limit == null) {
+            return rosterService.findByName(firstName, lastName);
+        }
+        return rosterService.findByName(firstName, lastName, limit);
+    }
+
+    /**
+     * Retrieves list of members matching provided member types, status, expiration window and join date.
+     *
+     * @param types Member types
+     * @param status Status
+     * @param expiresAfter earliest (exclusive) expiration, yyyy-MM-dd
+     * @param expiresBefore latest (exclusive) expiration, yyyy-MM-dd
+     * @param joinedAfter earliest (exclusive) join date, yyyy-MM-dd
+     * @return MemberData list
+     */
+    @GetMapping(path = {"/query"})
+    public List<MemberData> query(@RequestParam(name = "type", required = false) final List<MemberType> types,
+                                  @RequestParam(name = "status", required = false) final Status status,
+                                  @RequestParam(name = "expiresAfter", required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final Date expiresAfter,
+                                  @RequestParam(name = "expiresBefore", required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final Date expiresBefore,
+                                  @RequestParam(name = "joinedAfter", required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final Date joinedAfter) {
+        return rosterService
+                .findMembers(types, status, expiresAfter, expiresBefore, joinedAfter)
+                .stream()
+                .map(RosterController::toMemberData)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -274,14 +322,62 @@ public class RosterController {
         return rosterService
                 .getAllMembers()
                 .stream()
-                .map(m -> new MemberData(m.getId(),
-                        m.getRosterId(),
-                        m.getFirstName() + " " + m.getLastName(),
-                        m.getExpiration(),
-                        m.getEaaExpiration(),
-                        m.getYouthProtection(),
-                        m.getBackgroundCheck(),
-                        m.getRfid()))
+                .map(RosterController::toMemberData)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets one page of member's RFID data, in ID order.
+     *
+     * @param after cursor returned with the previous page, omitted for the first page
+     * @param limit page size
+     * @return CursorPage of MemberData
+     */
+    @GetMapping(path = {"/page"})
+    public CursorPage<MemberData> memberDataPage(@RequestParam(name = "after", required = false) final Long after,
+                                                 @RequestParam(name = "limit", defaultValue = "100") final int limit) {
+        return KeysetPaging.page(this::memberDataAfter, MemberData::getId, after, limit);
+    }
+
+    /**
+     * Streams all member's RFID data as newline delimited JSON, in ID order.
+     *
+     * @return MemberData stream
+     */
+    @GetMapping(path = {"/stream"})
+    public ResponseEntity<StreamingResponseBody> streamMemberData() {
+        return KeysetPaging.stream(objectMapper, this::memberDataAfter, MemberData::getId);
+    }
+
+    /**
+     * Reads member's RFID data following the provided member ID.
+     *
+     * @param after member ID, or null
+     * @param limit maximum number of members
+     * @return list of MemberData
+     */
+    private List<MemberData> memberDataAfter(final Long after, final Integer limit) {
+        return rosterService
+                .getMembersAfter(after, limit)
+                .stream()
+                .map(RosterController::toMemberData)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Summarizes a member.
+     *
+     * @param m Member
+     * @return MemberData
+     */
+    private static MemberData toMemberData(final Member m) {
+        return new MemberData(m.getId(),
+                m.getRosterId(),
+                m.getFirstName() + " " + m.getLastName(),
+                m.getExpiration(),
+                m.getEaaExpiration(),
+                m.getYouthProtection(),
+                m.getBackgroundCheck(),
+                m.getRfid());
+    }
 }
@@ -16,15 +16,21 @@
 
 package org.eaa690.aerie.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eaa690.aerie.model.CursorPage;
+import org.eaa690.aerie.model.SlackDirectoryStats;
 import org.eaa690.aerie.model.SlackRecord;
 import org.eaa690.aerie.service.SlackService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -53,6 +59,21 @@ public class SlackController {
         slackService = value;
     }
 
+    /**
+     * ObjectMapper.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * Sets ObjectMapper.
+     *
+     * @param value ObjectMapper
+     */
+    @Autowired
+    public void setObjectMapper(final ObjectMapper value) {
+        objectMapper = value;
+    }
+
     /**
      * Constructor.
      *
@@ -83,4 +104,43 @@ public class SlackController {
     public List<SlackRecord> getAll() {
         return slackService.allSlackUsers();
     }
+
+    /**
+     * Gets one page of Slack users, in username order.
+     *
+     * @param after cursor returned with the previous page, omitted for the first page
+     * @param limit page size
+     * @return CursorPage of SlackRecord
+     */
+    @GetMapping(path = {
+            "/page"
+    })
+    public CursorPage<SlackRecord> getPage(@RequestParam(name = "after", required = false) final String after,
+                                           @RequestParam(name = "limit", defaultValue = "100") final int limit) {
+        return KeysetPaging.page(slackService::getSlackUsersAfter, SlackRecord::getUser, after, limit);
+    }
+
+    /**
+     * Streams all Slack users as newline delimited JSON, in username order.
+     *
+     * @return SlackRecord stream
+     */
+    @GetMapping(path = {
+            "/stream"
+    })
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return KeysetPaging.stream(objectMapper, slackService::getSlackUsersAfter, SlackRecord::getUser);
+    }
+
+    /**
+     * Gets Slack directory cache metrics.
+     *
+     * @return SlackDirectoryStats
+     */
+    @GetMapping(path = {
+            "/directory"
+    })
+    public SlackDirectoryStats directory() {
+        return slackService.getDirectoryStats();
+    }
 }
@@ -16,15 +16,28 @@
 
 package org.eaa690.aerie.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eaa690.aerie.exception.ResourceNotFoundException;
+import org.eaa690.aerie.model.CursorPage;
+import org.eaa690.aerie.model.MailingEngagement;
+import org.eaa690.aerie.model.MemberEngagement;
+import org.eaa690.aerie.model.MessageEngagement;
 import org.eaa690.aerie.model.TrackingData;
+import org.eaa690.aerie.model.TrackingIngestStats;
+import org.eaa690.aerie.service.EngagementService;
 import org.eaa690.aerie.service.TrackingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -42,6 +55,21 @@ public class TrackingController {
      */
     private TrackingService trackingService;
 
+    /**
+     * ObjectMapper.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * Sets ObjectMapper.
+     *
+     * @param value ObjectMapper
+     */
+    @Autowired
+    public void setObjectMapper(final ObjectMapper value) {
+        objectMapper = value;
+    }
+
     /**
      * Sets TrackingService.
      *
@@ -52,6 +80,21 @@ public class TrackingController {
         trackingService = value;
     }
 
+    /**
+     * EngagementService.
+     */
+    private EngagementService engagementService;
+
+    /**
+     * Sets EngagementService.
+     *
+     * @param value EngagementService
+     */
+    @Autowired
+    public void setEngagementService(final EngagementService value) {
+        engagementService = value;
+    }
+
     /**
      * Constructor.
      *
@@ -84,6 +127,39 @@ public class TrackingController {
         return trackingService.getTrackingDataByMember(rosterId);
     }
 
+    /**
+     * Retrieves one page of tracking events, in ID order.
+     *
+     * @param after cursor returned with the previous page, omitted for the first page
+     * @param limit page size
+     * @return CursorPage of TrackingData
+     */
+    @GetMapping(path = {"/events/page"})
+    public CursorPage<TrackingData> eventsPage(@RequestParam(name = "after", required = false) final Long after,
+                                               @RequestParam(name = "limit", defaultValue = "100") final int limit) {
+        return KeysetPaging.page(trackingService::getTrackingDataAfter, TrackingData::getId, after, limit);
+    }
+
+    /**
+     * Streams all tracking events as newline delimited JSON, in ID order.
+     *
+     * @return TrackingData stream
+     */
+    @GetMapping(path = {"/events/stream"})
+    public ResponseEntity<StreamingResponseBody> streamEvents() {
+        return KeysetPaging.stream(objectMapper, trackingService::getTrackingDataAfter, TrackingData::getId);
+    }
+
+    /**
+     * Retrieves tracking event ingestion metrics.
+     *
+     * @return TrackingIngestStats
+     */
+    @GetMapping(path = {"/ingest"})
+    public TrackingIngestStats ingestStats() {
+        return trackingService.getIngestStats();
+    }
+
     /**
      * Retrieves all tracking events.
      *
@@ -93,4 +169,78 @@ public class TrackingController {
     public List<TrackingData> allEvents() {
         return trackingService.getAllTrackingData();
     }
+
+    /**
+     * Retrieves a page of per-message engagement, most recently opened first.
+     *
+     * @param page page number, starting at 0
+     * @param size page size
+     * @return list of MessageEngagement
+     */
+    @GetMapping(path = {"/engagement/messages"})
+    public List<MessageEngagement> messageEngagement(
+            @RequestParam(name = "page", defaultValue = "0") final int page,
+            @RequestParam(name = "size", defaultValue = "50") final int size) {
+        return engagementService.getMessageEngagement(page, size);
+    }
+
+    /**
+     * Retrieves engagement for a single message.
+     *
+     * @param messageId message ID
+     * @return MessageEngagement
+     * @throws ResourceNotFoundException when the message has not been opened
+     */
+    @GetMapping(path = {"/engagement/messages/{messageId}"})
+    public MessageEngagement messageEngagement(@PathVariable("messageId") final Long messageId)
+            throws ResourceNotFoundException {
+        return engagementService.getMessageEngagement(messageId)
+                .orElseThrow(() -> new ResourceNotFoundException("No opens recorded for message " + messageId));
+    }
+
+    /**
+     * Retrieves a page of per-member engagement, most recently opened first.
+     *
+     * @param page page number, starting at 0
+     * @param size page size
+     * @return list of MemberEngagement
+     */
+    @GetMapping(path = {"/engagement/members"})
+    public List<MemberEngagement> memberEngagement(
+            @RequestParam(name = "page", defaultValue = "0") final int page,
+            @RequestParam(name = "size", defaultValue = "50") final int size) {
+        return engagementService.getMemberEngagement(page, size);
+    }
+
+    /**
+     * Retrieves engagement for a single member.
+     *
+     * @param rosterId roster ID
+     * @return MemberEngagement
+     * @throws ResourceNotFoundException when the member has not opened a message
+     */
+    @GetMapping(path = {"/engagement/members/{rosterId}"})
+    public MemberEngagement memberEngagement(@PathVariable("rosterId") final Long rosterId)
+            throws ResourceNotFoundException {
+        return engagementService.getMemberEngagement(rosterId)
+                .orElseThrow(() -> new ResourceNotFoundException("No opens recorded for member " + rosterId));
+    }
+
+    /**
+     * Retrieves open rates by subject for messages sent in the provided period.
+     *
+     * @param since earliest (inclusive) sent date, yyyy-MM-dd
+     * @param until latest (exclusive) sent date, yyyy-MM-dd
+     * @param page page number, starting at 0
+     * @param size page size
+     * @return list of MailingEngagement
+     */
+    @GetMapping(path = {"/engagement/mailings"})
+    public List<MailingEngagement> mailingEngagement(
+            @RequestParam(name = "since") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final Date since,
+            @RequestParam(name = "until") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final Date until,
+            @RequestParam(name = "page", defaultValue = "0") final int page,
+            @RequestParam(name = "size", defaultValue = "50") final int size) {
+        return engagementService.getMailingEngagement(since.toInstant(), until.toInstant(), page, size);
+    }
 }
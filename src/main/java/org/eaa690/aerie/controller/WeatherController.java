@@ -17,7 +17,10 @@
 package org.eaa690.aerie.controller;
 
 import org.eaa690.aerie.config.WeatherProperties;
+import org.eaa690.aerie.model.WeatherFeedStats;
+import org.eaa690.aerie.model.WeatherIngestSummary;
 import org.eaa690.aerie.model.wx.METAR;
+import org.eaa690.aerie.model.wx.TAF;
 import org.eaa690.aerie.exception.InvalidPayloadException;
 import org.eaa690.aerie.exception.ResourceNotFoundException;
 import org.eaa690.aerie.service.WeatherService;
@@ -34,6 +37,7 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * WeatherController.
@@ -98,6 +102,26 @@ public class WeatherController {
         weatherService.update();
     }
 
+    /**
+     * Gets the most recent ingestion summary for each weather product.
+     *
+     * @return WeatherIngestSummary by product
+     */
+    @GetMapping(path = {"/ingest"})
+    public Map<String, WeatherIngestSummary> ingest() {
+        return weatherService.getLastIngest();
+    }
+
+    /**
+     * Gets fetch metrics for each weather feed, including bandwidth and CPU saved by conditional requests.
+     *
+     * @return WeatherFeedStats by feed
+     */
+    @GetMapping(path = {"/feeds"})
+    public Map<String, WeatherFeedStats> feeds() {
+        return weatherService.getFeedStats();
+    }
+
     /**
      * Get METAR.
      *
@@ -130,6 +154,31 @@ public class WeatherController {
         throw new InvalidPayloadException(String.format(INVALID_STATION_MSG, icao));
     }
 
+    /**
+     * Get TAF.
+     *
+     * Note: The only accepted station codes are those found on the Atlanta Sectional Chart
+     *
+     * @param icao station code
+     * @return TAF
+     * @throws ResourceNotFoundException when TAF is not found
+     * @throws InvalidPayloadException when an invalid station code is provided
+     */
+    @GetMapping(path = {
+            "/tafs/{icao}"
+    })
+    public List<TAF> taf(@PathVariable("icao") final String icao)
+            throws ResourceNotFoundException,
+            InvalidPayloadException {
+        if (ATLANTA.equalsIgnoreCase(icao)) {
+            return weatherService.getTAFs(Arrays.asList(weatherProperties.getAtlantaIcaoCodes().split(",")));
+        }
+        if (weatherService.isValidStation(icao.toUpperCase())) {
+            return List.of(weatherService.getTAF(icao.toUpperCase()));
+        }
+        throw new InvalidPayloadException(String.format(INVALID_STATION_MSG, icao));
+    }
+
     /**
      * Filters METAR attributes to only those specified, if any are specified.
      *
@@ -44,6 +44,6 @@ public class SendMembershipRenewalMessages implements Job {
     @Override
     public void execute(final JobExecutionContext context) {
         log.info("Sending membership renewal messages via Job");
-        rosterService.sendMembershipRenewalMessages();
+        log.info("Membership renewal messages sent: {}", rosterService.sendMembershipRenewalMessages());
     }
 }
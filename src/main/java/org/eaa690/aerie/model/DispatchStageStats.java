@@ -0,0 +1,70 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.eaa690.aerie.config.CommonConstants;
+
+/**
+ * Throughput and failure counts for a single message dispatch stage.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchStageStats {
+
+    /**
+     * Stage name.
+     */
+    private String stage;
+
+    /**
+     * Number of tasks completed.
+     */
+    private long succeeded;
+
+    /**
+     * Number of tasks which failed after all attempts.
+     */
+    private long failed;
+
+    /**
+     * Number of retried attempts.
+     */
+    private long retried;
+
+    /**
+     * Time between the stage's first task starting and its last task finishing, in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * Tasks completed per second while the stage was active.
+     *
+     * @return throughput
+     */
+    public double getThroughputPerSecond() {
+        if (succeeded == 0) {
+            return 0;
+        }
+        return (double) succeeded * CommonConstants.ONE_THOUSAND / Math.max(elapsedMillis, 1);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a single message dispatch run.
+ */
+@Getter
+@Setter
+public class DispatchSummary {
+
+    /**
+     * Number of members messages were dispatched for.
+     */
+    private long members;
+
+    /**
+     * Number of members whose messages were fully delivered.
+     */
+    private long delivered;
+
+    /**
+     * Number of members with at least one message handed to the outbox after inline delivery failed.
+     */
+    private long queued;
+
+    /**
+     * Number of members for which shortening or rendering failed after all attempts.
+     */
+    private long failed;
+
+    /**
+     * Number of members not messaged because none of their channels is enabled.
+     */
+    private long skipped;
+
+    /**
+     * Total elapsed time, in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * Per-stage statistics.
+     */
+    private List<DispatchStageStats> stages = new ArrayList<>();
+
+    /**
+     * Required implementation.
+     *
+     * @return summary
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("members=").append(members)
+                .append(", delivered=").append(delivered)
+                .append(", queued=").append(queued)
+                .append(", failed=").append(failed)
+                .append(", skipped=").append(skipped)
+                .append(", elapsedMillis=").append(elapsedMillis);
+        stages.forEach(s -> sb.append(", ").append(s.getStage())
+                .append("[ok=").append(s.getSucceeded())
+                .append(", failed=").append(s.getFailed())
+                .append(", retried=").append(s.getRetried())
+                .append(", perSecond=").append(String.format("%.1f", s.getThroughputPerSecond()))
+                .append(']'));
+        return sb.toString();
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.eaa690.aerie.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.Repository;
 
 import java.util.List;
@@ -49,4 +50,13 @@ public interface GateCodeRepository extends Repository<GateCode, Long> {
      */
     GateCode delete(GateCode gateCode);
 
+    /**
+     * Gets GateCodes with an ID greater than the provided ID, in ID order.
+     *
+     * @param id exclusive lower bound
+     * @param pageable page size
+     * @return GateCode list
+     */
+    List<GateCode> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
 }
@@ -0,0 +1,65 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import lombok.Getter;
+
+/**
+ * Open rate for all messages sent with the same subject in a period.
+ */
+@Getter
+public class MailingEngagement {
+
+    /**
+     * Subject.
+     */
+    private final String subject;
+
+    /**
+     * Messages sent.
+     */
+    private final long sent;
+
+    /**
+     * Messages opened at least once.
+     */
+    private final long opened;
+
+    /**
+     * Fraction of sent messages which were opened.
+     */
+    private final double openRate;
+
+    /**
+     * Constructor.
+     *
+     * @param mailingSubject subject
+     * @param sentCount messages sent
+     * @param openedCount messages opened
+     */
+    public MailingEngagement(final String mailingSubject, final Long sentCount, final Long openedCount) {
+        subject = mailingSubject;
+        sent = sentCount;
+        opened = openedCount;
+        if (sentCount > 0) {
+            openRate = (double) openedCount / sentCount;
+        } else {
+            openRate = 0;
+        }
+    }
+
+}
@@ -18,11 +18,15 @@ package org.eaa690.aerie.model;
 
 import java.util.Date;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Getter;
@@ -39,7 +43,14 @@ import org.eaa690.aerie.model.roster.WebAdminAccess;
  * Member.
  */
 @Entity
-@Table(name = "MEMBER")
+@Table(name = "MEMBER", indexes = {
+        @Index(name = "IDX_MEMBER_ROSTER_ID", columnList = "rosterId"),
+        @Index(name = "IDX_MEMBER_RFID", columnList = "rfid"),
+        @Index(name = "IDX_MEMBER_EMAIL", columnList = "email"),
+        @Index(name = "IDX_MEMBER_EXPIRATION", columnList = "expiration"),
+        @Index(name = "IDX_MEMBER_TYPE_STATUS_EXPIRATION", columnList = "memberType,status,expiration"),
+        @Index(name = "IDX_MEMBER_JOINED", columnList = "joined")
+})
 @Getter
 @Setter
 public class Member extends BaseEntity implements Comparable<Member> {
@@ -147,12 +158,16 @@ public class Member extends BaseEntity implements Comparable<Member> {
     /**
      * Birth Date.
      */
-    private String birthDate;
+    @Temporal(TemporalType.DATE)
+    @JsonFormat(pattern = "EEE. MMMMM dd, yyyy")
+    private Date birthDate;
 
     /**
      * Joined Date.
      */
-    private String joined;
+    @Temporal(TemporalType.DATE)
+    @JsonFormat(pattern = "EEE. MMMMM dd, yyyy")
+    private Date joined;
 
     /**
      * Other Information.
@@ -292,6 +307,94 @@ public class Member extends BaseEntity implements Comparable<Member> {
      */
     private boolean slackEnabled = false;
 
+    /**
+     * Copies every field sourced from the roster management system from the provided member onto this one.
+     * Locally managed fields (ID, audit dates, messaging flags, etc) are left untouched.
+     *
+     * @param source member parsed from the roster export
+     * @return true if any field changed
+     */
+    public boolean mergeRosterData(final Member source) {
+        boolean changed = merge(rosterId, source.getRosterId(), this::setRosterId);
+        changed |= merge(rfid, source.getRfid(), this::setRfid);
+        changed |= merge(slack, source.getSlack(), this::setSlack);
+        changed |= merge(firstName, source.getFirstName(), this::setFirstName);
+        changed |= merge(lastName, source.getLastName(), this::setLastName);
+        changed |= merge(nickname, source.getNickname(), this::setNickname);
+        changed |= merge(username, source.getUsername(), this::setUsername);
+        changed |= merge(spouse, source.getSpouse(), this::setSpouse);
+        changed |= merge(gender, source.getGender(), this::setGender);
+        changed |= merge(memberType, source.getMemberType(), this::setMemberType);
+        changed |= merge(status, source.getStatus(), this::setStatus);
+        changed |= merge(webAdminAccess, source.getWebAdminAccess(), this::setWebAdminAccess);
+        changed |= merge(addressLine1, source.getAddressLine1(), this::setAddressLine1);
+        changed |= merge(addressLine2, source.getAddressLine2(), this::setAddressLine2);
+        changed |= merge(city, source.getCity(), this::setCity);
+        changed |= merge(state, source.getState(), this::setState);
+        changed |= merge(zipCode, source.getZipCode(), this::setZipCode);
+        changed |= merge(country, source.getCountry(), this::setCountry);
+        changed |= mergeDate(birthDate, source.getBirthDate(), this::setBirthDate);
+        changed |= mergeDate(joined, source.getJoined(), this::setJoined);
+        changed |= merge(otherInfo, source.getOtherInfo(), this::setOtherInfo);
+        changed |= merge(family, source.getFamily(), this::setFamily);
+        changed |= merge(numOfFamily, source.getNumOfFamily(), this::setNumOfFamily);
+        changed |= merge(additionalInfo, source.getAdditionalInfo(), this::setAdditionalInfo);
+        changed |= merge(homePhone, source.getHomePhone(), this::setHomePhone);
+        changed |= merge(ratings, source.getRatings(), this::setRatings);
+        changed |= merge(aircraftOwned, source.getAircraftOwned(), this::setAircraftOwned);
+        changed |= merge(aircraftProject, source.getAircraftProject(), this::setAircraftProject);
+        changed |= merge(aircraftBuilt, source.getAircraftBuilt(), this::setAircraftBuilt);
+        changed |= merge(imcClub, source.isImcClub(), this::setImcClub);
+        changed |= merge(vmcClub, source.isVmcClub(), this::setVmcClub);
+        changed |= merge(yePilot, source.isYePilot(), this::setYePilot);
+        changed |= merge(yeVolunteer, source.isYeVolunteer(), this::setYeVolunteer);
+        changed |= merge(eaglePilot, source.isEaglePilot(), this::setEaglePilot);
+        changed |= merge(eagleVolunteer, source.isEagleVolunteer(), this::setEagleVolunteer);
+        changed |= mergeDate(eaaExpiration, source.getEaaExpiration(), this::setEaaExpiration);
+        changed |= mergeDate(youthProtection, source.getYouthProtection(), this::setYouthProtection);
+        changed |= mergeDate(backgroundCheck, source.getBackgroundCheck(), this::setBackgroundCheck);
+        changed |= merge(eaaNumber, source.getEaaNumber(), this::setEaaNumber);
+        changed |= merge(email, source.getEmail(), this::setEmail);
+        changed |= merge(cellPhone, source.getCellPhone(), this::setCellPhone);
+        changed |= mergeDate(expiration, source.getExpiration(), this::setExpiration);
+        return changed;
+    }
+
+    /**
+     * Applies the incoming value if it differs from the current one.
+     *
+     * @param current current value
+     * @param incoming incoming value
+     * @param setter applied when the values differ
+     * @param <T> value type
+     * @return true if the value changed
+     */
+    private static <T> boolean merge(final T current, final T incoming, final Consumer<T> setter) {
+        if (Objects.equals(current, incoming)) {
+            return false;
+        }
+        setter.accept(incoming);
+        return true;
+    }
+
+    /**
+     * Applies the incoming date if it differs from the current one.
+     * Note: dates loaded by JPA are java.sql.Timestamp, which never equals a java.util.Date, so compare millis
+     *
+     * @param current current value
+     * @param incoming incoming value
+     * @param setter applied when the values differ
+     * @return true if the value changed
+     */
+    private static boolean mergeDate(final Date current, final Date incoming, final Consumer<Date> setter) {
+        if (current == null && incoming == null
+                || current != null && incoming != null && current.getTime() == incoming.getTime()) {
+            return false;
+        }
+        setter.accept(incoming);
+        return true;
+    }
+
     /**
      * Required implementation.
      *
@@ -0,0 +1,63 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MemberEngagementRepository.
+ */
+public interface MemberEngagementRepository extends Repository<MemberEngagement, Long> {
+
+    /**
+     * Saves MemberEngagement rows.
+     *
+     * @param engagements MemberEngagement
+     * @return saved MemberEngagement
+     */
+    List<MemberEngagement> saveAll(Iterable<MemberEngagement> engagements);
+
+    /**
+     * Finds the MemberEngagement for a member.
+     *
+     * @param rosterId roster ID
+     * @return MemberEngagement
+     */
+    Optional<MemberEngagement> findByRosterId(Long rosterId);
+
+    /**
+     * Finds the MemberEngagement rows for the provided members.
+     *
+     * @param rosterIds roster IDs
+     * @return MemberEngagement
+     */
+    List<MemberEngagement> findByRosterIdIn(Collection<Long> rosterIds);
+
+    /**
+     * Gets a page of MemberEngagement, most recently opened first.
+     *
+     * @param pageable page
+     * @return MemberEngagement
+     */
+    List<MemberEngagement> findAllByOrderByLastOpenedDesc(Pageable pageable);
+
+}
@@ -16,6 +16,8 @@
 
 package org.eaa690.aerie.model;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.repository.Repository;
 
 import java.util.List;
@@ -73,6 +75,14 @@ public interface MemberRepository extends Repository<Member, Long> {
      */
     Optional<List<Member>> findAll();
 
+    /**
+     * Gets all members matching the provided criteria.
+     *
+     * @param spec criteria, see MemberSpecifications
+     * @return all members matching provided criteria
+     */
+    List<Member> findAll(Specification<Member> spec);
+
     /**
      * Saves a member.
      *
@@ -81,4 +91,21 @@ public interface MemberRepository extends Repository<Member, Long> {
      */
     Member save(Member member);
 
+    /**
+     * Saves members in a single transaction, allowing JDBC batching of the writes.
+     *
+     * @param members Members
+     * @return saved Members
+     */
+    List<Member> saveAll(Iterable<Member> members);
+
+    /**
+     * Gets Members with an ID greater than the provided ID, in ID order.
+     *
+     * @param id exclusive lower bound
+     * @param pageable page size
+     * @return Member list
+     */
+    List<Member> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
 }
@@ -0,0 +1,91 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import org.eaa690.aerie.model.roster.MemberType;
+import org.eaa690.aerie.model.roster.Status;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Criteria building blocks for MemberRepository queries.  Each predicate targets an indexed MEMBER column.
+ */
+public final class MemberSpecifications {
+
+    /**
+     * Expiration attribute.
+     */
+    private static final String EXPIRATION = "expiration";
+
+    /**
+     * Utility class.
+     */
+    private MemberSpecifications() {
+    }
+
+    /**
+     * Matches members of any of the provided types.
+     *
+     * @param types member types
+     * @return Specification
+     */
+    public static Specification<Member> memberTypeIn(final Collection<MemberType> types) {
+        return (root, query, cb) -> root.get("memberType").in(types);
+    }
+
+    /**
+     * Matches members with the provided status.
+     *
+     * @param status Status
+     * @return Specification
+     */
+    public static Specification<Member> statusIs(final Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Matches members whose chapter membership expires after the provided date.
+     *
+     * @param date Date
+     * @return Specification
+     */
+    public static Specification<Member> expiresAfter(final Date date) {
+        return (root, query, cb) -> cb.greaterThan(root.get(EXPIRATION), date);
+    }
+
+    /**
+     * Matches members whose chapter membership expires before the provided date.
+     *
+     * @param date Date
+     * @return Specification
+     */
+    public static Specification<Member> expiresBefore(final Date date) {
+        return (root, query, cb) -> cb.lessThan(root.get(EXPIRATION), date);
+    }
+
+    /**
+     * Matches members who joined after the provided date.
+     *
+     * @param date Date
+     * @return Specification
+     */
+    public static Specification<Member> joinedAfter(final Date date) {
+        return (root, query, cb) -> cb.greaterThan(root.get("joined"), date);
+    }
+}
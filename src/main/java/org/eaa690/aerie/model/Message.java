@@ -24,6 +24,9 @@ import org.eaa690.aerie.config.CommonConstants;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Index;
 import javax.persistence.Table;
 import java.time.Instant;
 
@@ -31,7 +34,10 @@ import java.time.Instant;
  * Message.
  */
 @Entity
-@Table(name = "MESSAGE")
+@Table(name = "MESSAGE", indexes = {
+        @Index(name = "IDX_MESSAGE_STATUS_NEXT_ATTEMPT", columnList = "status,nextAttemptAt"),
+        @Index(name = "IDX_MESSAGE_LEASE_OWNER", columnList = "leaseOwner")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -59,6 +65,44 @@ public class Message extends BaseEntity {
     @Column(length = CommonConstants.FOUR_THOUSAND)
     private String body;
 
+    /**
+     * Delivery channel.
+     */
+    @Enumerated(EnumType.STRING)
+    private MessageType channel;
+
+    /**
+     * Delivery status.
+     */
+    @Enumerated(EnumType.STRING)
+    private MessageStatus status;
+
+    /**
+     * Number of delivery attempts made.
+     */
+    private int attempts;
+
+    /**
+     * Earliest time the next delivery attempt may be made.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * Outbox worker currently holding the lease.
+     */
+    private String leaseOwner;
+
+    /**
+     * Time the current lease expires, after which another worker may claim the message.
+     */
+    private Instant leaseExpiresAt;
+
+    /**
+     * Reason the last delivery attempt failed.
+     */
+    @Column(length = CommonConstants.ONE_THOUSAND)
+    private String lastError;
+
     /**
      * Adds sent value.
      *
@@ -102,4 +146,26 @@ public class Message extends BaseEntity {
         body = value;
         return this;
     }
+
+    /**
+     * Adds channel value.
+     *
+     * @param value channel
+     * @return Message
+     */
+    public Message channel(final MessageType value) {
+        channel = value;
+        return this;
+    }
+
+    /**
+     * Adds status value.
+     *
+     * @param value status
+     * @return Message
+     */
+    public Message status(final MessageStatus value) {
+        status = value;
+        return this;
+    }
 }
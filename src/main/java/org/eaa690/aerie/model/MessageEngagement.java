@@ -0,0 +1,78 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.util.Date;
+
+/**
+ * Rolling open counts for a single message, maintained as tracking events are written.
+ */
+@Entity
+@Table(name = "MESSAGE_ENGAGEMENT", indexes = {
+        @Index(name = "IDX_MESSAGE_ENGAGEMENT_MESSAGE_ID", columnList = "messageId", unique = true),
+        @Index(name = "IDX_MESSAGE_ENGAGEMENT_LAST_OPENED", columnList = "lastOpened")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class MessageEngagement extends BaseEntity {
+
+    /**
+     * Message Id.
+     */
+    private Long messageId;
+
+    /**
+     * Number of distinct members who opened the message.
+     */
+    private int uniqueOpens;
+
+    /**
+     * Number of recorded opens.
+     */
+    private int opens;
+
+    /**
+     * First open.
+     */
+    @JsonFormat(pattern = "EEE. MMMMM dd, yyyy HH:mm")
+    private Date firstOpened;
+
+    /**
+     * Most recent open.
+     */
+    @JsonFormat(pattern = "EEE. MMMMM dd, yyyy HH:mm")
+    private Date lastOpened;
+
+    /**
+     * Constructor.
+     *
+     * @param id Message Id
+     */
+    public MessageEngagement(final Long id) {
+        messageId = id;
+    }
+
+}
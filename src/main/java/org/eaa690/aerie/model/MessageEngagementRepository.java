@@ -0,0 +1,82 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MessageEngagementRepository.
+ */
+public interface MessageEngagementRepository extends Repository<MessageEngagement, Long> {
+
+    /**
+     * Saves MessageEngagement rows.
+     *
+     * @param engagements MessageEngagement
+     * @return saved MessageEngagement
+     */
+    List<MessageEngagement> saveAll(Iterable<MessageEngagement> engagements);
+
+    /**
+     * Finds the MessageEngagement for a message.
+     *
+     * @param messageId Message ID
+     * @return MessageEngagement
+     */
+    Optional<MessageEngagement> findByMessageId(Long messageId);
+
+    /**
+     * Finds the MessageEngagement rows for the provided messages.
+     *
+     * @param messageIds Message IDs
+     * @return MessageEngagement
+     */
+    List<MessageEngagement> findByMessageIdIn(Collection<Long> messageIds);
+
+    /**
+     * Gets a page of MessageEngagement, most recently opened first.
+     *
+     * @param pageable page
+     * @return MessageEngagement
+     */
+    List<MessageEngagement> findAllByOrderByLastOpenedDesc(Pageable pageable);
+
+    /**
+     * Gets open rates by subject for messages sent in the provided period.
+     *
+     * @param since earliest (inclusive) sent time
+     * @param until latest (exclusive) sent time
+     * @param pageable page
+     * @return MailingEngagement
+     */
+    @Query("select new org.eaa690.aerie.model.MailingEngagement(m.subject, count(m.id), count(e.id)) "
+            + "from Message m left join MessageEngagement e on e.messageId = m.id "
+            + "where m.sent >= :since and m.sent < :until and m.subject is not null "
+            + "group by m.subject order by m.subject")
+    List<MailingEngagement> findMailingEngagement(@Param("since") Instant since,
+                                                  @Param("until") Instant until,
+                                                  Pageable pageable);
+
+}
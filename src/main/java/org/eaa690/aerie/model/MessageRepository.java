@@ -16,8 +16,15 @@
 
 package org.eaa690.aerie.model;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,4 +56,82 @@ public interface MessageRepository extends Repository<Message, Long> {
      */
     Message save(Message message);
 
+    /**
+     * Deletes a message.
+     *
+     * @param message Message
+     */
+    void delete(Message message);
+
+    /**
+     * Saves messages in a single batch.
+     *
+     * @param messages Messages
+     * @return saved messages
+     */
+    List<Message> saveAll(Iterable<Message> messages);
+
+    /**
+     * Gets the IDs of messages ready to be claimed on the provided channels: pending messages whose next attempt is
+     * due, and messages whose lease has expired.
+     *
+     * @param now current time
+     * @param channels channels currently delivering
+     * @param pageable maximum number of IDs
+     * @return message IDs, oldest first
+     */
+    @Query("select m.id from Message m "
+            + "where m.channel in :channels "
+            + "and ((m.status = org.eaa690.aerie.model.MessageStatus.PENDING and m.nextAttemptAt <= :now) "
+            + "or (m.status = org.eaa690.aerie.model.MessageStatus.SENDING and m.leaseExpiresAt < :now)) "
+            + "order by m.nextAttemptAt")
+    List<Long> findClaimable(@Param("now") Instant now,
+                             @Param("channels") Collection<MessageType> channels,
+                             Pageable pageable);
+
+    /**
+     * Leases the provided messages to an outbox worker.  Messages claimed by another worker in the meantime are
+     * skipped.
+     *
+     * @param ids message IDs
+     * @param owner lease owner
+     * @param now current time
+     * @param leaseExpiresAt lease expiration
+     * @return number of messages claimed
+     */
+    @Transactional
+    @Modifying
+    @Query("update Message m set m.status = org.eaa690.aerie.model.MessageStatus.SENDING, "
+            + "m.leaseOwner = :owner, m.leaseExpiresAt = :leaseExpiresAt "
+            + "where m.id in :ids "
+            + "and ((m.status = org.eaa690.aerie.model.MessageStatus.PENDING and m.nextAttemptAt <= :now) "
+            + "or (m.status = org.eaa690.aerie.model.MessageStatus.SENDING and m.leaseExpiresAt < :now))")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("owner") String owner,
+              @Param("now") Instant now,
+              @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    /**
+     * Gets the messages leased to an outbox worker.
+     *
+     * @param owner lease owner
+     * @param status message status
+     * @return leased messages
+     */
+    Optional<List<Message>> findByLeaseOwnerAndStatus(String owner, MessageStatus status);
+
+    /**
+     * Marks the provided messages sent and releases their leases.
+     *
+     * @param ids message IDs
+     * @param sent time sent
+     * @return number of messages updated
+     */
+    @Transactional
+    @Modifying
+    @Query("update Message m set m.status = org.eaa690.aerie.model.MessageStatus.SENT, m.sent = :sent, "
+            + "m.attempts = m.attempts + 1, m.leaseOwner = null, m.leaseExpiresAt = null, m.lastError = null "
+            + "where m.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sent") Instant sent);
+
 }
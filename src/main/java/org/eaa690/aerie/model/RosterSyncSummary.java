@@ -0,0 +1,139 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Summary of a single roster synchronization run.
+ */
+@Getter
+@Setter
+public class RosterSyncSummary {
+
+    /**
+     * Number of members inserted.
+     */
+    private long inserted;
+
+    /**
+     * Number of existing members whose roster data changed.
+     */
+    private long updated;
+
+    /**
+     * Number of existing members whose roster data did not change.
+     */
+    private long unchanged;
+
+    /**
+     * Number of local members no longer present in the roster export.
+     */
+    private long removed;
+
+    /**
+     * Number of members without a Slack handle who were matched to a Slack user by name.
+     */
+    private long slackMatched;
+
+    /**
+     * Members without a Slack handle whose name matched more than one Slack user.
+     */
+    private List<String> slackAmbiguous = new ArrayList<>();
+
+    /**
+     * Reason the roster export could not be read in full, or null if the synchronization completed.  A failed
+     * synchronization writes nothing and removes nothing.
+     */
+    private String error;
+
+    /**
+     * Time the synchronization started.
+     */
+    @JsonFormat(pattern = "EEE. MMMMM dd, yyyy HH:mm:ss")
+    private Date startedAt = new Date();
+
+    /**
+     * Time spent streaming and diffing the roster export, in milliseconds.
+     */
+    private long fetchMillis;
+
+    /**
+     * Time spent writing changed members, in milliseconds.
+     */
+    private long writeMillis;
+
+    /**
+     * Increments inserted count.
+     */
+    public void inserted() {
+        inserted++;
+    }
+
+    /**
+     * Increments updated count.
+     */
+    public void updated() {
+        updated++;
+    }
+
+    /**
+     * Increments unchanged count.
+     */
+    public void unchanged() {
+        unchanged++;
+    }
+
+    /**
+     * Total number of members written to the database.
+     *
+     * @return inserted plus updated
+     */
+    public long getWritten() {
+        return inserted + updated;
+    }
+
+    /**
+     * Total elapsed time, in milliseconds.
+     *
+     * @return fetch plus write time
+     */
+    public long getElapsedMillis() {
+        return fetchMillis + writeMillis;
+    }
+
+    /**
+     * Required implementation.
+     *
+     * @return summary
+     */
+    @Override
+    public String toString() {
+        if (error != null) {
+            return "error=" + error + ", elapsedMillis=" + getElapsedMillis();
+        }
+        return "inserted=" + inserted + ", updated=" + updated + ", unchanged=" + unchanged
+                + ", removed=" + removed + ", slackMatched=" + slackMatched
+                + ", slackAmbiguous=" + slackAmbiguous.size() + ", elapsedMillis=" + getElapsedMillis();
+    }
+}
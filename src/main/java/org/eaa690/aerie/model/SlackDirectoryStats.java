@@ -0,0 +1,70 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Slack user directory cache metrics.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlackDirectoryStats {
+
+    /**
+     * Number of Slack users cached.
+     */
+    private int size;
+
+    /**
+     * Time of the last full refresh.
+     */
+    private Instant refreshedAt;
+
+    /**
+     * Seconds since the last full refresh.
+     */
+    private long ageSeconds;
+
+    /**
+     * Whether the last full refresh is older than twice the refresh interval.
+     */
+    private boolean stale;
+
+    /**
+     * Full refreshes completed.
+     */
+    private long refreshes;
+
+    /**
+     * Full refreshes which failed, leaving the previous directory in place.
+     */
+    private long refreshFailures;
+
+    /**
+     * Team-join and user-change events applied.
+     */
+    private long eventUpdates;
+
+}
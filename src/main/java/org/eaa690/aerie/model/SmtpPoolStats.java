@@ -0,0 +1,68 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * SMTP connection pool metrics.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmtpPoolStats {
+
+    /**
+     * Connections opened.
+     */
+    private long connectionsOpened;
+
+    /**
+     * Sends served by an already open connection.
+     */
+    private long connectionsReused;
+
+    /**
+     * Connections reopened after a send failed on a stale connection.
+     */
+    private long reconnects;
+
+    /**
+     * Messages sent.
+     */
+    private long messagesSent;
+
+    /**
+     * Messages which could not be sent.
+     */
+    private long sendFailures;
+
+    /**
+     * Connections currently sending.
+     */
+    private int active;
+
+    /**
+     * Connections currently open and idle.
+     */
+    private int idle;
+
+}
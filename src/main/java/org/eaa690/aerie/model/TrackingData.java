@@ -23,12 +23,18 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import java.util.Date;
 
 /**
  * TrackingData.
  */
 @Entity
+@Table(name = "TRACKING_DATA", indexes = {
+        @Index(name = "IDX_TRACKING_DATA_MESSAGE_ROSTER", columnList = "messageId,rosterId"),
+        @Index(name = "IDX_TRACKING_DATA_ROSTER_ID", columnList = "rosterId")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,8 +16,10 @@
 
 package org.eaa690.aerie.model;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,4 +51,21 @@ public interface TrackingDataRepository extends Repository<TrackingData, Long> {
      */
     Optional<List<TrackingData>> findByRosterId(Long rosterId);
 
+    /**
+     * Find TrackingData for the provided messages.
+     *
+     * @param messageIds message IDs
+     * @return matching TrackingData
+     */
+    List<TrackingData> findByMessageIdIn(Collection<Long> messageIds);
+
+    /**
+     * Gets TrackingDatas with an ID greater than the provided ID, in ID order.
+     *
+     * @param id exclusive lower bound
+     * @param pageable page size
+     * @return TrackingData list
+     */
+    List<TrackingData> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
 }
@@ -0,0 +1,68 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Tracking event ingestion metrics.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrackingIngestStats {
+
+    /**
+     * Events accepted into the buffer.
+     */
+    private long accepted;
+
+    /**
+     * Repeat opens dropped inside the deduplication window.
+     */
+    private long duplicates;
+
+    /**
+     * Events dropped because the buffer was full.
+     */
+    private long dropped;
+
+    /**
+     * Events written to the database.
+     */
+    private long written;
+
+    /**
+     * Writes which failed and were retried.
+     */
+    private long writeFailures;
+
+    /**
+     * Events given up on after failing to be written on their own repeatedly.
+     */
+    private long rejected;
+
+    /**
+     * Events waiting to be written.
+     */
+    private int pending;
+
+}
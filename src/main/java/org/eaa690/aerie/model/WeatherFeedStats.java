@@ -0,0 +1,78 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Weather feed fetch metrics.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherFeedStats {
+
+    /**
+     * Requests sent.
+     */
+    private long requests;
+
+    /**
+     * Requests answered 304 Not Modified, for which ingestion was skipped.
+     */
+    private long notModified;
+
+    /**
+     * Bytes received on the wire.
+     */
+    private long bytesReceived;
+
+    /**
+     * Bytes decoded after decompression.
+     */
+    private long bytesDecoded;
+
+    /**
+     * Bytes not transferred thanks to compression and Not Modified responses.
+     */
+    private long bytesSaved;
+
+    /**
+     * Average CPU time spent decoding a modified feed, in milliseconds.
+     */
+    private double cpuMillisPerIngest;
+
+    /**
+     * CPU time not spent decoding unmodified feeds, in milliseconds.
+     */
+    private double cpuMillisSaved;
+
+    /**
+     * Entity tag of the last ingested feed.
+     */
+    private String etag;
+
+    /**
+     * Last-Modified of the last ingested feed.
+     */
+    private String lastModified;
+
+}
@@ -0,0 +1,108 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Summary of a single weather product ingestion cycle.
+ */
+@Getter
+@Setter
+public class WeatherIngestSummary {
+
+    /**
+     * Weather product, for example METAR.
+     */
+    private String product;
+
+    /**
+     * Number of stations seen for the first time.
+     */
+    private long added;
+
+    /**
+     * Number of stations with a new observation.
+     */
+    private long changed;
+
+    /**
+     * Number of stations whose observation had not changed since the last cycle.
+     */
+    private long unchanged;
+
+    /**
+     * Number of stations in the feed which we do not serve.
+     */
+    private long ignored;
+
+    /**
+     * Time the ingestion started.
+     */
+    @JsonFormat(pattern = "EEE. MMMMM dd, yyyy HH:mm:ss")
+    private Date startedAt = new Date();
+
+    /**
+     * Time spent on the ingestion, in milliseconds.
+     */
+    private long elapsedMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param weatherProduct weather product
+     */
+    public WeatherIngestSummary(final String weatherProduct) {
+        product = weatherProduct;
+    }
+
+    /**
+     * Increments added count.
+     */
+    public void added() {
+        added++;
+    }
+
+    /**
+     * Increments changed count.
+     */
+    public void changed() {
+        changed++;
+    }
+
+    /**
+     * Increments unchanged count.
+     */
+    public void unchanged() {
+        unchanged++;
+    }
+
+    /**
+     * Required implementation.
+     *
+     * @return summary
+     */
+    @Override
+    public String toString() {
+        return product + ": added=" + added + ", changed=" + changed + ", unchanged=" + unchanged
+                + ", ignored=" + ignored + ", elapsedMillis=" + elapsedMillis;
+    }
+}
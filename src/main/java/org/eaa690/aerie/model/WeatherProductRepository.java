@@ -18,6 +18,8 @@ package org.eaa690.aerie.model;
 
 import org.springframework.data.repository.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -40,4 +42,28 @@ public interface WeatherProductRepository extends Repository<WeatherProduct, Lon
      */
     WeatherProduct save(WeatherProduct weatherProduct);
 
+    /**
+     * Saves WeatherProducts.
+     *
+     * @param weatherProducts WeatherProducts
+     * @return saved WeatherProducts
+     */
+    List<WeatherProduct> saveAll(Iterable<WeatherProduct> weatherProducts);
+
+    /**
+     * Finds WeatherProducts whose key starts with the provided prefix.
+     *
+     * @param prefix key prefix
+     * @return matching WeatherProducts
+     */
+    List<WeatherProduct> findByKeyStartingWith(String prefix);
+
+    /**
+     * Finds WeatherProducts with the provided keys.
+     *
+     * @param keys keys
+     * @return matching WeatherProducts
+     */
+    List<WeatherProduct> findByKeyIn(Collection<String> keys);
+
 }
@@ -22,12 +22,15 @@ import org.eaa690.aerie.ssl.FakeX509TrustManager;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
+import java.io.IOException;
 import java.net.http.HttpClient;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Roster Manager.
@@ -74,20 +77,33 @@ public class RosterManager {
     }
 
     /**
-     * Sets list of Slack user names.
+     * Sets the index used to match members without a Slack handle to Slack users.
      *
-     * @param slackUsers list of Slack user names
+     * @param slackNameIndex SlackNameIndex
      */
-    public void setSlackUsers(final List<String> slackUsers) {
-        helper.setSlackUsers(slackUsers);
+    public void setSlackNameIndex(final SlackNameIndex slackNameIndex) {
+        helper.setSlackNameIndex(slackNameIndex);
     }
 
     /**
      * Retrieves a list of all members.
      *
      * @return list of all members
+     * @throws IOException when the roster export cannot be retrieved in full
      */
-    public List<Member> getAllEntries() {
+    public List<Member> getAllEntries() throws IOException {
+        final List<Member> members = new ArrayList<>();
+        streamAllEntries(members::add);
+        return members;
+    }
+
+    /**
+     * Streams all members to the provided consumer as the roster export is read.
+     *
+     * @param consumer receives each member
+     * @throws IOException when the roster export cannot be retrieved in full
+     */
+    public void streamAllEntries(final Consumer<Member> consumer) throws IOException {
         final Map<String, String> headers = helper.getHttpHeaders(httpClient, username, password);
         if (!helper.isLoggedIn()) {
             helper.login(httpClient, headers);
@@ -96,8 +112,7 @@ public class RosterManager {
         if (helper.isLoggedIn()) {
             helper.logout(httpClient, headers);
         }
-        final String data = helper.fetchData(httpClient, headers);
-        return helper.parseRecords(data);
+        helper.fetchData(httpClient, headers, consumer);
     }
 
     /**
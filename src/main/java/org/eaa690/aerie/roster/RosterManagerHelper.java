@@ -32,7 +32,13 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -46,6 +52,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -78,9 +85,9 @@ public class RosterManagerHelper {
     private final Map<String, Element> viewStateMap = new HashMap<>();
 
     /**
-     * List of Slack usernames.
+     * Slack handles by member name.
      */
-    private List<String> slackUsers = new ArrayList<>();
+    private SlackNameIndex slackNameIndex = SlackNameIndex.empty();
 
     /**
      * Tracks login status.
@@ -95,14 +102,13 @@ public class RosterManagerHelper {
     }
 
     /**
-     * Sets list of Slack user names.
+     * Sets the index used to match members without a Slack handle to Slack users.
      *
-     * @param users list of Slack user names
+     * @param index SlackNameIndex
      */
-    public void setSlackUsers(final List<String> users) {
-        if (slackUsers != null) {
-            this.slackUsers = users;
-            log.info("slackUsers set");
+    public void setSlackNameIndex(final SlackNameIndex index) {
+        if (index != null) {
+            slackNameIndex = index;
         }
     }
 
@@ -324,13 +330,16 @@ public class RosterManagerHelper {
     }
 
     /**
-     * Fetch's data from EAA's roster management system.
+     * Fetch's data from EAA's roster management system, handing each member to the provided consumer as soon as its
+     * row has been read.
      *
      * @param httpClient HttpClient
      * @param headers Map of headers
-     * @return fetch data string
+     * @param consumer receives each parsed Member
+     * @throws IOException when the export cannot be retrieved, or ends before its table is complete
      */
-    public String fetchData(final HttpClient httpClient, final Map<String, String> headers) {
+    public void fetchData(final HttpClient httpClient, final Map<String, String> headers,
+                          final Consumer<Member> consumer) throws IOException {
         final String uriStr = RosterConstants.EAA_CHAPTERS_SITE_BASE + "/searchmembers.aspx";
         final String requestBodyStr = buildFetchDataRequestBodyString(headers);
         HttpRequest.Builder builder = HttpRequest.newBuilder()
@@ -344,16 +353,20 @@ public class RosterManagerHelper {
         }
         final HttpRequest request = builder.build();
 
-        final StringBuilder sb = new StringBuilder();
         try {
-            HttpResponse<String> response = httpClient.send(request,
-                    HttpResponse.BodyHandlers.ofString());
+            final HttpResponse<InputStream> response = httpClient.send(request,
+                    HttpResponse.BodyHandlers.ofInputStream());
             log.info("Received status code=" + response.statusCode());
-            sb.append(response.body());
-        } catch (IOException | InterruptedException e) {
-            log.error("[fetchData] Error: {}", e.getMessage());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != HttpURLConnection.HTTP_OK) {
+                    throw new IOException("Roster export failed with status code " + response.statusCode());
+                }
+                parseRecords(body, consumer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while retrieving the roster export");
         }
-        return sb.toString();
     }
 
     /**
@@ -593,13 +606,13 @@ public class RosterManagerHelper {
         data.put(RosterConstants.COUNTRY, Country.toDisplayString(person.getCountry()));
         // Must be in mm/dd/yyyy format
         if (person.getBirthDate() != null) {
-            data.put(RosterConstants.BIRTH_DATE, person.getBirthDate());
+            data.put(RosterConstants.BIRTH_DATE, mdySDF.format(person.getBirthDate()));
         } else {
             data.put(RosterConstants.BIRTH_DATE, RosterConstants.EMPTY_STRING);
         }
         // Must be in mm/dd/yyyy format
         if (person.getJoined() != null) {
-            data.put(RosterConstants.JOIN_DATE, person.getJoined());
+            data.put(RosterConstants.JOIN_DATE, mdySDF.format(person.getJoined()));
         } else {
             data.put(RosterConstants.JOIN_DATE, RosterConstants.EMPTY_STRING);
         }
@@ -780,6 +793,42 @@ public class RosterManagerHelper {
         return records;
     }
 
+    /**
+     * Parses select values from Excel spreadsheet one row at a time, so that memory use is bounded by the size of a
+     * single row rather than the size of the export.
+     *
+     * @param data data
+     * @param consumer receives each parsed Member
+     * @throws IOException when the data cannot be read, or ends before its table is closed
+     */
+    public void parseRecords(final InputStream data, final Consumer<Member> consumer) throws IOException {
+        final TableRowReader rowReader = new TableRowReader(
+                new BufferedReader(new InputStreamReader(data, StandardCharsets.UTF_8)));
+        int rowCount = 0;
+        String row = rowReader.nextRow();
+        while (row != null) {
+            if (rowCount > 0) {
+                try {
+                    final Elements columns = Jsoup.parse("<table>" + row + "</table>").getElementsByTag("td");
+                    int columnCount = 0;
+                    final Member person = new Member();
+                    for (Element column : columns) {
+                        processColumn(columnCount, person, column);
+                        columnCount++;
+                    }
+                    consumer.accept(person);
+                } catch (Exception e) {
+                    log.error("Error", e);
+                }
+            }
+            rowCount++;
+            row = rowReader.nextRow();
+        }
+        if (!rowReader.isTableClosed()) {
+            throw new EOFException("Roster export ended after " + rowCount + " rows, before its table was closed");
+        }
+    }
+
     /**
      * Processes column value.
      *
@@ -825,7 +874,7 @@ public class RosterManagerHelper {
                 person.setUsername(columnText);
                 break;
             case CommonConstants.TEN:
-                person.setBirthDate(columnText);
+                setBirthDate(person, columnText);
                 break;
             case CommonConstants.ELEVEN:
                 person.setAddressLine1(columnText);
@@ -855,7 +904,7 @@ public class RosterManagerHelper {
                 person.setStatus(Status.valueOf(columnText.toUpperCase()));
                 break;
             case CommonConstants.TWENTY:
-                person.setJoined(columnText);
+                setJoined(person, columnText);
                 break;
             case CommonConstants.TWENTY_ONE:
                 setExpiration(person, columnText);
@@ -946,6 +995,41 @@ public class RosterManagerHelper {
         }
     }
 
+    /**
+     * Sets birth date.
+     *
+     * @param person Member
+     * @param columnText column text
+     */
+    private void setBirthDate(final Member person, final String columnText) {
+        if (columnText.isEmpty()) {
+            return;
+        }
+        try {
+            person.setBirthDate(simpleDateFormat.parse(columnText));
+        } catch (ParseException pe) {
+            log.debug("Unable to parse birth date.  columnText={}. {}", columnText, pe.getMessage());
+        }
+    }
+
+    /**
+     * Sets joined date.
+     *
+     * @param person Member
+     * @param columnText column text
+     */
+    private void setJoined(final Member person, final String columnText) {
+        if (columnText.isEmpty()) {
+            return;
+        }
+        try {
+            person.setJoined(simpleDateFormat.parse(columnText));
+            log.debug("Joined date set to {} for {}", person.getJoined(), person.getRosterId());
+        } catch (ParseException pe) {
+            log.debug("Unable to parse joined date.  columnText={}. {}", columnText, pe.getMessage());
+        }
+    }
+
     /**
      * Sets background check date.
      *
@@ -1124,7 +1208,7 @@ public class RosterManagerHelper {
             person.setFamily(String.join(", ", otherInfo.getFamily()));
         }
         if (person.getSlack() == null || "NULL".equalsIgnoreCase(person.getSlack())) {
-            setSlack(slackUsers, person);
+            setSlack(person);
         }
         if (otherInfo.getNumOfFamily() != null) {
             person.setNumOfFamily(otherInfo.getNumOfFamily());
@@ -1132,19 +1216,15 @@ public class RosterManagerHelper {
     }
 
     /**
-     * Assigns slack username if not already assigned and a first/last name match is found.
+     * Assigns slack username if not already assigned and a single Slack user's real name matches the member's.
      *
-     * @param users list of all Slack users
      * @param person Member
      */
-    private void setSlack(final List<String> users, final Member person) {
-        final String username = person.getFirstName() + " " + person.getLastName();
-        users.forEach(str -> {
-            final String[] split = str.split("\\|");
-            if (!"NULL".equalsIgnoreCase(split[1]) && str.contains(username)) {
-                person.setSlack(split[1]);
-            }
-        });
+    private void setSlack(final Member person) {
+        final String handle = slackNameIndex.match(person.getFirstName(), person.getLastName());
+        if (handle != null) {
+            person.setSlack(handle);
+        }
     }
 
 }
@@ -0,0 +1,184 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.roster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.model.SlackRecord;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Maps normalized Slack real names to Slack handles so that roster members without a Slack handle can be matched by
+ * full name with a single hash lookup.  Built once per roster sync.  Names shared by more than one Slack user are
+ * ambiguous: members with those names are reported rather than assigned an arbitrary handle.
+ */
+@Slf4j
+public final class SlackNameIndex {
+
+    /**
+     * Combining marks left behind by Unicode decomposition.
+     */
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Anything other than letters, digits and whitespace.
+     */
+    private static final Pattern PUNCTUATION = Pattern.compile("[^\\p{L}\\p{N}\\s]+");
+
+    /**
+     * Runs of whitespace.
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * Handles by normalized real name.
+     */
+    private final Map<String, String> handles;
+
+    /**
+     * Candidate handles for names shared by more than one Slack user.
+     */
+    private final Map<String, Collection<String>> ambiguous;
+
+    /**
+     * Members assigned a handle.
+     */
+    private final AtomicInteger matched = new AtomicInteger();
+
+    /**
+     * Members whose name matched more than one Slack user.
+     */
+    private final List<String> ambiguousMembers = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Constructor.
+     *
+     * @param byName handles by normalized real name
+     * @param shared candidate handles for ambiguous names
+     */
+    private SlackNameIndex(final Map<String, String> byName, final Map<String, Collection<String>> shared) {
+        handles = byName;
+        ambiguous = shared;
+    }
+
+    /**
+     * Builds an index from the provided Slack users.  Users without a real name or handle are skipped.
+     *
+     * @param users Slack users
+     * @return SlackNameIndex
+     */
+    public static SlackNameIndex of(final Collection<SlackRecord> users) {
+        final Map<String, String> handles = new HashMap<>();
+        final Map<String, Collection<String>> ambiguous = new HashMap<>();
+        for (final SlackRecord user : users) {
+            if (user.getRealName() == null || user.getUser() == null || "NULL".equalsIgnoreCase(user.getUser())) {
+                continue;
+            }
+            final String name = normalize(user.getRealName());
+            if (name.isEmpty()) {
+                continue;
+            }
+            final String existing = handles.putIfAbsent(name, user.getUser());
+            if (existing != null && !existing.equalsIgnoreCase(user.getUser())) {
+                final Collection<String> candidates = ambiguous.computeIfAbsent(name, k -> new TreeSet<>());
+                candidates.add(existing);
+                candidates.add(user.getUser());
+            }
+        }
+        ambiguous.keySet().forEach(handles::remove);
+        return new SlackNameIndex(handles, ambiguous);
+    }
+
+    /**
+     * An empty index, which matches nothing.
+     *
+     * @return SlackNameIndex
+     */
+    public static SlackNameIndex empty() {
+        return new SlackNameIndex(Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * Finds the Slack handle for a member's full name.  Ambiguous names are recorded and return null.
+     *
+     * @param firstName first name
+     * @param lastName last name
+     * @return Slack handle, or null if no single Slack user has that name
+     */
+    public String match(final String firstName, final String lastName) {
+        if (firstName == null || lastName == null) {
+            return null;
+        }
+        final String name = normalize(firstName + " " + lastName);
+        final String handle = handles.get(name);
+        if (handle != null) {
+            matched.incrementAndGet();
+            return handle;
+        }
+        final Collection<String> candidates = ambiguous.get(name);
+        if (candidates != null) {
+            ambiguousMembers.add(firstName + " " + lastName);
+            log.warn("Slack name [{} {}] matches several users {}; not assigning a handle",
+                    firstName, lastName, candidates);
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of members assigned a handle.
+     *
+     * @return matched count
+     */
+    public int getMatched() {
+        return matched.get();
+    }
+
+    /**
+     * Gets the members whose name matched more than one Slack user.
+     *
+     * @return member names
+     */
+    public List<String> getAmbiguousMembers() {
+        synchronized (ambiguousMembers) {
+            return new ArrayList<>(ambiguousMembers);
+        }
+    }
+
+    /**
+     * Normalizes a name: accents and punctuation removed, lower case, single spaces.
+     *
+     * @param value name
+     * @return normalized name
+     */
+    static String normalize(final String value) {
+        String name = Normalizer.normalize(value, Normalizer.Form.NFD);
+        name = DIACRITICS.matcher(name).replaceAll("");
+        name = PUNCTUATION.matcher(name).replaceAll("");
+        name = WHITESPACE.matcher(name).replaceAll(" ");
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
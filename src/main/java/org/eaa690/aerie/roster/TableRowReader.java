@@ -0,0 +1,142 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.roster;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Reads an HTML document one table row at a time.  Only the characters of the row currently being read are held in
+ * memory, so the size of the document does not matter.
+ */
+public class TableRowReader {
+
+    /**
+     * Source of HTML characters.
+     */
+    private final Reader reader;
+
+    /**
+     * Opening tag of a row which implicitly closed the previous row.
+     */
+    private String pendingRowStart;
+
+    /**
+     * Whether a closing table tag has been read.
+     */
+    private boolean tableClosed;
+
+    /**
+     * Constructor.
+     *
+     * @param source buffered source of HTML characters
+     */
+    public TableRowReader(final Reader source) {
+        reader = source;
+    }
+
+    /**
+     * Reads the next table row.
+     *
+     * @return HTML of the next row, from its opening tr tag through its closing tr tag, or null when no rows remain
+     * @throws IOException when the source cannot be read
+     */
+    public String nextRow() throws IOException {
+        StringBuilder row = null;
+        if (pendingRowStart != null) {
+            row = new StringBuilder(pendingRowStart);
+            pendingRowStart = null;
+        }
+        int c = reader.read();
+        while (c != -1) {
+            if (c == '<') {
+                final String tag = readTag();
+                final String name = tagName(tag);
+                if ("tr".equals(name)) {
+                    if (row != null) {
+                        pendingRowStart = tag;
+                        return row.toString();
+                    }
+                    row = new StringBuilder(tag);
+                } else if ("/tr".equals(name) || "/table".equals(name)) {
+                    if ("/table".equals(name)) {
+                        tableClosed = true;
+                    }
+                    if (row != null) {
+                        return row.append(tag).toString();
+                    }
+                } else if (row != null) {
+                    row.append(tag);
+                }
+            } else if (row != null) {
+                row.append((char) c);
+            }
+            c = reader.read();
+        }
+        if (row != null) {
+            return row.toString();
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a closing table tag has been read, which tells a complete document from a truncated one.
+     *
+     * @return true once the end of a table has been read
+     */
+    public boolean isTableClosed() {
+        return tableClosed;
+    }
+
+    /**
+     * Reads the remainder of a tag whose opening bracket has already been consumed.
+     *
+     * @return the complete tag, including brackets
+     * @throws IOException when the source cannot be read
+     */
+    private String readTag() throws IOException {
+        final StringBuilder tag = new StringBuilder("<");
+        int c = reader.read();
+        while (c != -1) {
+            tag.append((char) c);
+            if (c == '>') {
+                break;
+            }
+            c = reader.read();
+        }
+        return tag.toString();
+    }
+
+    /**
+     * Extracts the lower-cased element name (with a leading slash for closing tags) from a tag.
+     *
+     * @param tag complete tag
+     * @return element name
+     */
+    private static String tagName(final String tag) {
+        int end = 1;
+        while (end < tag.length()) {
+            final char ch = tag.charAt(end);
+            if (Character.isWhitespace(ch) || ch == '>' || ch == '/' && end > 1) {
+                break;
+            }
+            end++;
+        }
+        return tag.substring(1, end).toLowerCase(Locale.ROOT);
+    }
+}
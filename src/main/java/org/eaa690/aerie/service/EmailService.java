@@ -21,19 +21,15 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.eaa690.aerie.config.EmailProperties;
 import org.eaa690.aerie.model.MessageRepository;
-import org.eaa690.aerie.ssl.PasswordAuthenticator;
+import org.eaa690.aerie.model.MessageStatus;
+import org.eaa690.aerie.model.MessageType;
+import org.eaa690.aerie.model.SmtpPoolStats;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import javax.activation.DataHandler;
-import javax.activation.DataSource;
-import javax.activation.FileDataSource;
-import javax.mail.Authenticator;
 import javax.mail.BodyPart;
 import javax.mail.Message;
 import javax.mail.MessagingException;
 import javax.mail.Multipart;
-import javax.mail.Session;
-import javax.mail.Transport;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
@@ -41,7 +37,6 @@ import javax.mail.internet.MimeMultipart;
 import java.io.UnsupportedEncodingException;
 import java.time.Instant;
 import java.util.Date;
-import java.util.Properties;
 
 /**
  * Email Service.
@@ -61,6 +56,18 @@ public class EmailService {
     @Autowired
     private MessageRepository messageRepository;
 
+    /**
+     * SmtpTransportPool.
+     */
+    @Autowired
+    private SmtpTransportPool smtpTransportPool;
+
+    /**
+     * InlineAssetCache.
+     */
+    @Autowired
+    private InlineAssetCache inlineAssetCache;
+
     /**
      * Sets EmailProperties.
      * Note: mostly used for unit test mocks
@@ -72,6 +79,28 @@ public class EmailService {
         emailProperties = value;
     }
 
+    /**
+     * Sets SmtpTransportPool.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SmtpTransportPool
+     */
+    @Autowired
+    public void setSmtpTransportPool(final SmtpTransportPool value) {
+        smtpTransportPool = value;
+    }
+
+    /**
+     * Sets InlineAssetCache.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value InlineAssetCache
+     */
+    @Autowired
+    public void setInlineAssetCache(final InlineAssetCache value) {
+        inlineAssetCache = value;
+    }
+
     /**
      * Sets MessageRepository.
      * Note: mostly used for unit test mocks
@@ -91,25 +120,47 @@ public class EmailService {
     private boolean enabled = true;
 
     /**
-     * Sends an email.
+     * Sends an email over a pooled SMTP connection, and records the message as sent once it has been delivered.  A
+     * message that could not be delivered is left as it was, so the caller can hand it to the outbox.
      *
      * @param message Message
      * @param from sender
      * @param password for the sender's mailbox
+     * @return true if the email was sent (or sending is disabled), false if it could not be sent
      */
-    public void sendEmailMessage(final org.eaa690.aerie.model.Message message,
-                                 final String from,
-                                 final String password) {
-        final Properties props = new Properties();
-        props.put("mail.smtp.host", emailProperties.getHost());
-        props.put("mail.smtp.socketFactory.port", "465");
-        props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.port", emailProperties.getSmtpPort());
-        final Authenticator auth = new PasswordAuthenticator(from, password);
-        final Session session = Session.getDefaultInstance(props, auth);
+    public boolean sendEmailMessage(final org.eaa690.aerie.model.Message message,
+                                    final String from,
+                                    final String password) {
+        if (!enabled) {
+            return true;
+        }
+        if (!deliverEmailMessage(message, from, password)) {
+            return false;
+        }
+        messageRepository.save(message
+                .channel(MessageType.Email)
+                .status(MessageStatus.SENT)
+                .sent(Instant.now()));
+        return true;
+    }
+
+    /**
+     * Sends an email over a pooled SMTP connection without recording it.  Used by the outbox, which records
+     * delivery status itself.
+     *
+     * @param message Message
+     * @param from sender
+     * @param password for the sender's mailbox
+     * @return true if the email was sent, false if it could not be sent or sending is disabled
+     */
+    public boolean deliverEmailMessage(final org.eaa690.aerie.model.Message message,
+                                       final String from,
+                                       final String password) {
+        if (!enabled) {
+            return false;
+        }
         try {
-            final MimeMessage msg = new MimeMessage(session);
+            final MimeMessage msg = new MimeMessage(smtpTransportPool.getSession(from, password));
             msg.addHeader("Content-type", "text/HTML; charset=UTF-8");
             msg.addHeader("format", "flowed");
             msg.addHeader("Content-Transfer-Encoding", "8bit");
@@ -119,27 +170,30 @@ public class EmailService {
             msg.setSentDate(new Date());
             msg.setRecipients(Message.RecipientType.TO, InternetAddress.parse(message.getTo(), false));
             msg.setContent(buildMultipartMessage(message.getBody()));
-            if (enabled) {
-                log.info("Sending email with subject [{}] to [{}] from [{}]",
-                        message.getSubject(), message.getTo(), from);
-                messageRepository.save(message.sent(Instant.now()));
-                Transport.send(msg);
-            }
+            log.info("Sending email with subject [{}] to [{}] from [{}]",
+                    message.getSubject(), message.getTo(), from);
+            smtpTransportPool.send(msg, from, password);
+            return true;
         } catch (MessagingException | UnsupportedEncodingException e) {
-            e.printStackTrace();
+            log.error("Unable to send email with subject [{}] to [{}]: {}",
+                    message.getSubject(), message.getTo(), e.getMessage(), e);
+            return false;
         }
     }
 
+    /**
+     * Gets SMTP connection pool metrics.
+     *
+     * @return SmtpPoolStats
+     */
+    public SmtpPoolStats getPoolStats() {
+        return smtpTransportPool.getStats();
+    }
+
     private Multipart buildMultipartMessage(final String body) throws MessagingException {
         final Multipart multipart = new MimeMultipart();
 
-        final BodyPart messageBodyPart1 = new MimeBodyPart();
-        final String letterHeader = emailProperties.getLetterhead();
-        final DataSource source = new FileDataSource(letterHeader);
-        messageBodyPart1.setDataHandler(new DataHandler(source));
-        messageBodyPart1.setFileName(letterHeader);
-        messageBodyPart1.setHeader("Content-ID", "image_id");
-        multipart.addBodyPart(messageBodyPart1);
+        multipart.addBodyPart(inlineAssetCache.inlinePart(emailProperties.getLetterhead(), "image_id"));
 
         final BodyPart messageBodyPart2 = new MimeBodyPart();
         messageBodyPart2.setContent(body, "text/html");
@@ -0,0 +1,244 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.MailingEngagement;
+import org.eaa690.aerie.model.MemberEngagement;
+import org.eaa690.aerie.model.MemberEngagementRepository;
+import org.eaa690.aerie.model.MessageEngagement;
+import org.eaa690.aerie.model.MessageEngagementRepository;
+import org.eaa690.aerie.model.TrackingData;
+import org.eaa690.aerie.model.TrackingDataRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains per-message and per-member open aggregates so engagement can be reported without scanning every
+ * tracking event.  Aggregates are updated by the tracking writer in the same transaction that inserts the events.
+ */
+public class EngagementService {
+
+    /**
+     * TrackingDataRepository.
+     */
+    @Autowired
+    private TrackingDataRepository trackingDataRepository;
+
+    /**
+     * MessageEngagementRepository.
+     */
+    @Autowired
+    private MessageEngagementRepository messageEngagementRepository;
+
+    /**
+     * MemberEngagementRepository.
+     */
+    @Autowired
+    private MemberEngagementRepository memberEngagementRepository;
+
+    /**
+     * Sets TrackingDataRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TrackingDataRepository
+     */
+    @Autowired
+    public void setTrackingDataRepository(final TrackingDataRepository value) {
+        trackingDataRepository = value;
+    }
+
+    /**
+     * Sets MessageEngagementRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MessageEngagementRepository
+     */
+    @Autowired
+    public void setMessageEngagementRepository(final MessageEngagementRepository value) {
+        messageEngagementRepository = value;
+    }
+
+    /**
+     * Sets MemberEngagementRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberEngagementRepository
+     */
+    @Autowired
+    public void setMemberEngagementRepository(final MemberEngagementRepository value) {
+        memberEngagementRepository = value;
+    }
+
+    /**
+     * Folds a batch of tracking events into the aggregates.  Must be called before the events themselves are
+     * inserted, as an open only counts towards unique opens if the member has no earlier open of the message.
+     *
+     * @param events tracking events about to be written
+     */
+    public void record(final List<TrackingData> events) {
+        final Set<Long> messageIds = events.stream().map(TrackingData::getMessageId).collect(Collectors.toSet());
+        final Set<Long> rosterIds = events.stream().map(TrackingData::getRosterId).collect(Collectors.toSet());
+        final Set<String> opened = trackingDataRepository.findByMessageIdIn(messageIds)
+                .stream()
+                .map(EngagementService::key)
+                .collect(Collectors.toCollection(HashSet::new));
+        final Map<Long, MessageEngagement> messages = messageEngagementRepository.findByMessageIdIn(messageIds)
+                .stream()
+                .collect(Collectors.toMap(MessageEngagement::getMessageId, Function.identity()));
+        final Map<Long, MemberEngagement> members = memberEngagementRepository.findByRosterIdIn(rosterIds)
+                .stream()
+                .collect(Collectors.toMap(MemberEngagement::getRosterId, Function.identity()));
+        for (final TrackingData event : events) {
+            final boolean first = opened.add(key(event));
+            final Date when = event.getOpenedDate();
+            final MessageEngagement message =
+                    messages.computeIfAbsent(event.getMessageId(), MessageEngagement::new);
+            message.setOpens(message.getOpens() + 1);
+            if (first) {
+                message.setUniqueOpens(message.getUniqueOpens() + 1);
+            }
+            message.setFirstOpened(earliest(message.getFirstOpened(), when));
+            message.setLastOpened(latest(message.getLastOpened(), when));
+            final MemberEngagement member = members.computeIfAbsent(event.getRosterId(), MemberEngagement::new);
+            member.setOpens(member.getOpens() + 1);
+            if (first) {
+                member.setMessagesOpened(member.getMessagesOpened() + 1);
+            }
+            member.setFirstOpened(earliest(member.getFirstOpened(), when));
+            member.setLastOpened(latest(member.getLastOpened(), when));
+        }
+        messageEngagementRepository.saveAll(messages.values());
+        memberEngagementRepository.saveAll(members.values());
+    }
+
+    /**
+     * Gets a page of message engagement, most recently opened first.
+     *
+     * @param page page number, starting at 0
+     * @param size page size
+     * @return MessageEngagement list
+     */
+    public List<MessageEngagement> getMessageEngagement(final int page, final int size) {
+        return messageEngagementRepository.findAllByOrderByLastOpenedDesc(pageOf(page, size));
+    }
+
+    /**
+     * Gets engagement for a single message.
+     *
+     * @param messageId Message ID
+     * @return MessageEngagement, if the message has been opened
+     */
+    public Optional<MessageEngagement> getMessageEngagement(final Long messageId) {
+        return messageEngagementRepository.findByMessageId(messageId);
+    }
+
+    /**
+     * Gets a page of member engagement, most recently opened first.
+     *
+     * @param page page number, starting at 0
+     * @param size page size
+     * @return MemberEngagement list
+     */
+    public List<MemberEngagement> getMemberEngagement(final int page, final int size) {
+        return memberEngagementRepository.findAllByOrderByLastOpenedDesc(pageOf(page, size));
+    }
+
+    /**
+     * Gets engagement for a single member.
+     *
+     * @param rosterId roster ID
+     * @return MemberEngagement, if the member has opened a message
+     */
+    public Optional<MemberEngagement> getMemberEngagement(final Long rosterId) {
+        return memberEngagementRepository.findByRosterId(rosterId);
+    }
+
+    /**
+     * Gets open rates by subject for messages sent in the provided period.
+     *
+     * @param since earliest (inclusive) sent time
+     * @param until latest (exclusive) sent time
+     * @param page page number, starting at 0
+     * @param size page size
+     * @return MailingEngagement list
+     */
+    public List<MailingEngagement> getMailingEngagement(final Instant since, final Instant until,
+                                                        final int page, final int size) {
+        return messageEngagementRepository.findMailingEngagement(since, until, pageOf(page, size));
+    }
+
+    /**
+     * Builds a page request, capping the page size.
+     *
+     * @param page page number
+     * @param size page size
+     * @return Pageable
+     */
+    private static Pageable pageOf(final int page, final int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, CommonConstants.ONE_THOUSAND)));
+    }
+
+    /**
+     * Builds the (roster ID, message ID) key of an event.
+     *
+     * @param event TrackingData
+     * @return key
+     */
+    private static String key(final TrackingData event) {
+        return event.getRosterId() + "/" + event.getMessageId();
+    }
+
+    /**
+     * Gets the earlier of two dates.
+     *
+     * @param current current value, may be null
+     * @param candidate new value
+     * @return earlier date
+     */
+    private static Date earliest(final Date current, final Date candidate) {
+        if (current == null || candidate.before(current)) {
+            return candidate;
+        }
+        return current;
+    }
+
+    /**
+     * Gets the later of two dates.
+     *
+     * @param current current value, may be null
+     * @param candidate new value
+     * @return later date
+     */
+    private static Date latest(final Date current, final Date candidate) {
+        if (current == null || candidate.after(current)) {
+            return candidate;
+        }
+        return current;
+    }
+}
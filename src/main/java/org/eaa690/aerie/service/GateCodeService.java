@@ -20,11 +20,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.eaa690.aerie.model.GateCode;
 import org.eaa690.aerie.model.GateCodeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Gate Code Service.
@@ -75,6 +77,18 @@ public class GateCodeService {
         return gateCodeRepository.findAll().orElse(new ArrayList<>());
     }
 
+    /**
+     * Gets gate codes in ID order, starting after the provided ID.
+     *
+     * @param afterId ID of the last gate code already read, or null to start at the beginning
+     * @param limit maximum number of gate codes
+     * @return list of GateCode
+     */
+    public List<GateCode> getGateCodesAfter(final Long afterId, final int limit) {
+        return gateCodeRepository.findByIdGreaterThanOrderByIdAsc(Optional.ofNullable(afterId).orElse(0L),
+                PageRequest.of(0, limit));
+    }
+
     /**
      * Gets the current gate code.
      *
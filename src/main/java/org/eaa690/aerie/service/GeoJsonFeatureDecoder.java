@@ -0,0 +1,198 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Streaming decoder for the GeoJSON feeds published by AviationWeather.gov.  Features are read one at a time from the
+ * response stream, so the document is never held in memory as a whole.  The scalar properties of each feature are
+ * collected as text into a single reused map; as soon as a feature's station ID is read and rejected, the rest of
+ * the feature is skipped without being decoded.
+ */
+public final class GeoJsonFeatureDecoder {
+
+    /**
+     * Feature collection array field.
+     */
+    private static final String FEATURES = "features";
+
+    /**
+     * Feature properties field.
+     */
+    private static final String PROPERTIES = "properties";
+
+    /**
+     * Feature and station ID field.
+     */
+    private static final String ID = "id";
+
+    /**
+     * JsonFactory.
+     */
+    private final JsonFactory jsonFactory;
+
+    /**
+     * Accepts the station IDs to be decoded.
+     */
+    private final Predicate<String> stationFilter;
+
+    /**
+     * Constructor.
+     *
+     * @param factory JsonFactory
+     * @param filter accepts the station IDs to be decoded
+     */
+    public GeoJsonFeatureDecoder(final JsonFactory factory, final Predicate<String> filter) {
+        jsonFactory = factory;
+        stationFilter = filter;
+    }
+
+    /**
+     * Decodes a feature collection.  The properties map handed to the sink is reused for the next feature, so the
+     * sink must copy anything it keeps.
+     *
+     * @param in feature collection
+     * @param sink receives the properties of each accepted feature
+     * @return number of features dropped because their station was not accepted
+     * @throws IOException when the stream cannot be read or is not a feature collection
+     */
+    public int decode(final InputStream in, final Consumer<Map<String, String>> sink) throws IOException {
+        int dropped = 0;
+        final Map<String, String> properties = new HashMap<>();
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a GeoJSON feature collection");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && FEATURES.equals(field)) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        properties.clear();
+                        final Feature feature = readFeature(parser, properties);
+                        if (feature == Feature.ACCEPTED) {
+                            sink.accept(properties);
+                        } else if (feature == Feature.DROPPED) {
+                            dropped++;
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Reads one feature, positioned on its START_OBJECT.
+     *
+     * @param parser JsonParser
+     * @param properties receives the feature's scalar properties
+     * @return outcome
+     * @throws IOException when the stream cannot be read
+     */
+    private Feature readFeature(final JsonParser parser, final Map<String, String> properties) throws IOException {
+        boolean hasId = false;
+        boolean accepted = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            if (ID.equals(field)) {
+                hasId = true;
+            }
+            if (accepted && token == JsonToken.START_OBJECT && PROPERTIES.equals(field)) {
+                accepted = readProperties(parser, properties);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!accepted) {
+            return Feature.DROPPED;
+        }
+        if (!hasId) {
+            return Feature.IGNORED;
+        }
+        return Feature.ACCEPTED;
+    }
+
+    /**
+     * Reads a properties object, positioned on its START_OBJECT, stopping early if the station is not accepted.
+     *
+     * @param parser JsonParser
+     * @param properties receives the scalar properties
+     * @return false if the station was not accepted
+     * @throws IOException when the stream cannot be read
+     */
+    private boolean readProperties(final JsonParser parser, final Map<String, String> properties)
+            throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String field = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            if (token.isStructStart()) {
+                parser.skipChildren();
+            } else if (token != JsonToken.VALUE_NULL) {
+                if (ID.equals(field) && !stationFilter.test(parser.getText())) {
+                    skipRemaining(parser);
+                    return false;
+                }
+                properties.put(field, parser.getText());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips to the end of the current object.
+     *
+     * @param parser JsonParser
+     * @throws IOException when the stream cannot be read
+     */
+    private static void skipRemaining(final JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Feature outcome.
+     */
+    private enum Feature {
+        /**
+         * Properties should be handed to the sink.
+         */
+        ACCEPTED,
+        /**
+         * Station not accepted.
+         */
+        DROPPED,
+        /**
+         * Feature without an ID.
+         */
+        IGNORED
+    }
+}
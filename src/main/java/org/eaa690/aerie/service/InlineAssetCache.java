@@ -0,0 +1,169 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.activation.DataHandler;
+import javax.activation.FileTypeMap;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.PreencodedMimeBodyPart;
+import javax.mail.util.ByteArrayDataSource;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches static inline email assets (e.g. the letterhead) as base64 encoded bytes, so that each outgoing message
+ * attaches the prepared bytes instead of reading and encoding the file again.  An entry is reloaded when the file's
+ * modification time or size changes, checked at most once per second per file.
+ */
+@Slf4j
+public class InlineAssetCache {
+
+    /**
+     * Minimum time between file change checks, in milliseconds.
+     */
+    private static final long CHECK_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * MIME line length, per RFC 2045.
+     */
+    private static final int MIME_LINE_LENGTH = 76;
+
+    /**
+     * Prepared assets keyed by file path.
+     */
+    private final Map<String, Asset> assets = new ConcurrentHashMap<>();
+
+    /**
+     * Builds an inline body part for the provided file from its cached, pre-encoded bytes.
+     *
+     * @param path file path
+     * @param contentId Content-ID header value
+     * @return MimeBodyPart
+     * @throws MessagingException when the file cannot be read
+     */
+    public MimeBodyPart inlinePart(final String path, final String contentId) throws MessagingException {
+        final Asset asset = get(path);
+        final PreencodedMimeBodyPart part = new PreencodedMimeBodyPart("base64");
+        part.setDataHandler(new DataHandler(new ByteArrayDataSource(asset.getEncoded(), asset.getContentType())));
+        part.setFileName(path);
+        part.setHeader("Content-ID", contentId);
+        return part;
+    }
+
+    /**
+     * Number of cached assets.
+     *
+     * @return size
+     */
+    public int size() {
+        return assets.size();
+    }
+
+    /**
+     * Gets the prepared asset for the provided file, (re)loading it if it is missing or the file changed.
+     *
+     * @param path file path
+     * @return Asset
+     * @throws MessagingException when the file cannot be read
+     */
+    private Asset get(final String path) throws MessagingException {
+        final long now = System.currentTimeMillis();
+        final Asset cached = assets.get(path);
+        if (cached != null && now - cached.getCheckedAt() < CHECK_INTERVAL_MILLIS) {
+            return cached;
+        }
+        try {
+            final Path file = Paths.get(path);
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            final long modified = attributes.lastModifiedTime().toMillis();
+            if (cached != null && cached.getModified() == modified && cached.getSize() == attributes.size()) {
+                final Asset checked = new Asset(cached.getEncoded(), cached.getContentType(), modified,
+                        cached.getSize(), now);
+                assets.put(path, checked);
+                return checked;
+            }
+            final byte[] encoded = Base64.getMimeEncoder(MIME_LINE_LENGTH, new byte[] {'\r', '\n'})
+                    .encode(Files.readAllBytes(file));
+            final Asset loaded = new Asset(encoded, contentType(path), modified, attributes.size(), now);
+            assets.put(path, loaded);
+            log.info("Loaded inline asset {} ({} bytes)", path, attributes.size());
+            return loaded;
+        } catch (IOException e) {
+            assets.remove(path);
+            throw new MessagingException("Unable to read inline asset " + path, e);
+        }
+    }
+
+    /**
+     * Determines the content type of the provided file from its name.
+     *
+     * @param path file path
+     * @return content type
+     */
+    private static String contentType(final String path) {
+        final String contentType = URLConnection.guessContentTypeFromName(path);
+        if (contentType != null) {
+            return contentType;
+        }
+        return FileTypeMap.getDefaultFileTypeMap().getContentType(path);
+    }
+
+    /**
+     * An immutable, pre-encoded asset.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Asset {
+
+        /**
+         * Base64 encoded file contents.
+         */
+        private final byte[] encoded;
+
+        /**
+         * Content type.
+         */
+        private final String contentType;
+
+        /**
+         * File modification time when loaded, in milliseconds.
+         */
+        private final long modified;
+
+        /**
+         * File size when loaded.
+         */
+        private final long size;
+
+        /**
+         * Last time the file was checked for changes, in milliseconds.
+         */
+        private final long checkedAt;
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory name index over first name, last name, nickname and spouse, supporting exact, prefix and
+ * edit-distance matching, case-insensitively.  Results are ranked by match quality, and by whether the term matched
+ * the field it was searched for (e.g. a first name query matching a first name or nickname ranks above one matching
+ * a spouse).  Maintained incrementally as the roster sync reports changed members; each change publishes a new
+ * immutable snapshot, so searches never lock and never see a partially applied update.
+ */
+@Slf4j
+public class MemberNameIndex {
+
+    /**
+     * First name field.
+     */
+    private static final int FIRST_NAME = 1;
+
+    /**
+     * Last name field.
+     */
+    private static final int LAST_NAME = 2;
+
+    /**
+     * Nickname field.
+     */
+    private static final int NICKNAME = 4;
+
+    /**
+     * Spouse field.
+     */
+    private static final int SPOUSE = 8;
+
+    /**
+     * Score for an exact token match.
+     */
+    private static final int EXACT = 3;
+
+    /**
+     * Score for a prefix match.
+     */
+    private static final int PREFIX = 2;
+
+    /**
+     * Score for an edit-distance match.
+     */
+    private static final int FUZZY = 1;
+
+    /**
+     * Minimum term length for edit-distance matching.
+     */
+    private static final int FUZZY_MIN_LENGTH = 3;
+
+    /**
+     * Term length above which two edits are tolerated.
+     */
+    private static final int TWO_EDIT_LENGTH = 6;
+
+    /**
+     * Separates the tokens of a name, for indexing and for queries alike.
+     */
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}']+");
+
+    /**
+     * Published index.  Replaced as a whole on rebuild and update, never modified in place, so a search always sees
+     * one consistent version of the index.
+     */
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyNavigableMap(), Collections.emptyMap());
+
+    /**
+     * Rebuilds the index from the provided members.
+     *
+     * @param members all members
+     */
+    public synchronized void rebuild(final Collection<Member> members) {
+        final Builder builder = new Builder(new TreeMap<>(), new HashMap<>());
+        members.forEach(builder::add);
+        snapshot = builder.build();
+        log.info("Member name index rebuilt with {} members and {} tokens",
+                snapshot.getEntries().size(), snapshot.getPostings().size());
+    }
+
+    /**
+     * Re-indexes the provided inserted or changed members.  Only the postings of the affected tokens are copied.
+     *
+     * @param changed inserted or changed members
+     */
+    public synchronized void update(final Collection<Member> changed) {
+        final Snapshot current = snapshot;
+        final Builder builder = new Builder(new TreeMap<>(current.getPostings()), new HashMap<>(current.getEntries()));
+        for (final Member member : changed) {
+            builder.remove(member.getRosterId());
+            builder.add(member);
+        }
+        snapshot = builder.build();
+    }
+
+    /**
+     * Number of indexed members.
+     *
+     * @return size
+     */
+    public int size() {
+        return snapshot.getEntries().size();
+    }
+
+    /**
+     * Searches for members matching every provided term.  Multi-word and hyphenated terms are split into tokens the
+     * same way names are indexed, and every token must match.  Null or blank terms are ignored.
+     *
+     * @param firstName first name (or nickname) term
+     * @param lastName last name term
+     * @param limit maximum number of results; no results are returned unless it is positive
+     * @return MemberData list, best match first
+     */
+    public List<MemberData> search(final String firstName, final String lastName, final int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        final Snapshot current = snapshot;
+        final List<Map<Long, Integer>> termScores = new ArrayList<>();
+        for (final String first : tokenize(firstName)) {
+            termScores.add(score(current.getPostings(), first, FIRST_NAME | NICKNAME));
+        }
+        for (final String last : tokenize(lastName)) {
+            termScores.add(score(current.getPostings(), last, LAST_NAME));
+        }
+        if (termScores.isEmpty()) {
+            return new ArrayList<>();
+        }
+        final Map<Long, Integer> totals = new HashMap<>(termScores.get(0));
+        for (int i = 1; i < termScores.size(); i++) {
+            final Map<Long, Integer> scores = termScores.get(i);
+            totals.keySet().retainAll(scores.keySet());
+            totals.replaceAll((id, total) -> total + scores.get(id));
+        }
+        final Map<Long, Entry> entries = current.getEntries();
+        return totals.entrySet()
+                .stream()
+                .filter(e -> entries.containsKey(e.getKey()))
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(e -> entries.get(e.getKey()).getData().getName(),
+                                Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .map(e -> entries.get(e.getKey()).getData())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Scores every member matching the provided term, keeping each member's best score.
+     *
+     * @param postings token postings to search
+     * @param term normalized term
+     * @param preferredFields fields the term is expected to match
+     * @return score by roster ID
+     */
+    private static Map<Long, Integer> score(final NavigableMap<String, Map<Long, Integer>> postings,
+                                            final String term, final int preferredFields) {
+        final Map<Long, Integer> scores = new HashMap<>();
+        final Map<Long, Integer> exact = postings.get(term);
+        if (exact != null) {
+            collect(scores, exact, EXACT, preferredFields);
+        }
+        postings.subMap(term, false, term + Character.MAX_VALUE, false)
+                .values()
+                .forEach(matches -> collect(scores, matches, PREFIX, preferredFields));
+        if (term.length() >= FUZZY_MIN_LENGTH) {
+            int maxEdits = 1;
+            if (term.length() > TWO_EDIT_LENGTH) {
+                maxEdits = 2;
+            }
+            for (final Map.Entry<String, Map<Long, Integer>> posting : postings.entrySet()) {
+                final String token = posting.getKey();
+                if (!token.startsWith(term) && withinDistance(term, token, maxEdits)) {
+                    collect(scores, posting.getValue(), FUZZY, preferredFields);
+                }
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Records the score of each matched member, doubled when a preferred field matched.
+     *
+     * @param scores scores by roster ID
+     * @param matches matched field mask by roster ID
+     * @param matchScore match quality score
+     * @param preferredFields fields the term is expected to match
+     */
+    private static void collect(final Map<Long, Integer> scores, final Map<Long, Integer> matches,
+                                final int matchScore, final int preferredFields) {
+        matches.forEach((id, fields) -> {
+            int score = matchScore;
+            if ((fields & preferredFields) != 0) {
+                score = matchScore * 2;
+            }
+            scores.merge(id, score, Math::max);
+        });
+    }
+
+    /**
+     * Normalizes a name for indexing and lookup.
+     *
+     * @param value name
+     * @return lower case, trimmed name, never null
+     */
+    private static String normalize(final String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits a name into normalized tokens.
+     *
+     * @param value name
+     * @return tokens, never null
+     */
+    private static List<String> tokenize(final String value) {
+        final List<String> tokens = new ArrayList<>();
+        for (final String token : TOKEN_SEPARATOR.split(normalize(value))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Evaluates whether two strings are within the provided Levenshtein distance, giving up as soon as every
+     * alignment exceeds it.
+     *
+     * @param a first string
+     * @param b second string
+     * @param maxEdits maximum edit distance
+     * @return true if within distance
+     */
+    static boolean withinDistance(final String a, final String b, final int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = 1;
+                if (a.charAt(i - 1) == b.charAt(j - 1)) {
+                    cost = 0;
+                }
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    /**
+     * An indexed member.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Entry {
+
+        /**
+         * Member summary returned by searches.
+         */
+        private final MemberData data;
+
+        /**
+         * Tokens the member is indexed under.
+         */
+        private final List<String> tokens;
+    }
+
+    /**
+     * An immutable version of the index.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Snapshot {
+
+        /**
+         * Token to (roster ID to matched field mask) postings.
+         */
+        private final NavigableMap<String, Map<Long, Integer>> postings;
+
+        /**
+         * Indexed entries keyed by roster ID.
+         */
+        private final Map<Long, Entry> entries;
+    }
+
+    /**
+     * Builds the next snapshot from a copy of the current one.  Postings shared with the current snapshot are copied
+     * before they are first modified.
+     */
+    private static final class Builder {
+
+        /**
+         * Token postings being built.
+         */
+        private final NavigableMap<String, Map<Long, Integer>> postings;
+
+        /**
+         * Entries being built.
+         */
+        private final Map<Long, Entry> entries;
+
+        /**
+         * Tokens whose postings were created or copied by this builder, and so may be modified.
+         */
+        private final Set<String> owned = new HashSet<>();
+
+        /**
+         * Constructor.
+         *
+         * @param initialPostings postings to start from, which may share posting maps with the current snapshot
+         * @param initialEntries entries to start from
+         */
+        Builder(final NavigableMap<String, Map<Long, Integer>> initialPostings,
+                final Map<Long, Entry> initialEntries) {
+            postings = initialPostings;
+            entries = initialEntries;
+        }
+
+        /**
+         * Adds a member.
+         *
+         * @param member Member
+         */
+        void add(final Member member) {
+            if (member.getRosterId() == null) {
+                return;
+            }
+            final Entry entry = new Entry(new MemberData(member.getId(),
+                    member.getRosterId(),
+                    member.getFirstName() + " " + member.getLastName(),
+                    member.getExpiration(),
+                    member.getEaaExpiration(),
+                    member.getYouthProtection(),
+                    member.getBackgroundCheck(),
+                    member.getRfid()), new ArrayList<>());
+            addTokens(entry, member.getFirstName(), FIRST_NAME);
+            addTokens(entry, member.getLastName(), LAST_NAME);
+            addTokens(entry, member.getNickname(), NICKNAME);
+            addTokens(entry, member.getSpouse(), SPOUSE);
+            entries.put(member.getRosterId(), entry);
+        }
+
+        /**
+         * Adds the tokens of a single name field.
+         *
+         * @param entry Entry
+         * @param value field value
+         * @param field field bit
+         */
+        private void addTokens(final Entry entry, final String value, final int field) {
+            for (final String token : tokenize(value)) {
+                writable(token).merge(entry.getData().getRosterId(), field, (a, b) -> a | b);
+                entry.getTokens().add(token);
+            }
+        }
+
+        /**
+         * Removes a member.
+         *
+         * @param rosterId roster ID
+         */
+        void remove(final Long rosterId) {
+            if (rosterId == null) {
+                return;
+            }
+            final Entry entry = entries.remove(rosterId);
+            if (entry == null) {
+                return;
+            }
+            for (final String token : entry.getTokens()) {
+                if (postings.containsKey(token)) {
+                    final Map<Long, Integer> matches = writable(token);
+                    matches.remove(rosterId);
+                    if (matches.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Gets the postings for a token that this builder may modify, creating or copying them as needed.
+         *
+         * @param token token
+         * @return postings
+         */
+        private Map<Long, Integer> writable(final String token) {
+            if (owned.add(token)) {
+                final Map<Long, Integer> existing = postings.get(token);
+                final Map<Long, Integer> copy = new HashMap<>();
+                if (existing != null) {
+                    copy.putAll(existing);
+                }
+                postings.put(token, copy);
+                return copy;
+            }
+            return postings.get(token);
+        }
+
+        /**
+         * Publishes the built index.
+         *
+         * @return Snapshot
+         */
+        Snapshot build() {
+            return new Snapshot(Collections.unmodifiableNavigableMap(postings), Collections.unmodifiableMap(entries));
+        }
+    }
+}
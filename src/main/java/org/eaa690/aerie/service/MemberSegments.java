@@ -0,0 +1,255 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberRepository;
+import org.eaa690.aerie.model.roster.MemberType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the member segments behind the report pages materialized as bitsets over a snapshot of the roster, so that
+ * a report request never rescans the MEMBER table.  Segments are recomputed after each roster sync and again at
+ * local midnight, when expiration and join date windows roll over.
+ */
+@Slf4j
+public class MemberSegments {
+
+    /**
+     * Member segments.
+     */
+    public enum Segment {
+        /**
+         * Regular, family or student members expired within the past 330 days or expiring within 30 days.
+         */
+        EXPIRING,
+        /**
+         * Regular, family or student members whose membership has expired.
+         */
+        EXPIRED,
+        /**
+         * Current regular, family or student members, plus lifetime members.
+         */
+        CURRENT,
+        /**
+         * Current regular, family or student members who are not current national EAA members.
+         */
+        NON_NATIONAL,
+        /**
+         * Regular, family or student members who joined within the past 30 days.
+         */
+        NEW_PAST_MONTH,
+        /**
+         * Regular, family or student members who joined within the past 330 days.
+         */
+        NEW_PAST_YEAR
+    }
+
+    /**
+     * Current snapshot.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * Sets MemberRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberRepository
+     */
+    @Autowired
+    public void setMemberRepository(final MemberRepository value) {
+        memberRepository = value;
+    }
+
+    /**
+     * Gets the members in the provided segment.
+     *
+     * @param segment Segment
+     * @return list of members
+     */
+    public List<Member> getMembers(final Segment segment) {
+        Snapshot current = snapshot;
+        if (current == null || !LocalDate.now().equals(current.getEvaluatedOn())) {
+            current = refresh();
+        }
+        final BitSet bits = current.getSegments().get(segment);
+        final List<Member> members = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            members.add(current.getMembers()[i]);
+        }
+        return members;
+    }
+
+    /**
+     * Recomputes all segments at local midnight.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollover() {
+        rebuild(memberRepository.findAll().orElseGet(ArrayList::new));
+    }
+
+    /**
+     * Recomputes all segments from the provided members in a single pass and swaps them in atomically.
+     *
+     * @param allMembers all members
+     */
+    public synchronized void rebuild(final Collection<Member> allMembers) {
+        final Member[] members = allMembers.toArray(new Member[0]);
+        Arrays.sort(members, Comparator.comparing(Member::getId,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        final Map<Segment, BitSet> segments = new EnumMap<>(Segment.class);
+        for (final Segment segment : Segment.values()) {
+            segments.put(segment, new BitSet(members.length));
+        }
+        final Instant now = Instant.now();
+        final Date today = Date.from(now);
+        final Date thirtyDaysAgo = Date.from(now.minus(CommonConstants.THIRTY, ChronoUnit.DAYS));
+        final Date thirtyDaysAhead = Date.from(now.plus(CommonConstants.THIRTY, ChronoUnit.DAYS));
+        final Date yearAgo = Date.from(now.minus(CommonConstants.THREE_HUNDRED_THIRTY, ChronoUnit.DAYS));
+        for (int i = 0; i < members.length; i++) {
+            final Member member = members[i];
+            if (member.getMemberType() == MemberType.Lifetime) {
+                segments.get(Segment.CURRENT).set(i);
+                continue;
+            }
+            if (!isChapterMembership(member)) {
+                continue;
+            }
+            final Date expiration = member.getExpiration();
+            if (expiration != null) {
+                if (expiration.after(yearAgo) && expiration.before(thirtyDaysAhead)) {
+                    segments.get(Segment.EXPIRING).set(i);
+                }
+                if (expiration.before(today)) {
+                    segments.get(Segment.EXPIRED).set(i);
+                }
+                if (expiration.after(today)) {
+                    segments.get(Segment.CURRENT).set(i);
+                    if (member.getEaaExpiration() == null || !member.getEaaExpiration().after(today)) {
+                        segments.get(Segment.NON_NATIONAL).set(i);
+                    }
+                }
+            }
+            final Date joined = member.getJoined();
+            if (joined != null) {
+                if (joined.after(thirtyDaysAgo)) {
+                    segments.get(Segment.NEW_PAST_MONTH).set(i);
+                }
+                if (joined.after(yearAgo)) {
+                    segments.get(Segment.NEW_PAST_YEAR).set(i);
+                }
+            }
+        }
+        snapshot = new Snapshot(members, segments, LocalDate.now());
+        log.info("Member segments rebuilt from {} members", members.length);
+    }
+
+    /**
+     * Replaces the snapshot's copy of the provided member with its latest saved state, so that changes such as RFID
+     * or email preference updates are visible before the next rebuild.  Segment membership is left as is until the
+     * next rebuild, since those updates do not touch membership type, expiration or join dates.
+     *
+     * @param member saved Member
+     */
+    public synchronized void update(final Member member) {
+        final Snapshot current = snapshot;
+        if (current == null || member == null || member.getId() == null) {
+            return;
+        }
+        final int index = Arrays.binarySearch(current.getMembers(), member, Comparator.comparing(Member::getId,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        if (index < 0) {
+            return;
+        }
+        final Member[] members = current.getMembers().clone();
+        members[index] = member;
+        snapshot = new Snapshot(members, current.getSegments(), current.getEvaluatedOn());
+    }
+
+    /**
+     * Rebuilds the snapshot from the database if it is missing or stale.
+     *
+     * @return Snapshot
+     */
+    private synchronized Snapshot refresh() {
+        final Snapshot current = snapshot;
+        if (current != null && LocalDate.now().equals(current.getEvaluatedOn())) {
+            return current;
+        }
+        rollover();
+        return snapshot;
+    }
+
+    /**
+     * Evaluates if the provided member holds a regular, family or student chapter membership.
+     *
+     * @param member Member
+     * @return membership type check
+     */
+    private static boolean isChapterMembership(final Member member) {
+        return member.getMemberType() == MemberType.Regular
+                || member.getMemberType() == MemberType.Family
+                || member.getMemberType() == MemberType.Student;
+    }
+
+    /**
+     * Immutable view of the members and their segment bitsets, indexed by position in the members array.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Snapshot {
+
+        /**
+         * Members, ordered by ID.
+         */
+        private final Member[] members;
+
+        /**
+         * Segment bitsets.
+         */
+        private final Map<Segment, BitSet> segments;
+
+        /**
+         * Date the segments were evaluated against.
+         */
+        private final LocalDate evaluatedOn;
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberRepository;
+import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.model.roster.MemberType;
+import org.eaa690.aerie.model.roster.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Computes every MembershipReport counter in a single pass over the roster, accumulating into primitive arrays
+ * indexed by MemberType and status bucket.  Counts are adjusted incrementally as the roster sync reports changed
+ * members, and the report is served from a precomputed snapshot which is rebuilt in memory when the date rolls over.
+ */
+@Slf4j
+public class MembershipReportEngine {
+
+    /**
+     * Active (not yet expired) bucket.
+     */
+    private static final int ACTIVE = 0;
+
+    /**
+     * Expired bucket.
+     */
+    private static final int EXPIRED = 1;
+
+    /**
+     * Active and expiring within 30 days bucket.
+     */
+    private static final int EXPIRING = 2;
+
+    /**
+     * Number of status buckets.
+     */
+    private static final int BUCKETS = 3;
+
+    /**
+     * Number of member types.
+     */
+    private static final int TYPES = MemberType.values().length;
+
+    /**
+     * Per-member contribution to the counters, keyed by roster ID.
+     */
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    /**
+     * Membership counts by member type and bucket.
+     */
+    private final long[][] counts = new long[TYPES][BUCKETS];
+
+    /**
+     * Sum of "num of family" by member type and bucket.
+     */
+    private final long[][] familyCounts = new long[TYPES][BUCKETS];
+
+    /**
+     * Membership counts by member type, regardless of status.
+     */
+    private final long[] totals = new long[TYPES];
+
+    /**
+     * Date the current contributions were evaluated against.
+     */
+    private LocalDate evaluatedOn;
+
+    /**
+     * Precomputed report.
+     */
+    private volatile MembershipReport snapshot;
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * Sets MemberRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberRepository
+     */
+    @Autowired
+    public void setMemberRepository(final MemberRepository value) {
+        memberRepository = value;
+    }
+
+    /**
+     * Gets the current membership report.
+     *
+     * @return MembershipReport
+     */
+    public MembershipReport getReport() {
+        final MembershipReport current = snapshot;
+        if (current != null && LocalDate.now().equals(evaluatedOn)) {
+            return current;
+        }
+        return refresh();
+    }
+
+    /**
+     * Applies members inserted or changed by a roster sync to the counters.
+     *
+     * @param changed inserted or changed members
+     */
+    public synchronized void apply(final Collection<Member> changed) {
+        if (snapshot == null || !LocalDate.now().equals(evaluatedOn)) {
+            rebuild(memberRepository.findAll().orElseGet(ArrayList::new));
+            return;
+        }
+        final Instant now = Instant.now();
+        final Instant thirtyDays = now.plus(CommonConstants.THIRTY, ChronoUnit.DAYS);
+        for (final Member member : changed) {
+            if (member.getRosterId() == null) {
+                continue;
+            }
+            final Contribution previous = contributions.remove(member.getRosterId());
+            if (previous != null) {
+                accumulate(previous, -1);
+            }
+            final Contribution contribution = evaluate(member, now, thirtyDays);
+            contributions.put(member.getRosterId(), contribution);
+            accumulate(contribution, 1);
+        }
+        snapshot = buildReport();
+    }
+
+    /**
+     * Rebuilds all counters from the provided members in a single pass.
+     *
+     * @param members all members
+     */
+    public synchronized void rebuild(final Collection<Member> members) {
+        contributions.clear();
+        for (int type = 0; type < TYPES; type++) {
+            totals[type] = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                counts[type][bucket] = 0;
+                familyCounts[type][bucket] = 0;
+            }
+        }
+        final Instant now = Instant.now();
+        final Instant thirtyDays = now.plus(CommonConstants.THIRTY, ChronoUnit.DAYS);
+        for (final Member member : members) {
+            final Contribution contribution = evaluate(member, now, thirtyDays);
+            if (member.getRosterId() != null) {
+                contributions.put(member.getRosterId(), contribution);
+            }
+            accumulate(contribution, 1);
+        }
+        evaluatedOn = LocalDate.now();
+        snapshot = buildReport();
+        log.info("Membership report rebuilt from {} members", members.size());
+    }
+
+    /**
+     * Re-evaluates cached contributions (or loads them if none exist) and publishes a new snapshot.
+     *
+     * @return MembershipReport
+     */
+    private synchronized MembershipReport refresh() {
+        if (snapshot != null && LocalDate.now().equals(evaluatedOn)) {
+            return snapshot;
+        }
+        rebuild(memberRepository.findAll().orElseGet(ArrayList::new));
+        return snapshot;
+    }
+
+    /**
+     * Determines which counters a member contributes to.
+     *
+     * @param member Member
+     * @param now reference time
+     * @param thirtyDays reference time plus 30 days
+     * @return Contribution
+     */
+    private static Contribution evaluate(final Member member, final Instant now, final Instant thirtyDays) {
+        int type = -1;
+        if (member.getMemberType() != null) {
+            type = member.getMemberType().ordinal();
+        }
+        final boolean[] buckets = new boolean[BUCKETS];
+        if (Status.ACTIVE == member.getStatus() && member.getExpiration() != null) {
+            final Instant expiration = member.getExpiration().toInstant();
+            buckets[ACTIVE] = now.isBefore(expiration);
+            buckets[EXPIRED] = now.isAfter(expiration);
+            buckets[EXPIRING] = buckets[ACTIVE] && thirtyDays.isAfter(expiration);
+        }
+        long family = 0;
+        if (member.getNumOfFamily() != null) {
+            family = member.getNumOfFamily();
+        }
+        return new Contribution(type, buckets, family);
+    }
+
+    /**
+     * Adds (or removes) a contribution to (from) the counters.
+     *
+     * @param contribution Contribution
+     * @param sign 1 to add, -1 to remove
+     */
+    private void accumulate(final Contribution contribution, final int sign) {
+        final int type = contribution.getType();
+        if (type < 0) {
+            return;
+        }
+        totals[type] += sign;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (contribution.getBuckets()[bucket]) {
+                counts[type][bucket] += sign;
+                familyCounts[type][bucket] += sign * contribution.getFamily();
+            }
+        }
+    }
+
+    /**
+     * Builds a report from the current counters.
+     *
+     * @return MembershipReport
+     */
+    private MembershipReport buildReport() {
+        final int regular = MemberType.Regular.ordinal();
+        final int family = MemberType.Family.ordinal();
+        final int student = MemberType.Student.ordinal();
+        final MembershipReport report = new MembershipReport();
+        report.setRegularMemberCount(counts[regular][ACTIVE]);
+        report.setRegularMemberExpiredCount(counts[regular][EXPIRED]);
+        report.setRegularMemberWillExpire30DaysCount(counts[regular][EXPIRING]);
+        report.setFamilyMembershipCount(counts[family][ACTIVE]);
+        report.setFamilyMembershipExpiredCount(counts[family][EXPIRED]);
+        report.setFamilyMembershipWillExpire30DaysCount(counts[family][EXPIRING]);
+        report.setFamilyMemberCount(familyCounts[family][ACTIVE]);
+        report.setFamilyMemberExpiredCount(familyCounts[family][EXPIRED]);
+        report.setFamilyMemberWillExpire30DaysCount(familyCounts[family][EXPIRING]);
+        report.setStudentMemberCount(counts[student][ACTIVE]);
+        report.setStudentMemberExpiredCount(counts[student][EXPIRED]);
+        report.setStudentMemberWillExpire30DaysCount(counts[student][EXPIRING]);
+        report.setLifetimeMemberCount(totals[MemberType.Lifetime.ordinal()]);
+        report.setHonoraryMemberCount(totals[MemberType.Honorary.ordinal()]);
+        report.setProspectMemberCount(totals[MemberType.Prospect.ordinal()]);
+        report.setNonMemberCount(totals[MemberType.NonMember.ordinal()]);
+        return report;
+    }
+
+    /**
+     * A single member's contribution to the counters.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Contribution {
+
+        /**
+         * MemberType ordinal, or -1 if unknown.
+         */
+        private final int type;
+
+        /**
+         * Buckets the member falls into.
+         */
+        private final boolean[] buckets;
+
+        /**
+         * Num of family.
+         */
+        private final long family;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.wx.METAR;
+
+import java.util.Objects;
+
+/**
+ * In-memory METARs keyed by ICAO code.  A METAR is republished only when its observation time or raw text changes.
+ */
+public class MetarStore extends WeatherStore<METAR> {
+
+    /**
+     * Constructor.
+     */
+    public MetarStore() {
+        super(METAR.class, CommonConstants.METAR_KEY);
+    }
+
+    /**
+     * Checks whether two METARs report the same observation.
+     *
+     * @param a METAR
+     * @param b METAR
+     * @return true if observation time and raw text match
+     */
+    static boolean sameObservation(final METAR a, final METAR b) {
+        return Objects.equals(a.getObserved(), b.getObserved()) && Objects.equals(a.getRawText(), b.getRawText());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String icao(final METAR metar) {
+        return metar.getIcao();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean same(final METAR a, final METAR b) {
+        return sameObservation(a, b);
+    }
+}
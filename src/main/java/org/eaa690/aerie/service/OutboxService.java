@@ -0,0 +1,332 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.config.MembershipProperties;
+import org.eaa690.aerie.config.OutboxProperties;
+import org.eaa690.aerie.model.Message;
+import org.eaa690.aerie.model.MessageRepository;
+import org.eaa690.aerie.model.MessageStatus;
+import org.eaa690.aerie.model.MessageType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable outbound message queue.  Producers enqueue messages as PENDING rows in a single batched insert, and a pool
+ * of workers claims due rows under a time-limited lease, delivers them over their channel, and writes the outcome
+ * back in bulk.  Failed deliveries are retried with exponential backoff until the maximum number of attempts is
+ * reached, after which the message is marked FAILED.  A worker that dies mid-batch leaves its lease to expire, so its
+ * messages are picked up again by another worker.  Messages for a disabled channel are not claimed, and stay PENDING
+ * without using up attempts until the channel is enabled again.
+ */
+@Slf4j
+public class OutboxService {
+
+    /**
+     * Worker threads.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * OutboxProperties.
+     */
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    /**
+     * MembershipProperties.
+     */
+    @Autowired
+    private MembershipProperties membershipProperties;
+
+    /**
+     * MessageRepository.
+     */
+    @Autowired
+    private MessageRepository messageRepository;
+
+    /**
+     * EmailService.
+     */
+    @Autowired
+    private EmailService emailService;
+
+    /**
+     * SlackService.
+     */
+    @Autowired
+    private SlackService slackService;
+
+    /**
+     * Sets OutboxProperties.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value OutboxProperties
+     */
+    @Autowired
+    public void setOutboxProperties(final OutboxProperties value) {
+        outboxProperties = value;
+    }
+
+    /**
+     * Sets MembershipProperties.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MembershipProperties
+     */
+    @Autowired
+    public void setMembershipProperties(final MembershipProperties value) {
+        membershipProperties = value;
+    }
+
+    /**
+     * Sets MessageRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MessageRepository
+     */
+    @Autowired
+    public void setMessageRepository(final MessageRepository value) {
+        messageRepository = value;
+    }
+
+    /**
+     * Sets EmailService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value EmailService
+     */
+    @Autowired
+    public void setEmailService(final EmailService value) {
+        emailService = value;
+    }
+
+    /**
+     * Sets SlackService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SlackService
+     */
+    @Autowired
+    public void setSlackService(final SlackService value) {
+        slackService = value;
+    }
+
+    /**
+     * Starts the outbox workers.
+     */
+    @PostConstruct
+    public void init() {
+        executor = Executors.newScheduledThreadPool(outboxProperties.getWorkers(),
+                new ThreadFactoryBuilder().setNameFormat("outbox-%d").setDaemon(true).build());
+        for (int i = 0; i < outboxProperties.getWorkers(); i++) {
+            executor.scheduleWithFixedDelay(this::drain, outboxProperties.getPollMillis(),
+                    outboxProperties.getPollMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stops the outbox workers.  Messages they had leased are reclaimed once their leases expire.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Queues messages for delivery.  Every message must have its channel set.  Messages that were already recorded,
+     * for example after a failed inline send, are updated in place rather than duplicated.
+     *
+     * @param messages Messages
+     * @return queued messages
+     */
+    public List<Message> enqueue(final Collection<Message> messages) {
+        if (messages.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Instant now = Instant.now();
+        for (final Message message : messages) {
+            if (message.getChannel() == null) {
+                throw new IllegalArgumentException("Message channel is required");
+            }
+            message.status(MessageStatus.PENDING).sent(null);
+            message.setAttempts(0);
+            message.setNextAttemptAt(now);
+            message.setLeaseOwner(null);
+            message.setLeaseExpiresAt(null);
+        }
+        final List<Message> queued = messageRepository.saveAll(messages);
+        log.debug("Queued {} outbound messages", queued.size());
+        return queued;
+    }
+
+    /**
+     * Processes batches until the outbox has no more due messages.
+     */
+    void drain() {
+        try {
+            while (processBatch() >= outboxProperties.getBatchSize()) {
+                log.debug("Outbox batch full, claiming another");
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox worker failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims a batch of due messages, delivers them, and records the outcome.
+     *
+     * @return number of messages claimed
+     */
+    int processBatch() {
+        final List<MessageType> channels = enabledChannels();
+        if (channels.isEmpty()) {
+            return 0;
+        }
+        final Instant now = Instant.now();
+        final List<Long> ids = messageRepository.findClaimable(now, channels,
+                PageRequest.of(0, outboxProperties.getBatchSize()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        final String owner = UUID.randomUUID().toString();
+        if (messageRepository.claim(ids, owner, now,
+                now.plusSeconds(outboxProperties.getLeaseSeconds())) == 0) {
+            return 0;
+        }
+        final List<Message> claimed = messageRepository
+                .findByLeaseOwnerAndStatus(owner, MessageStatus.SENDING)
+                .orElse(Collections.emptyList());
+        final List<Long> sent = new ArrayList<>();
+        final List<Message> failed = new ArrayList<>();
+        for (final Message message : claimed) {
+            if (!enabledChannels().contains(message.getChannel())) {
+                failed.add(release(message));
+                continue;
+            }
+            String error = null;
+            try {
+                if (!deliver(message)) {
+                    error = message.getChannel() + " delivery failed";
+                }
+            } catch (RuntimeException e) {
+                error = String.valueOf(e.getMessage());
+            }
+            if (error == null) {
+                sent.add(message.getId());
+            } else {
+                failed.add(reschedule(message, error));
+            }
+        }
+        if (!sent.isEmpty()) {
+            messageRepository.markSent(sent, Instant.now());
+        }
+        if (!failed.isEmpty()) {
+            messageRepository.saveAll(failed);
+        }
+        log.info("Outbox batch: claimed={}, sent={}, not sent={}", claimed.size(), sent.size(), failed.size());
+        return claimed.size();
+    }
+
+    /**
+     * Gets the channels which are currently enabled.
+     *
+     * @return channels
+     */
+    private List<MessageType> enabledChannels() {
+        final List<MessageType> channels = new ArrayList<>();
+        if (emailService.isEnabled()) {
+            channels.add(MessageType.Email);
+        }
+        if (slackService.isEnabled()) {
+            channels.add(MessageType.Slack);
+        }
+        return channels;
+    }
+
+    /**
+     * Puts a message back in the queue without counting an attempt, when its channel was disabled after it was
+     * claimed.
+     *
+     * @param message Message
+     * @return the updated message
+     */
+    private Message release(final Message message) {
+        message.setLeaseOwner(null);
+        message.setLeaseExpiresAt(null);
+        return message.status(MessageStatus.PENDING);
+    }
+
+    /**
+     * Delivers a message over its channel.
+     *
+     * @param message Message
+     * @return true if the message was delivered
+     */
+    private boolean deliver(final Message message) {
+        if (message.getChannel() == MessageType.Email) {
+            return emailService.deliverEmailMessage(message,
+                    membershipProperties.getUsername(),
+                    membershipProperties.getPassword());
+        }
+        if (message.getChannel() == MessageType.Slack) {
+            return slackService.deliverSlackMessage(message);
+        }
+        throw new IllegalStateException("Unsupported channel " + message.getChannel());
+    }
+
+    /**
+     * Records a failed attempt, and either schedules the next attempt or marks the message FAILED.
+     *
+     * @param message Message
+     * @param error failure reason
+     * @return the updated message
+     */
+    private Message reschedule(final Message message, final String error) {
+        final int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error.substring(0, Math.min(error.length(), CommonConstants.ONE_THOUSAND)));
+        message.setLeaseOwner(null);
+        message.setLeaseExpiresAt(null);
+        if (attempts >= outboxProperties.getMaxAttempts()) {
+            log.warn("Giving up on {} message {} to {} after {} attempts: {}",
+                    message.getChannel(), message.getId(), message.getTo(), attempts, error);
+            return message.status(MessageStatus.FAILED);
+        }
+        message.setNextAttemptAt(Instant.now()
+                .plusSeconds(outboxProperties.getBackoffSeconds() << Math.min(attempts - 1, CommonConstants.TEN)));
+        return message.status(MessageStatus.PENDING);
+    }
+
+}
@@ -0,0 +1,653 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.DispatchProperties;
+import org.eaa690.aerie.config.MembershipProperties;
+import org.eaa690.aerie.model.DispatchStageStats;
+import org.eaa690.aerie.model.DispatchSummary;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.Message;
+import org.eaa690.aerie.model.MessageRepository;
+import org.eaa690.aerie.model.MessageStatus;
+import org.eaa690.aerie.model.MessageType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Dispatches membership renewal messages through a staged pipeline.  URL shortening, template rendering and email
+ * delivery each run on their own bounded executor, so that a slow TinyURL round trip or SMTP handshake for one member
+ * overlaps with work for others.  Email is rate limited here and retried with exponential backoff; Slack messages are
+ * handed to the asynchronous SlackSender, which paces and coalesces them.  Deliveries that still fail are handed to the
+ * outbox.
+ */
+@Slf4j
+public class RenewalDispatcher {
+
+    /**
+     * Pipeline stages.
+     */
+    public enum Stage {
+        /**
+         * Renewal URL shortening.
+         */
+        SHORTEN,
+        /**
+         * Template rendering.
+         */
+        RENDER,
+        /**
+         * Email delivery.
+         */
+        EMAIL,
+        /**
+         * Slack delivery.
+         */
+        SLACK
+    }
+
+    /**
+     * Stage executors.
+     */
+    private final Map<Stage, ExecutorService> executors = new EnumMap<>(Stage.class);
+
+    /**
+     * Email rate limiter.
+     */
+    private RateLimiter emailLimiter;
+
+    /**
+     * DispatchProperties.
+     */
+    @Autowired
+    private DispatchProperties dispatchProperties;
+
+    /**
+     * MembershipProperties.
+     */
+    @Autowired
+    private MembershipProperties membershipProperties;
+
+    /**
+     * Template Engine.
+     */
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    /**
+     * MessageRepository.
+     */
+    @Autowired
+    private MessageRepository messageRepository;
+
+    /**
+     * JotFormService.
+     */
+    @Autowired
+    private JotFormService jotFormService;
+
+    /**
+     * TrackingService.
+     */
+    @Autowired
+    private TrackingService trackingService;
+
+    /**
+     * EmailService.
+     */
+    @Autowired
+    private EmailService emailService;
+
+    /**
+     * SlackService.
+     */
+    @Autowired
+    private SlackService slackService;
+
+    /**
+     * OutboxService.
+     */
+    @Autowired
+    private OutboxService outboxService;
+
+    /**
+     * Sets DispatchProperties.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value DispatchProperties
+     */
+    @Autowired
+    public void setDispatchProperties(final DispatchProperties value) {
+        dispatchProperties = value;
+    }
+
+    /**
+     * Sets MembershipProperties.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MembershipProperties
+     */
+    @Autowired
+    public void setMembershipProperties(final MembershipProperties value) {
+        membershipProperties = value;
+    }
+
+    /**
+     * Sets TemplateEngine.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TemplateEngine
+     */
+    @Autowired
+    public void setTemplateEngine(final TemplateEngine value) {
+        templateEngine = value;
+    }
+
+    /**
+     * Sets MessageRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MessageRepository
+     */
+    @Autowired
+    public void setMessageRepository(final MessageRepository value) {
+        messageRepository = value;
+    }
+
+    /**
+     * Sets JotFormService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value JotFormService
+     */
+    @Autowired
+    public void setJotFormService(final JotFormService value) {
+        jotFormService = value;
+    }
+
+    /**
+     * Sets TrackingService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TrackingService
+     */
+    @Autowired
+    public void setTrackingService(final TrackingService value) {
+        trackingService = value;
+    }
+
+    /**
+     * Sets EmailService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value EmailService
+     */
+    @Autowired
+    public void setEmailService(final EmailService value) {
+        emailService = value;
+    }
+
+    /**
+     * Sets SlackService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SlackService
+     */
+    @Autowired
+    public void setSlackService(final SlackService value) {
+        slackService = value;
+    }
+
+    /**
+     * Sets OutboxService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value OutboxService
+     */
+    @Autowired
+    public void setOutboxService(final OutboxService value) {
+        outboxService = value;
+    }
+
+    /**
+     * Creates the stage executors and rate limiters.
+     */
+    @PostConstruct
+    public void init() {
+        executors.put(Stage.SHORTEN, newExecutor(Stage.SHORTEN, dispatchProperties.getShortenThreads()));
+        executors.put(Stage.RENDER, newExecutor(Stage.RENDER, dispatchProperties.getRenderThreads()));
+        executors.put(Stage.EMAIL, newExecutor(Stage.EMAIL, dispatchProperties.getEmailThreads()));
+        executors.put(Stage.SLACK, newExecutor(Stage.SLACK, dispatchProperties.getSlackThreads()));
+        emailLimiter = RateLimiter.create(dispatchProperties.getEmailPerSecond());
+    }
+
+    /**
+     * Stops the stage executors.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executors.values().forEach(ExecutorService::shutdown);
+    }
+
+    /**
+     * Sends a renewal message to each provided member, and waits for every delivery to finish.
+     *
+     * @param members Members
+     * @return DispatchSummary
+     */
+    public DispatchSummary dispatch(final Collection<Member> members) {
+        final long start = System.currentTimeMillis();
+        final Map<Stage, StageCounter> counters = new EnumMap<>(Stage.class);
+        for (final Stage stage : Stage.values()) {
+            counters.put(stage, new StageCounter());
+        }
+        final List<CompletableFuture<Outcome>> deliveries = members
+                .stream()
+                .map(member -> CompletableFuture
+                        .supplyAsync(() -> attempt(Stage.SHORTEN, counters,
+                                () -> jotFormService.buildRenewMembershipUrl(member)),
+                                executors.get(Stage.SHORTEN))
+                        .thenApplyAsync(url -> prepare(member, url, counters), executors.get(Stage.RENDER))
+                        .thenApplyAsync(rendered -> deliverEmail(rendered, counters), executors.get(Stage.EMAIL))
+                        .thenCompose(rendered -> deliverSlack(rendered, counters))
+                        .handle((rendered, e) -> {
+                            if (e != null) {
+                                log.warn("Unable to send renewal message to member {}: {}",
+                                        member.getRosterId(), e.getMessage());
+                                return Outcome.FAILED;
+                            }
+                            if (!rendered.getClaimed().get()) {
+                                messageRepository.delete(rendered.getMessage());
+                                return Outcome.SKIPPED;
+                            }
+                            if (rendered.getQueued().get()) {
+                                return Outcome.QUEUED;
+                            }
+                            return Outcome.DELIVERED;
+                        }))
+                .collect(Collectors.toList());
+        final DispatchSummary summary = new DispatchSummary();
+        summary.setMembers(members.size());
+        for (final CompletableFuture<Outcome> delivery : deliveries) {
+            switch (delivery.join()) {
+                case DELIVERED:
+                    summary.setDelivered(summary.getDelivered() + 1);
+                    break;
+                case QUEUED:
+                    summary.setQueued(summary.getQueued() + 1);
+                    break;
+                case SKIPPED:
+                    summary.setSkipped(summary.getSkipped() + 1);
+                    break;
+                default:
+                    summary.setFailed(summary.getFailed() + 1);
+            }
+        }
+        summary.setElapsedMillis(System.currentTimeMillis() - start);
+        summary.setStages(counters.entrySet()
+                .stream()
+                .map(e -> e.getValue().toStats(e.getKey()))
+                .collect(Collectors.toList()));
+        log.info("Renewal dispatch complete: {}", summary);
+        return summary;
+    }
+
+    /**
+     * Builds email unsubscribe link.
+     *
+     * @param member Member
+     * @return URL
+     */
+    public String buildUnsubscribeUrl(final Member member) {
+        return membershipProperties.getHost() + "/unsubscribe/" + member.getRosterId() + "/email";
+    }
+
+    /**
+     * Records the member's message as PENDING, so its ID can go in the tracking link, and renders it.  The row is
+     * recorded once, outside the retried render, and removed again if rendering fails.
+     *
+     * @param member Member
+     * @param renewMembershipUrl shortened renewal URL
+     * @param counters stage counters
+     * @return Rendered
+     */
+    private Rendered prepare(final Member member, final String renewMembershipUrl,
+                             final Map<Stage, StageCounter> counters) {
+        final Message message = messageRepository.save(new Message().status(MessageStatus.PENDING));
+        try {
+            return attempt(Stage.RENDER, counters, () -> render(member, renewMembershipUrl, message));
+        } catch (CompletionException e) {
+            messageRepository.delete(message);
+            throw e;
+        }
+    }
+
+    /**
+     * Renders the email and Slack bodies.
+     *
+     * @param member Member
+     * @param renewMembershipUrl shortened renewal URL
+     * @param message recorded message, whose ID the tracking link refers to
+     * @return Rendered
+     */
+    private Rendered render(final Member member, final String renewMembershipUrl, final Message message) {
+        final Context context = new Context();
+        context.setVariable("member", member);
+        context.setVariable("expiration",
+                new SimpleDateFormat("EEE MMMMM dd, yyyy").format(member.getExpiration()));
+        context.setVariable("unsubscribeUrl", buildUnsubscribeUrl(member));
+        context.setVariable("trackingUrl",
+                trackingService.generateTrackingLink(member.getRosterId(), message.getId()));
+        context.setVariable("url", "<a href=\"" + renewMembershipUrl + "\">" + renewMembershipUrl + "</a>");
+        String emailBody = null;
+        if (member.getEmail() != null && !"".equals(member.getEmail())) {
+            emailBody = templateEngine.process("email/renewing-member", context);
+        }
+        String slackBody = null;
+        if (member.getSlack() != null && !"".equals(member.getSlack())) {
+            slackBody = templateEngine.process("slack/renewing-member", context);
+        }
+        return new Rendered(member, message, emailBody, slackBody);
+    }
+
+    /**
+     * Delivers the rendered email, if any and if email is enabled, as the recorded message.  If every attempt fails
+     * the recorded message itself is handed to the outbox to be retried, so the tracking link in its body keeps
+     * pointing at the row that is eventually sent.
+     *
+     * @param rendered Rendered
+     * @param counters stage counters
+     * @return the rendered message
+     */
+    private Rendered deliverEmail(final Rendered rendered, final Map<Stage, StageCounter> counters) {
+        if (rendered.getEmailBody() != null && emailService.isEnabled()) {
+            rendered.getClaimed().set(true);
+            final Message message = rendered.getMessage()
+                    .channel(MessageType.Email)
+                    .to(rendered.getMember().getEmail())
+                    .subject(membershipProperties.getRenewSubject())
+                    .body(rendered.getEmailBody());
+            try {
+                attempt(Stage.EMAIL, counters, () -> {
+                    emailLimiter.acquire();
+                    if (emailService.sendEmailMessage(message,
+                            membershipProperties.getUsername(),
+                            membershipProperties.getPassword())) {
+                        return Boolean.TRUE;
+                    }
+                    return null;
+                });
+            } catch (CompletionException e) {
+                queue(rendered, message, e.getMessage());
+            }
+        }
+        return rendered;
+    }
+
+    /**
+     * Queues the rendered Slack message, if any and if Slack is enabled, on the Slack sender, which paces and
+     * coalesces posts.  The Slack message is the recorded message unless the email already went out as it.  If the
+     * post fails the message is handed to the outbox to be retried.
+     *
+     * @param rendered Rendered
+     * @param counters stage counters
+     * @return completes with the rendered message once the Slack message has been posted or queued
+     */
+    private CompletableFuture<Rendered> deliverSlack(final Rendered rendered,
+                                                     final Map<Stage, StageCounter> counters) {
+        if (rendered.getSlackBody() == null || !slackService.isEnabled()) {
+            return CompletableFuture.completedFuture(rendered);
+        }
+        Message message = new Message();
+        if (rendered.getClaimed().compareAndSet(false, true)) {
+            message = rendered.getMessage();
+        }
+        message.channel(MessageType.Slack)
+                .to(rendered.getMember().getSlack())
+                .body(rendered.getSlackBody());
+        final Message slackMessage = message;
+        final StageCounter counter = counters.get(Stage.SLACK);
+        final long start = System.nanoTime();
+        return slackService.sendSlackMessageAsync(slackMessage)
+                .exceptionally(e -> Boolean.FALSE)
+                .thenApplyAsync(sent -> {
+                    if (sent) {
+                        counter.succeeded(start);
+                    } else {
+                        counter.getFailed().increment();
+                        queue(rendered, slackMessage, "Slack post failed");
+                    }
+                    return rendered;
+                }, executors.get(Stage.SLACK));
+    }
+
+    /**
+     * Hands a message that could not be delivered inline to the outbox.
+     *
+     * @param rendered Rendered
+     * @param message Message
+     * @param reason delivery failure
+     */
+    private void queue(final Rendered rendered, final Message message, final String reason) {
+        log.info("Queueing {} renewal message for member {}: {}",
+                message.getChannel(), rendered.getMember().getRosterId(), reason);
+        outboxService.enqueue(Collections.singletonList(message));
+        rendered.getQueued().set(true);
+    }
+
+    /**
+     * Runs a stage task, retrying with exponential backoff.  A null result counts as a failed attempt.
+     *
+     * @param stage Stage
+     * @param counters stage counters
+     * @param task task
+     * @param <T> result type
+     * @return task result
+     * @throws CompletionException when every attempt fails
+     */
+    private <T> T attempt(final Stage stage, final Map<Stage, StageCounter> counters, final Callable<T> task) {
+        final StageCounter counter = counters.get(stage);
+        long backoff = dispatchProperties.getBackoffMillis();
+        for (int attempt = 1;; attempt++) {
+            final long start = System.nanoTime();
+            try {
+                final T result = task.call();
+                if (result == null) {
+                    throw new IllegalStateException(stage + " produced no result");
+                }
+                counter.succeeded(start);
+                return result;
+            } catch (Exception e) {
+                if (attempt >= dispatchProperties.getMaxAttempts()) {
+                    counter.getFailed().increment();
+                    throw new CompletionException(stage + " failed after " + attempt + " attempts", e);
+                }
+                counter.getRetried().increment();
+                log.debug("{} attempt {} failed, retrying in {}ms: {}", stage, attempt, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(ie);
+                }
+                backoff *= 2;
+            }
+        }
+    }
+
+    /**
+     * Creates a bounded stage executor.  When its queue is full the submitting thread runs the task, which throttles
+     * the upstream stage.
+     *
+     * @param stage Stage
+     * @param threads number of threads
+     * @return ExecutorService
+     */
+    private ExecutorService newExecutor(final Stage stage, final int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(dispatchProperties.getQueueCapacity()),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("renewal-" + stage.name().toLowerCase(Locale.ROOT) + "-%d")
+                        .setDaemon(true)
+                        .build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * A member's rendered renewal message.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Rendered {
+
+        /**
+         * Member.
+         */
+        private final Member member;
+
+        /**
+         * Recorded message.
+         */
+        private final Message message;
+
+        /**
+         * Email body, or null if the member has no email address.
+         */
+        private final String emailBody;
+
+        /**
+         * Slack body, or null if the member has no Slack handle.
+         */
+        private final String slackBody;
+
+        /**
+         * Whether a channel has taken the recorded message.
+         */
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        /**
+         * Whether a delivery was handed to the outbox.
+         */
+        private final AtomicBoolean queued = new AtomicBoolean();
+    }
+
+    /**
+     * Outcome of a member's dispatch.
+     */
+    private enum Outcome {
+        /**
+         * Every message was delivered inline.
+         */
+        DELIVERED,
+        /**
+         * At least one message was handed to the outbox.
+         */
+        QUEUED,
+        /**
+         * None of the member's channels is enabled, so nothing was sent.
+         */
+        SKIPPED,
+        /**
+         * Shortening or rendering failed, so nothing was sent.
+         */
+        FAILED
+    }
+
+    /**
+     * Per-stage counters for a single dispatch run.
+     */
+    @Getter
+    private static final class StageCounter {
+
+        /**
+         * Completed tasks.
+         */
+        private final LongAdder succeeded = new LongAdder();
+
+        /**
+         * Failed tasks.
+         */
+        private final LongAdder failed = new LongAdder();
+
+        /**
+         * Retried attempts.
+         */
+        private final LongAdder retried = new LongAdder();
+
+        /**
+         * Earliest task start, in nanoseconds.
+         */
+        private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+
+        /**
+         * Latest task finish, in nanoseconds.
+         */
+        private final AtomicLong lastFinish = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * Records a completed task.
+         *
+         * @param start task start, in nanoseconds
+         */
+        void succeeded(final long start) {
+            succeeded.increment();
+            firstStart.accumulateAndGet(start, Math::min);
+            lastFinish.accumulateAndGet(System.nanoTime(), Math::max);
+        }
+
+        /**
+         * Summarizes the counters.
+         *
+         * @param stage Stage
+         * @return DispatchStageStats
+         */
+        DispatchStageStats toStats(final Stage stage) {
+            long elapsed = 0;
+            if (succeeded.sum() > 0) {
+                elapsed = TimeUnit.NANOSECONDS.toMillis(lastFinish.get() - firstStart.get());
+            }
+            return new DispatchStageStats(stage.name(), succeeded.sum(), failed.sum(), retried.sum(), elapsed);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.model.FindByRFIDResponse;
+import org.eaa690.aerie.model.Member;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory RFID to member summary index used by the gate badge readers, so that a card swipe never touches the
+ * database.  Rebuilt atomically after each roster sync and updated in place when a member's RFID changes.
+ */
+@Slf4j
+public class RfidIndex {
+
+    /**
+     * Member summaries keyed by RFID.  Replaced as a whole on rebuild.
+     */
+    private volatile Map<String, FindByRFIDResponse> index = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the index from the provided members and swaps it in atomically.
+     *
+     * @param members all members
+     */
+    public synchronized void rebuild(final Collection<Member> members) {
+        final Map<String, FindByRFIDResponse> rebuilt = new ConcurrentHashMap<>();
+        for (final Member member : members) {
+            final String key = normalize(member.getRfid());
+            if (key != null) {
+                rebuilt.put(key, summarize(member));
+            }
+        }
+        index = rebuilt;
+        log.info("RFID index rebuilt with {} entries", rebuilt.size());
+    }
+
+    /**
+     * Updates a single member's RFID in place.
+     *
+     * @param member Member, after its RFID has been changed
+     * @param previousRfid RFID assigned to the member before the change, if any
+     */
+    public synchronized void update(final Member member, final String previousRfid) {
+        final String previousKey = normalize(previousRfid);
+        if (previousKey != null) {
+            index.remove(previousKey);
+        }
+        final String key = normalize(member.getRfid());
+        if (key != null) {
+            index.put(key, summarize(member));
+        }
+    }
+
+    /**
+     * Looks up the member summary for the provided RFID.  Callers get their own copy, so the indexed summary cannot
+     * be changed through the response.
+     *
+     * @param rfid RFID
+     * @return FindByRFIDResponse, if any
+     */
+    public Optional<FindByRFIDResponse> find(final String rfid) {
+        final String key = normalize(rfid);
+        if (key == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(index.get(key)).map(RfidIndex::copy);
+    }
+
+    /**
+     * Gets the number of indexed RFIDs.
+     *
+     * @return size
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Builds the summary returned to badge readers.
+     *
+     * @param member Member
+     * @return FindByRFIDResponse
+     */
+    public static FindByRFIDResponse summarize(final Member member) {
+        final FindByRFIDResponse summary = new FindByRFIDResponse();
+        summary.setId(member.getId());
+        summary.setAdmin(Boolean.FALSE); // TODO
+        summary.setRosterId(member.getRosterId());
+        return summary;
+    }
+
+    /**
+     * Copies an indexed summary.
+     *
+     * @param summary FindByRFIDResponse
+     * @return FindByRFIDResponse
+     */
+    private static FindByRFIDResponse copy(final FindByRFIDResponse summary) {
+        final FindByRFIDResponse copy = new FindByRFIDResponse();
+        copy.setId(summary.getId());
+        copy.setAdmin(summary.getAdmin());
+        copy.setRosterId(summary.getRosterId());
+        return copy;
+    }
+
+    /**
+     * Normalizes an RFID for use as a key.
+     *
+     * @param rfid RFID
+     * @return trimmed RFID, or null if blank
+     */
+    private static String normalize(final String rfid) {
+        if (rfid == null || rfid.isBlank()) {
+            return null;
+        }
+        return rfid.trim();
+    }
+}
@@ -16,31 +16,41 @@
 
 package org.eaa690.aerie.service;
 
-import java.text.ParseException;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 import org.eaa690.aerie.config.MembershipProperties;
-import org.eaa690.aerie.config.CommonConstants;
 import org.eaa690.aerie.exception.ResourceNotFoundException;
+import org.eaa690.aerie.model.DispatchSummary;
+import org.eaa690.aerie.model.FindByRFIDResponse;
 import org.eaa690.aerie.model.Member;
 import org.eaa690.aerie.model.MemberData;
 import org.eaa690.aerie.model.MemberRepository;
+import org.eaa690.aerie.model.MemberSpecifications;
 import org.eaa690.aerie.model.MembershipReport;
 import org.eaa690.aerie.model.Message;
 import org.eaa690.aerie.model.MessageRepository;
+import org.eaa690.aerie.model.MessageType;
+import org.eaa690.aerie.model.RosterSyncSummary;
 import org.eaa690.aerie.model.roster.MemberType;
 import org.eaa690.aerie.model.roster.Status;
 import org.eaa690.aerie.roster.RosterManager;
+import org.eaa690.aerie.roster.SlackNameIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
@@ -59,11 +69,6 @@ public class RosterService {
      */
     private final SimpleDateFormat sdf = new SimpleDateFormat("EEE MMMMM dd, yyyy");
 
-    /**
-     * Date Format.
-     */
-    private final SimpleDateFormat ymdsdf = new SimpleDateFormat("yyyy-MM-dd");
-
     /**
      * MembershipProperties.
      */
@@ -94,12 +99,6 @@ public class RosterService {
     @Autowired
     private RosterManager rosterManager;
 
-    /**
-     * JotFormService.
-     */
-    @Autowired
-    private JotFormService jotFormService;
-
     /**
      * TrackingService.
      */
@@ -107,10 +106,10 @@ public class RosterService {
     private TrackingService trackingService;
 
     /**
-     * EmailService.
+     * OutboxService.
      */
     @Autowired
-    private EmailService emailService;
+    private OutboxService outboxService;
 
     /**
      * SlackService.
@@ -118,6 +117,42 @@ public class RosterService {
     @Autowired
     private SlackService slackService;
 
+    /**
+     * RfidIndex.
+     */
+    @Autowired
+    private RfidIndex rfidIndex;
+
+    /**
+     * SlackIdentityIndex.
+     */
+    @Autowired
+    private SlackIdentityIndex slackIdentityIndex;
+
+    /**
+     * MembershipReportEngine.
+     */
+    @Autowired
+    private MembershipReportEngine membershipReportEngine;
+
+    /**
+     * MemberSegments.
+     */
+    @Autowired
+    private MemberSegments memberSegments;
+
+    /**
+     * MemberNameIndex.
+     */
+    @Autowired
+    private MemberNameIndex memberNameIndex;
+
+    /**
+     * RenewalDispatcher.
+     */
+    @Autowired
+    private RenewalDispatcher renewalDispatcher;
+
     /**
      * Sets MembershipProperties.
      * Note: mostly used for unit test mocks
@@ -140,16 +175,6 @@ public class RosterService {
         templateEngine = value;
     }
 
-    /**
-     * Sets JotFormService. Note: mostly used for unit test mocks
-     *
-     * @param jfService JotFormService
-     */
-    @Autowired
-    public void setJotFormService(final JotFormService jfService) {
-        jotFormService = jfService;
-    }
-
     /**
      * Sets TrackingService. Note: mostly used for unit test mocks
      *
@@ -161,13 +186,13 @@ public class RosterService {
     }
 
     /**
-     * Sets EmailService. Note: mostly used for unit test mocks
+     * Sets OutboxService. Note: mostly used for unit test mocks
      *
-     * @param eService EmailService
+     * @param oService OutboxService
      */
     @Autowired
-    public void setEmailService(final EmailService eService) {
-        emailService = eService;
+    public void setOutboxService(final OutboxService oService) {
+        outboxService = oService;
     }
 
     /**
@@ -180,6 +205,66 @@ public class RosterService {
         slackService = sService;
     }
 
+    /**
+     * Sets RfidIndex. Note: mostly used for unit test mocks
+     *
+     * @param index RfidIndex
+     */
+    @Autowired
+    public void setRfidIndex(final RfidIndex index) {
+        rfidIndex = index;
+    }
+
+    /**
+     * Sets SlackIdentityIndex. Note: mostly used for unit test mocks
+     *
+     * @param index SlackIdentityIndex
+     */
+    @Autowired
+    public void setSlackIdentityIndex(final SlackIdentityIndex index) {
+        slackIdentityIndex = index;
+    }
+
+    /**
+     * Sets MembershipReportEngine. Note: mostly used for unit test mocks
+     *
+     * @param engine MembershipReportEngine
+     */
+    @Autowired
+    public void setMembershipReportEngine(final MembershipReportEngine engine) {
+        membershipReportEngine = engine;
+    }
+
+    /**
+     * Sets MemberSegments. Note: mostly used for unit test mocks
+     *
+     * @param segments MemberSegments
+     */
+    @Autowired
+    public void setMemberSegments(final MemberSegments segments) {
+        memberSegments = segments;
+    }
+
+    /**
+     * Sets MemberNameIndex. Note: mostly used for unit test mocks
+     *
+     * @param index MemberNameIndex
+     */
+    @Autowired
+    public void setMemberNameIndex(final MemberNameIndex index) {
+        memberNameIndex = index;
+    }
+
+    /**
+     * Sets RenewalDispatcher. Note: mostly used for unit test mocks
+     *
+     * @param dispatcher RenewalDispatcher
+     */
+    @Autowired
+    public void setRenewalDispatcher(final RenewalDispatcher dispatcher) {
+        renewalDispatcher = dispatcher;
+    }
+
     /**
      * Sets MemberRepository. Note: mostly used for unit test mocks
      *
@@ -216,23 +301,86 @@ public class RosterService {
      */
     @PostConstruct
     public void update() {
-        rosterManager.getAllEntries()
-                .forEach(member -> {
-                    memberRepository.findByRosterId(member.getRosterId())
-                            .ifPresent(value -> member.setId(value.getId()));
-                    if (member.getCreatedAt() == null) {
-                        member.setCreatedAt(new Date());
-                    }
-                    member.setUpdatedAt(new Date());
-                    memberRepository.save(member);
-                });
+        syncRoster();
     }
 
     /**
-     * Sends membership renewal messages.
+     * Synchronizes the local database with the EAA Roster Management database.  Existing members are loaded once,
+     * the roster export is streamed and diffed field by field, and only inserted or changed members are written back.
+     * If the export cannot be read in full, nothing is written and the in-memory indexes are left as they were.
+     *
+     * @return RosterSyncSummary
      */
-    public void sendMembershipRenewalMessages() {
-        getExpiringMembers().forEach(this::sendRenewMembershipMsg);
+    public RosterSyncSummary syncRoster() {
+        final RosterSyncSummary summary = new RosterSyncSummary();
+        final long start = System.currentTimeMillis();
+        final Map<Long, Member> existing = memberRepository
+                .findAll()
+                .orElseGet(ArrayList::new)
+                .stream()
+                .filter(m -> m.getRosterId() != null)
+                .collect(Collectors.toMap(Member::getRosterId, Function.identity(), (first, second) -> first));
+        final Set<Long> seen = new HashSet<>();
+        final List<Member> changed = new ArrayList<>();
+        final Date now = new Date();
+        final SlackNameIndex slackNames = SlackNameIndex.of(slackService.allSlackUsers());
+        rosterManager.setSlackNameIndex(slackNames);
+        try {
+            rosterManager.streamAllEntries(member -> {
+                if (member.getRosterId() == null || !seen.add(member.getRosterId())) {
+                    return;
+                }
+                final Member current = existing.get(member.getRosterId());
+                if (current == null) {
+                    member.setCreatedAt(now);
+                    member.setUpdatedAt(now);
+                    changed.add(member);
+                    summary.inserted();
+                } else if (current.mergeRosterData(member)) {
+                    current.setUpdatedAt(now);
+                    changed.add(current);
+                    summary.updated();
+                } else {
+                    summary.unchanged();
+                }
+            });
+        } catch (IOException e) {
+            summary.setError(e.getMessage());
+            summary.setFetchMillis(System.currentTimeMillis() - start);
+            log.error("Roster sync failed after {} members: {}", seen.size(), e.getMessage());
+            return summary;
+        }
+        final long fetched = System.currentTimeMillis();
+        summary.setFetchMillis(fetched - start);
+        summary.setRemoved(existing.keySet().stream().filter(id -> !seen.contains(id)).count());
+        summary.setSlackMatched(slackNames.getMatched());
+        summary.setSlackAmbiguous(slackNames.getAmbiguousMembers());
+        if (!changed.isEmpty()) {
+            memberRepository.saveAll(changed);
+        }
+        summary.setWriteMillis(System.currentTimeMillis() - fetched);
+        log.info("Roster sync complete: {}", summary);
+        final List<Member> allMembers = new ArrayList<>(existing.values());
+        changed.stream().filter(m -> !existing.containsKey(m.getRosterId())).forEach(allMembers::add);
+        rfidIndex.rebuild(allMembers);
+        slackIdentityIndex.rebuild(allMembers);
+        membershipReportEngine.apply(changed);
+        memberSegments.rebuild(allMembers);
+        if (memberNameIndex.size() == 0) {
+            memberNameIndex.rebuild(allMembers);
+        } else {
+            memberNameIndex.update(changed);
+        }
+        return summary;
+    }
+
+    /**
+     * Sends membership renewal messages to all expiring members.
+     *
+     * @return DispatchSummary
+     */
+    public DispatchSummary sendMembershipRenewalMessages() {
+        return renewalDispatcher.dispatch(getExpiringMembers());
     }
 
     /**
@@ -241,18 +389,7 @@ public class RosterService {
      * @return list of expiring members
      */
     public List<Member> getNonNationalMembers() {
-        final List<Member> membersList = new ArrayList<>();
-        memberRepository
-                .findAll()
-                .ifPresent(members -> members
-                        .stream()
-                        .filter(member -> member.getMemberType() == MemberType.Regular
-                                || member.getMemberType() == MemberType.Family
-                                || member.getMemberType() == MemberType.Student)
-                        .filter(this::isCurrentChapterMember)
-                        .filter(m -> !isCurrentNationalEAAMember(m))
-                        .forEach(membersList::add));
-        return membersList;
+        return memberSegments.getMembers(MemberSegments.Segment.NON_NATIONAL);
     }
 
     /**
@@ -287,21 +424,7 @@ public class RosterService {
      * @return list of expiring members
      */
     public List<Member> getExpiringMembers() {
-        final List<Member> membersList = new ArrayList<>();
-        memberRepository
-                .findAll()
-                .ifPresent(members -> members
-                        .stream()
-                        .filter(m -> m.getExpiration()
-                                .after(Date.from(Instant.now().minus(CommonConstants.THREE_HUNDRED_THIRTY,
-                                        ChronoUnit.DAYS))))
-                        .filter(m -> m.getExpiration()
-                                .before(Date.from(Instant.now().plus(CommonConstants.THIRTY, ChronoUnit.DAYS))))
-                        .filter(member -> member.getMemberType() == MemberType.Regular
-                                || member.getMemberType() == MemberType.Family
-                                || member.getMemberType() == MemberType.Student)
-                        .forEach(membersList::add));
-        return membersList;
+        return memberSegments.getMembers(MemberSegments.Segment.EXPIRING);
     }
 
     /**
@@ -310,23 +433,7 @@ public class RosterService {
      * @return list of current members
      */
     public List<Member> getCurrentMembers() {
-        final List<Member> membersList = new ArrayList<>();
-        memberRepository
-                .findAll()
-                .ifPresent(members -> members
-                        .stream()
-                        .filter(member -> member.getMemberType() == MemberType.Regular
-                                || member.getMemberType() == MemberType.Family
-                                || member.getMemberType() == MemberType.Student)
-                        .filter(this::isCurrentChapterMember)
-                        .forEach(membersList::add));
-        memberRepository
-                .findAll()
-                .ifPresent(members -> members
-                        .stream()
-                        .filter(member -> member.getMemberType() == MemberType.Lifetime)
-                        .forEach(membersList::add));
-        return membersList;
+        return memberSegments.getMembers(MemberSegments.Segment.CURRENT);
     }
 
     /**
@@ -335,17 +442,7 @@ public class RosterService {
      * @return list of expiring members
      */
     public List<Member> getExpiredMembers() {
-        final List<Member> membersList = new ArrayList<>();
-        memberRepository
-                .findAll()
-                .ifPresent(members -> members
-                        .stream()
-                        .filter(m -> m.getExpiration().before(Date.from(Instant.now())))
-                        .filter(member -> member.getMemberType() == MemberType.Regular
-                                || member.getMemberType() == MemberType.Family
-                                || member.getMemberType() == MemberType.Student)
-                        .forEach(membersList::add));
-        return membersList;
+        return memberSegments.getMembers(MemberSegments.Segment.EXPIRED);
     }
 
     /**
@@ -354,25 +451,7 @@ public class RosterService {
      * @return list of new members
      */
     public List<Member> getNewMembersPastMonth() {
-        final List<Member> membersList = new ArrayList<>();
-        memberRepository
-                .findAll()
-                .ifPresent(members -> members
-                        .stream()
-                        .filter(m -> {
-                            try {
-                                return ymdsdf.parse(m.getJoined())
-                                        .after(Date.from(Instant.now().minus(CommonConstants.THIRTY, ChronoUnit.DAYS)));
-                            } catch (ParseException e) {
-                                log.warn("Unable to parse date: {}", e.getMessage(), e);
-                                return false;
-                            }
-                        })
-                        .filter(member -> member.getMemberType() == MemberType.Regular
-                                || member.getMemberType() == MemberType.Family
-                                || member.getMemberType() == MemberType.Student)
-                        .forEach(membersList::add));
-        return membersList;
+        return memberSegments.getMembers(MemberSegments.Segment.NEW_PAST_MONTH);
     }
 
     /**
@@ -381,55 +460,17 @@ public class RosterService {
      * @return list of new members
      */
     public List<Member> getNewMembersPastYear() {
-        final List<Member> membersList = new ArrayList<>();
-        memberRepository
-                .findAll()
-                .ifPresent(members -> members
-                        .stream()
-                        .filter(m -> {
-                            try {
-                                return ymdsdf.parse(m.getJoined())
-                                        .after(Date.from(Instant.now()
-                                                .minus(CommonConstants.THREE_HUNDRED_THIRTY, ChronoUnit.DAYS)));
-                            } catch (ParseException e) {
-                                return false;
-                            }
-                        })
-                        .filter(member -> member.getMemberType() == MemberType.Regular
-                                || member.getMemberType() == MemberType.Family
-                                || member.getMemberType() == MemberType.Student)
-                        .forEach(membersList::add));
-        return membersList;
+        return memberSegments.getMembers(MemberSegments.Segment.NEW_PAST_YEAR);
     }
 
     /**
      * Sends membership renewal message to a specific member.
      *
      * @param member Member
+     * @return DispatchSummary
      */
-    public void sendRenewMembershipMsg(final Member member) {
-        final Message message = messageRepository.save(new Message().sent(Instant.now()));
-        final String renewMembershipUrl = jotFormService.buildRenewMembershipUrl(member);
-        final Context context = new Context();
-        context.setVariable("member", member);
-        context.setVariable("expiration", sdf.format(member.getExpiration()));
-        context.setVariable("unsubscribeUrl", buildUnsubscribeUrl(member));
-        context.setVariable("trackingUrl",
-                trackingService.generateTrackingLink(member.getRosterId(), message.getId()));
-        context.setVariable("url", "<a href=\"" + renewMembershipUrl + "\">" + renewMembershipUrl + "</a>");
-        if (member.getEmail() != null && !"".equals(member.getEmail())) {
-            final String body = templateEngine.process("email/renewing-member", context);
-            emailService.sendEmailMessage(message
-                            .to(member.getEmail())
-                            .subject(membershipProperties.getRenewSubject())
-                            .body(body),
-                    membershipProperties.getUsername(),
-                    membershipProperties.getPassword());
-        }
-        if (member.getSlack() != null && !"".equals(member.getSlack())) {
-            final String body = templateEngine.process("slack/renewing-member", context);
-            slackService.sendSlackMessage(message.to(member.getSlack()).body(body));
-        }
+    public DispatchSummary sendRenewMembershipMsg(final Member member) {
+        return renewalDispatcher.dispatch(Collections.singletonList(member));
     }
 
     /**
@@ -439,16 +480,16 @@ public class RosterService {
      * @return URL
      */
     public String buildUnsubscribeUrl(final Member member) {
-        return membershipProperties.getHost() + "/unsubscribe/" + member.getRosterId() + "/email";
+        return renewalDispatcher.buildUnsubscribeUrl(member);
     }
 
     /**
-     * Sends membership renewal message to a specific member.
+     * Queues the new membership message for a specific member.
      *
      * @param member Member
      */
     public void sendNewMembershipMsg(final Member member) {
-        final Message message = messageRepository.save(new Message().sent(Instant.now()));
+        final Message message = messageRepository.save(new Message());
         if (member.getEmail() != null && !"".equals(member.getEmail())) {
             final Context context = new Context();
             context.setVariable("member", member);
@@ -457,13 +498,31 @@ public class RosterService {
                     trackingService.generateTrackingLink(member.getRosterId(), message.getId()));
             context.setVariable("expiration", sdf.format(member.getExpiration()));
             final String body = templateEngine.process("email/new-member", context);
-            emailService.sendEmailMessage(message
-                            .to(member.getEmail())
-                            .subject(membershipProperties.getNewSubject())
-                            .body(body),
-                    membershipProperties.getUsername(),
-                    membershipProperties.getPassword());
+            outboxService.enqueue(Collections.singletonList(message
+                    .channel(MessageType.Email)
+                    .to(member.getEmail())
+                    .subject(membershipProperties.getNewSubject())
+                    .body(body)));
+        }
+    }
+
+    /**
+     * Retrieves the summary of the member affiliated with the provided RFID from the in-memory index.  On a miss the
+     * database is consulted, so a card still opens the gate while the index is empty or behind, and the member found
+     * there is added to the index.
+     *
+     * @param rfid RFID
+     * @return FindByRFIDResponse
+     * @throws ResourceNotFoundException when no member matches
+     */
+    public FindByRFIDResponse findByRFID(final String rfid) throws ResourceNotFoundException {
+        final Optional<FindByRFIDResponse> indexed = rfidIndex.find(rfid);
+        if (indexed.isPresent()) {
+            return indexed.get();
         }
+        final Member member = getMemberByRFID(rfid);
+        rfidIndex.update(member, null);
+        return RfidIndex.summarize(member);
     }
 
     /**
@@ -527,59 +586,71 @@ public class RosterService {
     }
 
     /**
-     * Retrieves list of members matching provided criteria.
+     * Retrieves list of members matching provided criteria, using the default result limit.
      *
      * @param firstName First name
      * @param lastName Last name
      * @return MemberData list
      */
     public List<MemberData> findByName(final String firstName, final String lastName) {
-        final List<Member> firstNameMembers = getMembersByFirstName(firstName);
-        final List<Member> lastNameMembers = getMembersByLastName(lastName);
-        final List<MemberData> members = new ArrayList<>();
-        if (firstNameMembers.isEmpty() && lastNameMembers.isEmpty()) {
-            return members;
+        return findByName(firstName, lastName, membershipProperties.getSearchLimit());
+    }
+
+    /**
+     * Retrieves list of members whose names match the provided terms by prefix, case-insensitively or within a
+     * small edit distance, best match first.  The index is loaded from the database if no roster sync has filled it.
+     *
+     * @param firstName First name (or nickname)
+     * @param lastName Last name
+     * @param limit maximum number of results
+     * @return MemberData list
+     */
+    public List<MemberData> findByName(final String firstName, final String lastName, final int limit) {
+        if (memberNameIndex.size() == 0) {
+            memberNameIndex.rebuild(memberRepository.findAll().orElseGet(ArrayList::new));
         }
-        if (lastNameMembers.isEmpty()) {
-            members.addAll(firstNameMembers
-                    .stream()
-                    .map(m -> new MemberData(m.getId(),
-                            m.getRosterId(),
-                            m.getFirstName() + " " + m.getLastName(),
-                            m.getExpiration(),
-                            m.getEaaExpiration(),
-                            m.getYouthProtection(),
-                            m.getBackgroundCheck(),
-                            m.getRfid()))
-                    .collect(Collectors.toList()));
+        return memberNameIndex.search(firstName, lastName, limit);
+    }
+
+    /**
+     * Retrieves the member linked to the provided Slack user ID.
+     *
+     * @param slackUserId Slack user ID
+     * @return Member, if any
+     */
+    public Optional<Member> getMemberBySlackUserId(final String slackUserId) {
+        return slackIdentityIndex.findBySlackUserId(slackUserId);
+    }
+
+    /**
+     * Retrieves the members matching the provided criteria, filtered in the database.  Null criteria are ignored.
+     *
+     * @param types member types
+     * @param status Status
+     * @param expiresAfter earliest (exclusive) chapter membership expiration
+     * @param expiresBefore latest (exclusive) chapter membership expiration
+     * @param joinedAfter earliest (exclusive) join date
+     * @return Member list
+     */
+    public List<Member> findMembers(final Collection<MemberType> types, final Status status,
+                                    final Date expiresAfter, final Date expiresBefore, final Date joinedAfter) {
+        Specification<Member> spec = Specification.where(null);
+        if (types != null && !types.isEmpty()) {
+            spec = spec.and(MemberSpecifications.memberTypeIn(types));
+        }
+        if (status != null) {
+            spec = spec.and(MemberSpecifications.statusIs(status));
         }
-        if (firstNameMembers.isEmpty()) {
-            members.addAll(lastNameMembers
-                    .stream()
-                    .map(m -> new MemberData(m.getId(),
-                            m.getRosterId(),
-                            m.getFirstName() + " " + m.getLastName(),
-                            m.getExpiration(),
-                            m.getEaaExpiration(),
-                            m.getYouthProtection(),
-                            m.getBackgroundCheck(),
-                            m.getRfid()))
-                    .collect(Collectors.toList()));
+        if (expiresAfter != null) {
+            spec = spec.and(MemberSpecifications.expiresAfter(expiresAfter));
         }
-        if (!firstNameMembers.isEmpty() && !lastNameMembers.isEmpty()) {
-            members.addAll(firstNameMembers.stream()
-                    .filter(lastNameMembers::contains)
-                    .map(m -> new MemberData(m.getId(),
-                            m.getRosterId(),
-                            m.getFirstName() + " " + m.getLastName(),
-                            m.getExpiration(),
-                            m.getEaaExpiration(),
-                            m.getYouthProtection(),
-                            m.getBackgroundCheck(),
-                            m.getRfid()))
-                    .collect(Collectors.toList()));
+        if (expiresBefore != null) {
+            spec = spec.and(MemberSpecifications.expiresBefore(expiresBefore));
         }
-        return members;
+        if (joinedAfter != null) {
+            spec = spec.and(MemberSpecifications.joinedAfter(joinedAfter));
+        }
+        return memberRepository.findAll(spec);
     }
 
     /**
@@ -591,6 +662,18 @@ public class RosterService {
         return memberRepository.findAll().orElse(null);
     }
 
+    /**
+     * Gets members in ID order, starting after the provided ID.
+     *
+     * @param afterId ID of the last member already read, or null to start at the beginning
+     * @param limit maximum number of members
+     * @return list of Member
+     */
+    public List<Member> getMembersAfter(final Long afterId, final int limit) {
+        return memberRepository.findByIdGreaterThanOrderByIdAsc(Optional.ofNullable(afterId).orElse(0L),
+                PageRequest.of(0, limit));
+    }
+
     /**
      * Updates a member's RFID to the provided value.
      *
@@ -600,32 +683,21 @@ public class RosterService {
      */
     public void updateMemberRFID(final Long id, final String rfid) throws ResourceNotFoundException {
         final Member member = getMemberByRosterID(id);
+        final String previousRfid = member.getRfid();
         member.setRfid(rfid);
-        memberRepository.save(member);
+        final Member saved = memberRepository.save(member);
+        rfidIndex.update(saved, previousRfid);
+        memberNameIndex.update(Collections.singletonList(saved));
+        memberSegments.update(saved);
     }
 
     /**
-     * Generates a MembershipReport.
+     * Gets the precomputed MembershipReport.
      *
      * @return MembershipReport
      */
     public MembershipReport getMembershipReport() {
-        final Date today = new Date();
-        final Date thirtyDays = Date.from(Instant.now().plus(30, ChronoUnit.DAYS));
-        final MembershipReport membershipReport = new MembershipReport();
-        final List<Member> allMembers = memberRepository.findAll().orElse(new ArrayList<>());
-        setActiveCounts(today, membershipReport, allMembers);
-        setExpiredCounts(today, membershipReport, allMembers);
-        setWillExpire30DaysCounts(today, thirtyDays, membershipReport, allMembers);
-        membershipReport.setLifetimeMemberCount(
-                allMembers.stream().filter(m -> MemberType.Lifetime == m.getMemberType()).count());
-        membershipReport.setHonoraryMemberCount(
-                allMembers.stream().filter(m -> MemberType.Honorary == m.getMemberType()).count());
-        membershipReport.setProspectMemberCount(
-                allMembers.stream().filter(m -> MemberType.Prospect == m.getMemberType()).count());
-        membershipReport.setNonMemberCount(
-                allMembers.stream().filter(m -> MemberType.NonMember == m.getMemberType()).count());
-        return membershipReport;
+        return membershipReportEngine.getReport();
     }
 
     /**
@@ -637,7 +709,7 @@ public class RosterService {
         try {
             final Member member = getMemberByRosterID(rosterId);
             member.setEmailEnabled(Boolean.FALSE);
-            memberRepository.save(member);
+            memberSegments.update(memberRepository.save(member));
         } catch (ResourceNotFoundException e) {
             log.error("Unable to find member for ID: {}", rosterId);
         }
@@ -652,7 +724,7 @@ public class RosterService {
         try {
             final Member member = getMemberByRosterID(rosterId);
             member.setEmailEnabled(Boolean.TRUE);
-            memberRepository.save(member);
+            memberSegments.update(memberRepository.save(member));
         } catch (ResourceNotFoundException e) {
             log.error("Unable to find member for ID: {}", rosterId);
         }
@@ -667,82 +739,4 @@ public class RosterService {
     public Member addMember(final Member member) {
         return member;
     }
-
-    private void setActiveCounts(final Date today, final MembershipReport membershipReport,
-                                 final List<Member> allMembers) {
-        membershipReport.setRegularMemberCount(
-                allMembers.stream().filter(m -> MemberType.Regular == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration())).count());
-        membershipReport.setFamilyMembershipCount(
-                allMembers.stream().filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration())).count());
-        membershipReport.setFamilyMemberCount(
-                allMembers.stream().filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .map(Member::getNumOfFamily)
-                        .filter(Objects::nonNull)
-                        .reduce(0L, Long::sum));
-        membershipReport.setStudentMemberCount(
-                allMembers.stream().filter(m -> MemberType.Student == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration())).count());
-    }
-
-    private void setWillExpire30DaysCounts(final Date today, final Date thirtyDays,
-                                           final MembershipReport membershipReport,
-                                           final List<Member> allMembers) {
-        membershipReport.setRegularMemberWillExpire30DaysCount(
-                allMembers.stream().filter(m -> MemberType.Regular == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> thirtyDays.after(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMembershipWillExpire30DaysCount(
-                allMembers.stream().filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> thirtyDays.after(m.getExpiration()))
-                        .count());
-        membershipReport.setFamilyMemberWillExpire30DaysCount(
-                allMembers.stream().filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> thirtyDays.after(m.getExpiration()))
-                        .map(Member::getNumOfFamily)
-                        .filter(Objects::nonNull)
-                        .reduce(0L, Long::sum));
-        membershipReport.setStudentMemberWillExpire30DaysCount(
-                allMembers.stream().filter(m -> MemberType.Student == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.before(m.getExpiration()))
-                        .filter(m -> thirtyDays.after(m.getExpiration()))
-                        .count());
-    }
-
-    private void setExpiredCounts(final Date today, final MembershipReport membershipReport,
-                                  final List<Member> allMembers) {
-        membershipReport.setRegularMemberExpiredCount(
-                allMembers.stream().filter(m -> MemberType.Regular == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.after(m.getExpiration())).count());
-        membershipReport.setFamilyMembershipExpiredCount(
-                allMembers.stream().filter(m -> MemberType.Family == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.after(m.getExpiration())).count());
-        membershipReport.setFamilyMemberExpiredCount(allMembers.stream()
-                .filter(m -> MemberType.Family == m.getMemberType())
-                .filter(m -> Status.ACTIVE == m.getStatus())
-                .filter(m -> today.after(m.getExpiration()))
-                .map(Member::getNumOfFamily)
-                .filter(Objects::nonNull)
-                .reduce(0L, Long::sum));
-        membershipReport.setStudentMemberExpiredCount(
-                allMembers.stream().filter(m -> MemberType.Student == m.getMemberType())
-                        .filter(m -> Status.ACTIVE == m.getStatus())
-                        .filter(m -> today.after(m.getExpiration())).count());
-    }
-
 }
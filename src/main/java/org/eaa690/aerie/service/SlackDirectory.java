@@ -0,0 +1,371 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.ullink.slack.simpleslackapi.SlackSession;
+import com.ullink.slack.simpleslackapi.SlackUser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.SlackProperties;
+import org.eaa690.aerie.model.SlackDirectoryStats;
+import org.eaa690.aerie.model.SlackRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copy of the Slack user directory, indexed by user ID, username and real name.  Fully refreshed on a fixed
+ * interval, and kept current between refreshes by Slack team-join and user-change events, so that Slack lookups never
+ * have to walk the session's user list.
+ */
+@Slf4j
+public class SlackDirectory {
+
+    /**
+     * Directory listing order.
+     */
+    private static final Comparator<SlackRecord> BY_USERNAME =
+            (a, b) -> String.valueOf(a.getUser()).compareToIgnoreCase(String.valueOf(b.getUser()));
+
+    /**
+     * Current snapshot.  Replaced as a whole, never modified in place.
+     */
+    private volatile Snapshot snapshot = Snapshot.of(Collections.emptyList(), null);
+
+    /**
+     * Full refreshes completed.
+     */
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * Full refreshes which failed.
+     */
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    /**
+     * Events applied.
+     */
+    private final AtomicLong eventUpdates = new AtomicLong();
+
+    /**
+     * SlackProperties.
+     */
+    @Autowired
+    private SlackProperties slackProperties;
+
+    /**
+     * SlackSession.
+     */
+    @Autowired
+    @Qualifier("membership")
+    private SlackSession slackSession;
+
+    /**
+     * Sets SlackProperties.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SlackProperties
+     */
+    @Autowired
+    public void setSlackProperties(final SlackProperties value) {
+        slackProperties = value;
+    }
+
+    /**
+     * Sets SlackSession.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SlackSession
+     */
+    @Autowired
+    public void setSlackSession(final SlackSession value) {
+        slackSession = value;
+    }
+
+    /**
+     * Loads the directory from the session's user list and registers for Slack user events.
+     */
+    @PostConstruct
+    public void init() {
+        slackSession.addSlackUserChangeListener((event, session) -> apply(event.getUser()));
+        slackSession.addSlackTeamJoinListener((event, session) -> apply(event.getUser()));
+        load(slackSession.getUsers());
+    }
+
+    /**
+     * Re-fetches the user list from Slack and replaces the directory.  If Slack cannot be reached the previous
+     * directory stays in place and is reported as stale once it ages past twice the refresh interval.
+     */
+    @Scheduled(fixedDelayString = "${aerie.slack.directory-refresh-millis:900000}",
+            initialDelayString = "${aerie.slack.directory-refresh-millis:900000}")
+    public void refresh() {
+        try {
+            slackSession.refetchUsers();
+            load(slackSession.getUsers());
+        } catch (RuntimeException e) {
+            refreshFailures.incrementAndGet();
+            log.warn("Unable to refresh Slack directory: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets all Slack users.
+     *
+     * @return users, sorted by username
+     */
+    public List<SlackRecord> all() {
+        return snapshot.getAll();
+    }
+
+    /**
+     * Gets Slack users in username order, starting after the provided username.
+     *
+     * @param afterUsername username of the last user already read, or null to start at the beginning
+     * @param limit maximum number of users
+     * @return users, sorted by username
+     */
+    public List<SlackRecord> after(final String afterUsername, final int limit) {
+        final List<SlackRecord> all = snapshot.getAll();
+        int from = 0;
+        if (afterUsername != null) {
+            final SlackRecord key = new SlackRecord(null, null, afterUsername);
+            int low = 0;
+            int high = all.size();
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (BY_USERNAME.compare(all.get(mid), key) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            from = low;
+        }
+        return all.subList(from, Math.min(all.size(), from + limit));
+    }
+
+    /**
+     * Finds a Slack user by ID.
+     *
+     * @param id Slack user ID
+     * @return SlackRecord, if any
+     */
+    public Optional<SlackRecord> findById(final String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot.getById().get(normalize(id)));
+    }
+
+    /**
+     * Finds a Slack user by username, ignoring case.
+     *
+     * @param username Slack username
+     * @return SlackRecord, if any
+     */
+    public Optional<SlackRecord> findByUsername(final String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot.getByUsername().get(normalize(username)));
+    }
+
+    /**
+     * Finds Slack users by real name, ignoring case and repeated whitespace.  More than one user may share a name.
+     *
+     * @param realName real name
+     * @return matching users
+     */
+    public List<SlackRecord> findByRealName(final String realName) {
+        if (realName == null) {
+            return Collections.emptyList();
+        }
+        return snapshot.getByRealName().getOrDefault(normalizeName(realName), Collections.emptyList());
+    }
+
+    /**
+     * Gets the number of Slack users in the directory.
+     *
+     * @return size
+     */
+    public int size() {
+        return snapshot.getAll().size();
+    }
+
+    /**
+     * Gets directory metrics.
+     *
+     * @return SlackDirectoryStats
+     */
+    public SlackDirectoryStats getStats() {
+        final Snapshot current = snapshot;
+        final Instant refreshedAt = current.getRefreshedAt();
+        long ageSeconds = -1;
+        boolean stale = true;
+        if (refreshedAt != null) {
+            final Duration age = Duration.between(refreshedAt, Instant.now());
+            ageSeconds = age.getSeconds();
+            stale = age.toMillis() > 2 * slackProperties.getDirectoryRefreshMillis();
+        }
+        return new SlackDirectoryStats(current.getAll().size(), refreshedAt, ageSeconds, stale,
+                refreshes.get(), refreshFailures.get(), eventUpdates.get());
+    }
+
+    /**
+     * Replaces the directory with the provided users.
+     *
+     * @param users Slack users
+     */
+    synchronized void load(final Collection<SlackUser> users) {
+        final List<SlackRecord> records = new ArrayList<>(users.size());
+        for (final SlackUser user : users) {
+            if (user.getId() != null) {
+                records.add(toRecord(user));
+            }
+        }
+        snapshot = Snapshot.of(records, Instant.now());
+        refreshes.incrementAndGet();
+        log.info("Slack directory loaded with {} users", records.size());
+    }
+
+    /**
+     * Applies a new or changed Slack user to the directory.
+     *
+     * @param user SlackUser
+     */
+    synchronized void apply(final SlackUser user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        final Snapshot current = snapshot;
+        final String id = normalize(user.getId());
+        final List<SlackRecord> records = new ArrayList<>(current.getAll().size() + 1);
+        for (final SlackRecord record : current.getAll()) {
+            if (!id.equals(normalize(record.getId()))) {
+                records.add(record);
+            }
+        }
+        records.add(toRecord(user));
+        snapshot = Snapshot.of(records, current.getRefreshedAt());
+        eventUpdates.incrementAndGet();
+        log.debug("Slack directory updated for {}", id);
+    }
+
+    /**
+     * Normalizes IDs and usernames so that lookups are case-insensitive.
+     *
+     * @param value key
+     * @return normalized key
+     */
+    private static String normalize(final String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalizes real names so that lookups ignore case and repeated whitespace.
+     *
+     * @param value real name
+     * @return normalized name
+     */
+    private static String normalizeName(final String value) {
+        return normalize(value).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Copies a SlackUser into a SlackRecord.
+     *
+     * @param user SlackUser
+     * @return SlackRecord
+     */
+    private static SlackRecord toRecord(final SlackUser user) {
+        return new SlackRecord(user.getId(), user.getRealName(), user.getUserName());
+    }
+
+    /**
+     * Immutable set of directory indexes.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Snapshot {
+
+        /**
+         * All users, sorted by username.
+         */
+        private final List<SlackRecord> all;
+
+        /**
+         * Users by normalized ID.
+         */
+        private final Map<String, SlackRecord> byId;
+
+        /**
+         * Users by normalized username.
+         */
+        private final Map<String, SlackRecord> byUsername;
+
+        /**
+         * Users by normalized real name.
+         */
+        private final Map<String, List<SlackRecord>> byRealName;
+
+        /**
+         * Time of the last full refresh, or null if never refreshed.
+         */
+        private final Instant refreshedAt;
+
+        /**
+         * Builds the indexes for the provided users.
+         *
+         * @param records users
+         * @param refreshedAt time of the last full refresh
+         * @return Snapshot
+         */
+        static Snapshot of(final List<SlackRecord> records, final Instant refreshedAt) {
+            final List<SlackRecord> all = new ArrayList<>(records);
+            all.sort(BY_USERNAME);
+            final Map<String, SlackRecord> byId = new HashMap<>();
+            final Map<String, SlackRecord> byUsername = new HashMap<>();
+            final Map<String, List<SlackRecord>> byRealName = new HashMap<>();
+            for (final SlackRecord record : all) {
+                byId.put(normalize(record.getId()), record);
+                if (record.getUser() != null) {
+                    byUsername.putIfAbsent(normalize(record.getUser()), record);
+                }
+                if (record.getRealName() != null && !record.getRealName().trim().isEmpty()) {
+                    byRealName.computeIfAbsent(normalizeName(record.getRealName()), k -> new ArrayList<>())
+                            .add(record);
+                }
+            }
+            return new Snapshot(Collections.unmodifiableList(all), byId, byUsername, byRealName, refreshedAt);
+        }
+    }
+}
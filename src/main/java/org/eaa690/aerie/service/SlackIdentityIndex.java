@@ -0,0 +1,240 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.ullink.slack.simpleslackapi.SlackSession;
+import com.ullink.slack.simpleslackapi.SlackUser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberRepository;
+import org.eaa690.aerie.model.SlackRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maps Slack user IDs to chapter members so that slash commands resolve the calling member with a single lookup.
+ * Rebuilt after each roster sync and kept current by Slack team-join and user-change events.  Loaded from the
+ * database on first use if no roster sync has built it yet.
+ */
+@Slf4j
+public class SlackIdentityIndex {
+
+    /**
+     * Current snapshot, or null until the index is first built.  Replaced as a whole, never modified in place.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * MemberRepository.
+     */
+    @Autowired
+    private MemberRepository memberRepository;
+
+    /**
+     * SlackService.
+     */
+    @Autowired
+    private SlackService slackService;
+
+    /**
+     * SlackSession.
+     */
+    @Autowired
+    @Qualifier("membership")
+    private SlackSession slackSession;
+
+    /**
+     * Sets SlackService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SlackService
+     */
+    @Autowired
+    public void setSlackService(final SlackService value) {
+        slackService = value;
+    }
+
+    /**
+     * Sets MemberRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MemberRepository
+     */
+    @Autowired
+    public void setMemberRepository(final MemberRepository value) {
+        memberRepository = value;
+    }
+
+    /**
+     * Sets SlackSession.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SlackSession
+     */
+    @Autowired
+    public void setSlackSession(final SlackSession value) {
+        slackSession = value;
+    }
+
+    /**
+     * Registers for Slack user events.
+     */
+    @PostConstruct
+    public void init() {
+        slackSession.addSlackUserChangeListener((event, session) -> onUserChanged(event.getUser()));
+        slackSession.addSlackTeamJoinListener((event, session) -> onUserChanged(event.getUser()));
+    }
+
+    /**
+     * Rebuilds the index from the provided members.
+     *
+     * @param members all members
+     */
+    public synchronized void rebuild(final Collection<Member> members) {
+        final Map<String, String> userIdsByName = new HashMap<>();
+        final List<SlackRecord> slackUsers = slackService.allSlackUsers();
+        for (final SlackRecord slackUser : slackUsers) {
+            if (slackUser.getUser() != null) {
+                userIdsByName.put(normalize(slackUser.getUser()), normalize(slackUser.getId()));
+            }
+        }
+        final Map<String, Member> byName = new HashMap<>();
+        final Map<String, Member> byUserId = new HashMap<>();
+        for (final Member member : members) {
+            if (member.getSlack() == null || "".equals(member.getSlack())) {
+                continue;
+            }
+            final String name = normalize(member.getSlack());
+            byName.putIfAbsent(name, member);
+            final String userId = userIdsByName.get(name);
+            if (userId != null) {
+                byUserId.putIfAbsent(userId, member);
+            }
+        }
+        snapshot = new Snapshot(byName, byUserId);
+        log.info("Slack identity index rebuilt with {} of {} members resolved", byUserId.size(), members.size());
+    }
+
+    /**
+     * Finds the member linked to the provided Slack user ID.
+     *
+     * @param userId Slack user ID
+     * @return Member, if any
+     */
+    public Optional<Member> findBySlackUserId(final String userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().getByUserId().get(normalize(userId)));
+    }
+
+    /**
+     * Gets the number of Slack users resolved to members.
+     *
+     * @return size
+     */
+    public int size() {
+        final Snapshot current = snapshot;
+        if (current == null) {
+            return 0;
+        }
+        return current.getByUserId().size();
+    }
+
+    /**
+     * Gets the current snapshot, loading the index from the database if it has not been built yet.
+     *
+     * @return Snapshot
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    rebuild(memberRepository.findAll().orElseGet(ArrayList::new));
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Applies a Slack user change (new user or changed username) to the index.
+     *
+     * @param user changed SlackUser
+     */
+    private synchronized void onUserChanged(final SlackUser user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        final Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        final String userId = normalize(user.getId());
+        final Map<String, Member> byUserId = new HashMap<>(current.getByUserId());
+        byUserId.remove(userId);
+        if (user.getUserName() != null) {
+            final Member member = current.getByName().get(normalize(user.getUserName()));
+            if (member != null) {
+                byUserId.put(userId, member);
+            }
+        }
+        snapshot = new Snapshot(current.getByName(), byUserId);
+        log.debug("Slack identity index updated for {}", userId);
+    }
+
+    /**
+     * Normalizes keys so that lookups are case-insensitive.
+     *
+     * @param value key
+     * @return normalized key
+     */
+    private static String normalize(final String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable pair of member indexes.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class Snapshot {
+
+        /**
+         * Members by Slack username.
+         */
+        private final Map<String, Member> byName;
+
+        /**
+         * Members by Slack user ID.
+         */
+        private final Map<String, Member> byUserId;
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackMessageHandle;
+import com.ullink.slack.simpleslackapi.SlackSession;
+import com.ullink.slack.simpleslackapi.SlackUser;
+import com.ullink.slack.simpleslackapi.replies.ParsedSlackReply;
+import com.ullink.slack.simpleslackapi.replies.SlackChannelReply;
+import com.ullink.slack.simpleslackapi.replies.SlackReply;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.config.SlackProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous Slack direct message sender.  Messages to the same user that arrive within the coalescing window are
+ * joined into a single post.  Every Slack Web API call goes through a token bucket for its method, sized below
+ * Slack's published tier limit, so bulk sends are paced rather than rejected with HTTP 429.  Resolved users and their
+ * direct message channels are cached, so repeat recipients cost one chat.postMessage call.
+ */
+@Slf4j
+public class SlackSender {
+
+    /**
+     * Slack Web API methods called by the sender.
+     */
+    public enum ApiMethod {
+        /**
+         * Opens a direct message channel.
+         */
+        CONVERSATIONS_OPEN,
+        /**
+         * Posts a message.
+         */
+        CHAT_POST_MESSAGE
+    }
+
+    /**
+     * Separator placed between coalesced messages.
+     */
+    private static final String SEPARATOR = "\n\n";
+
+    /**
+     * Token bucket per API method.
+     */
+    private final Map<ApiMethod, RateLimiter> limiters = new EnumMap<>(ApiMethod.class);
+
+    /**
+     * Resolved users, by normalized username.
+     */
+    private final Map<String, SlackUser> usersByName = new ConcurrentHashMap<>();
+
+    /**
+     * Direct message channels, by user ID.
+     */
+    private final Map<String, SlackChannel> channelsByUserId = new ConcurrentHashMap<>();
+
+    /**
+     * Messages waiting for their coalescing window to close, by normalized username.
+     */
+    private final Map<String, Batch> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Sender thread.  Slack posts are paced by the token buckets, so a single thread is enough.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * SlackProperties.
+     */
+    @Autowired
+    private SlackProperties slackProperties;
+
+    /**
+     * SlackSession.
+     */
+    @Autowired
+    @Qualifier("membership")
+    private SlackSession slackSession;
+
+    /**
+     * Sets SlackProperties.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SlackProperties
+     */
+    @Autowired
+    public void setSlackProperties(final SlackProperties value) {
+        slackProperties = value;
+    }
+
+    /**
+     * Sets SlackSession.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SlackSession
+     */
+    @Autowired
+    public void setSlackSession(final SlackSession value) {
+        slackSession = value;
+    }
+
+    /**
+     * Creates the rate limiters and sender thread, and evicts cached users when Slack reports a change.
+     */
+    @PostConstruct
+    public void init() {
+        limiters.put(ApiMethod.CONVERSATIONS_OPEN,
+                RateLimiter.create(slackProperties.getConversationsOpenPerMinute() / CommonConstants.SIXTY));
+        limiters.put(ApiMethod.CHAT_POST_MESSAGE,
+                RateLimiter.create(slackProperties.getPostMessagePerSecond()));
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("slack-sender-%d").setDaemon(true).build());
+        slackSession.addSlackUserChangeListener((event, session) -> evict(event.getUser()));
+    }
+
+    /**
+     * Stops the sender thread.  Messages still waiting to be coalesced are failed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        pending.values().forEach(batch -> batch.complete(false));
+        pending.clear();
+    }
+
+    /**
+     * Queues a direct message.  The returned future completes once the message, possibly combined with others to
+     * the same user, has been posted.
+     *
+     * @param username recipient's Slack username
+     * @param body message text
+     * @return true if the message was posted, false if it could not be
+     */
+    public CompletableFuture<Boolean> send(final String username, final String body) {
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (username == null || "".equals(username.trim())) {
+            result.complete(Boolean.FALSE);
+            return result;
+        }
+        final String key = normalize(username);
+        pending.compute(key, (k, batch) -> {
+            Batch current = batch;
+            if (current == null) {
+                current = new Batch(username);
+                executor.schedule(() -> flush(k), slackProperties.getCoalesceMillis(), TimeUnit.MILLISECONDS);
+            }
+            current.add(body, result);
+            if (current.size() >= slackProperties.getCoalesceMaxMessages()) {
+                executor.execute(() -> flush(k));
+            }
+            return current;
+        });
+        return result;
+    }
+
+    /**
+     * Gets the number of users with messages waiting to be coalesced.
+     *
+     * @return number of users
+     */
+    public int getPendingUsers() {
+        return pending.size();
+    }
+
+    /**
+     * Posts the batch waiting for a user, if it has not already been posted.
+     *
+     * @param key normalized username
+     */
+    void flush(final String key) {
+        final Batch batch = pending.remove(key);
+        if (batch == null) {
+            return;
+        }
+        boolean posted = false;
+        try {
+            posted = post(batch);
+        } catch (RuntimeException e) {
+            log.warn("Unable to send Slack message to {}: {}", batch.getUsername(), e.getMessage());
+        }
+        batch.complete(posted);
+    }
+
+    /**
+     * Resolves the recipient's direct message channel and posts the batch's messages as one.
+     *
+     * @param batch Batch
+     * @return true if the post succeeded
+     */
+    private boolean post(final Batch batch) {
+        final SlackUser user = usersByName.computeIfAbsent(normalize(batch.getUsername()),
+                k -> slackSession.findUserByUserName(batch.getUsername()));
+        if (user == null) {
+            log.warn("Unknown Slack user {}", batch.getUsername());
+            return false;
+        }
+        SlackChannel channel = channelsByUserId.get(user.getId());
+        if (channel == null) {
+            limiters.get(ApiMethod.CONVERSATIONS_OPEN).acquire();
+            final SlackMessageHandle<SlackChannelReply> opened = slackSession.openDirectMessageChannel(user);
+            if (!isOk(opened, ApiMethod.CONVERSATIONS_OPEN) || opened.getReply().getSlackChannel() == null) {
+                return false;
+            }
+            channel = opened.getReply().getSlackChannel();
+            channelsByUserId.put(user.getId(), channel);
+        }
+        limiters.get(ApiMethod.CHAT_POST_MESSAGE).acquire();
+        log.info("Sending {} coalesced message(s) to {}", batch.size(), batch.getUsername());
+        if (!isOk(slackSession.sendMessage(channel, batch.getText()), ApiMethod.CHAT_POST_MESSAGE)) {
+            channelsByUserId.remove(user.getId());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks a Slack API reply.  A missing reply is treated as success, as some session implementations do not
+     * report one.
+     *
+     * @param handle message handle
+     * @param method API method called
+     * @return true unless Slack reported an error
+     */
+    private static boolean isOk(final SlackMessageHandle<? extends SlackReply> handle, final ApiMethod method) {
+        if (handle == null) {
+            return false;
+        }
+        final SlackReply reply = handle.getReply();
+        if (reply instanceof ParsedSlackReply && !((ParsedSlackReply) reply).isOk()) {
+            log.warn("Slack {} failed: {}", method, ((ParsedSlackReply) reply).getErrorMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops a changed user from the caches, so the next message to them resolves them again.
+     *
+     * @param user changed SlackUser
+     */
+    private void evict(final SlackUser user) {
+        if (user == null) {
+            return;
+        }
+        usersByName.values().removeIf(cached -> cached.getId().equals(user.getId()));
+        channelsByUserId.remove(user.getId());
+    }
+
+    /**
+     * Normalizes usernames so that lookups are case-insensitive.
+     *
+     * @param value username
+     * @return normalized username
+     */
+    private static String normalize(final String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Messages to a single user waiting to be posted together.
+     */
+    private static final class Batch {
+
+        /**
+         * Recipient's Slack username.
+         */
+        private final String username;
+
+        /**
+         * Message texts, in arrival order.
+         */
+        private final List<String> bodies = new ArrayList<>();
+
+        /**
+         * Futures to complete once posted.
+         */
+        private final List<CompletableFuture<Boolean>> results = new ArrayList<>();
+
+        /**
+         * Constructor.
+         *
+         * @param recipient Slack username
+         */
+        Batch(final String recipient) {
+            username = recipient;
+        }
+
+        String getUsername() {
+            return username;
+        }
+
+        synchronized void add(final String body, final CompletableFuture<Boolean> result) {
+            bodies.add(body);
+            results.add(result);
+        }
+
+        synchronized int size() {
+            return bodies.size();
+        }
+
+        synchronized String getText() {
+            return bodies.stream().collect(Collectors.joining(SEPARATOR));
+        }
+
+        synchronized void complete(final boolean posted) {
+            results.forEach(result -> result.complete(posted));
+        }
+    }
+}
@@ -16,21 +16,22 @@
 
 package org.eaa690.aerie.service;
 
-import com.ullink.slack.simpleslackapi.SlackSession;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.eaa690.aerie.config.SlackProperties;
 import org.eaa690.aerie.model.Message;
 import org.eaa690.aerie.model.MessageRepository;
+import org.eaa690.aerie.model.MessageStatus;
+import org.eaa690.aerie.model.MessageType;
 import org.eaa690.aerie.model.SlackCommand;
+import org.eaa690.aerie.model.SlackDirectoryStats;
 import org.eaa690.aerie.model.SlackRecord;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Slack Service.
@@ -45,17 +46,22 @@ public class SlackService {
     private SlackProperties slackProperties;
 
     /**
-     * SlackSession.
+     * MessageRepository.
      */
     @Autowired
-    @Qualifier("membership")
-    private SlackSession slackSession;
+    private MessageRepository messageRepository;
 
     /**
-     * MessageRepository.
+     * SlackSender.
      */
     @Autowired
-    private MessageRepository messageRepository;
+    private SlackSender slackSender;
+
+    /**
+     * SlackDirectory.
+     */
+    @Autowired
+    private SlackDirectory slackDirectory;
 
     /**
      * Sets SlackProperties.
@@ -69,25 +75,36 @@ public class SlackService {
     }
 
     /**
-     * Sets SlackSession.
+     * Sets MessageRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value MessageRepository
+     */
+    @Autowired
+    public void setMessageRepository(final MessageRepository value) {
+        messageRepository = value;
+    }
+
+    /**
+     * Sets SlackSender.
      * Note: mostly used for unit test mocks
      *
-     * @param value SlackSession
+     * @param value SlackSender
      */
     @Autowired
-    public void setSlackSession(final SlackSession value) {
-        slackSession = value;
+    public void setSlackSender(final SlackSender value) {
+        slackSender = value;
     }
 
     /**
-     * Sets MessageRepository.
+     * Sets SlackDirectory.
      * Note: mostly used for unit test mocks
      *
-     * @param value MessageRepository
+     * @param value SlackDirectory
      */
     @Autowired
-    public void setMessageRepository(final MessageRepository value) {
-        messageRepository = value;
+    public void setSlackDirectory(final SlackDirectory value) {
+        slackDirectory = value;
     }
 
     /**
@@ -107,38 +124,81 @@ public class SlackService {
         if (userName == null || "".equals(userName)) {
             return null;
         }
-        return allSlackUsers()
-                .stream()
-                .filter(record -> userName.equalsIgnoreCase(record.getUser()))
-                .map(SlackRecord::getId)
-                .findFirst()
-                .orElse(null);
+        return slackDirectory.findByUsername(userName).map(SlackRecord::getId).orElse(null);
     }
 
     /**
-     * Gets all Slack users.
+     * Gets all Slack users from the directory cache.
      *
-     * @return list of users
+     * @return list of users, sorted by username
      */
     public List<SlackRecord> allSlackUsers() {
-        return slackSession
-                .getUsers()
-                .stream()
-                .map(user -> new SlackRecord(user.getId(), user.getRealName(), user.getUserName()))
-                .collect(Collectors.toList());
+        return slackDirectory.all();
+    }
+
+    /**
+     * Gets Slack users in username order, starting after the provided username.
+     *
+     * @param afterUsername username of the last user already read, or null to start at the beginning
+     * @param limit maximum number of users
+     * @return list of SlackRecord
+     */
+    public List<SlackRecord> getSlackUsersAfter(final String afterUsername, final int limit) {
+        return slackDirectory.after(afterUsername, limit);
+    }
+
+    /**
+     * Gets Slack directory cache metrics.
+     *
+     * @return SlackDirectoryStats
+     */
+    public SlackDirectoryStats getDirectoryStats() {
+        return slackDirectory.getStats();
+    }
+
+    /**
+     * Sends a Slack message, and records the message as sent.  Blocks until the message has been posted.
+     *
+     * @param message Message
+     * @return true if the message was sent (or sending is disabled), false if it could not be sent
+     */
+    public boolean sendSlackMessage(final Message message) {
+        return sendSlackMessageAsync(message).join();
+    }
+
+    /**
+     * Queues a Slack message on the rate-limited sender, and records the message as sent once it has been posted.
+     *
+     * @param message Message
+     * @return completes with true if the message was sent (or sending is disabled), false if it could not be sent
+     */
+    public CompletableFuture<Boolean> sendSlackMessageAsync(final Message message) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(Boolean.TRUE);
+        }
+        return slackSender.send(message.getTo(), message.getBody()).thenApply(sent -> {
+            if (sent) {
+                messageRepository.save(message
+                        .channel(MessageType.Slack)
+                        .status(MessageStatus.SENT)
+                        .sent(Instant.now()));
+            }
+            return sent;
+        });
     }
 
     /**
-     * Sends a Slack message.
+     * Sends a Slack message without recording it, and blocks until it has been posted.  Used by the outbox, which
+     * records delivery status itself.
      *
      * @param message Message
+     * @return true if the message was sent, false if the recipient is unknown or sending is disabled
      */
-    public void sendSlackMessage(final Message message) {
-        if (enabled) {
-            log.info("Sending {} to {}", message.getBody(), message.getTo());
-            slackSession.sendMessageToUser(slackSession.findUserByUserName(message.getTo()), message.getBody(), null);
-            messageRepository.save(message.sent(Instant.now()));
+    public boolean deliverSlackMessage(final Message message) {
+        if (!enabled) {
+            return false;
         }
+        return slackSender.send(message.getTo(), message.getBody()).join();
     }
 
     /**
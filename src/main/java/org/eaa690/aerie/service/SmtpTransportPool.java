@@ -0,0 +1,314 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.EmailProperties;
+import org.eaa690.aerie.model.SmtpPoolStats;
+import org.eaa690.aerie.ssl.PasswordAuthenticator;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps a small number of authenticated SMTP connections open per sender, so that bulk sends pay the TLS handshake
+ * and login once per connection rather than once per message.  Connections idle for too long are closed instead of
+ * reused, and a send failing on a stale connection is retried once on a fresh one.  Rejected recipients are not
+ * retried, and leave the connection in the pool.
+ */
+@Slf4j
+public class SmtpTransportPool {
+
+    /**
+     * Pools keyed by SMTP host and sender.
+     */
+    private final Map<String, SenderPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Connections opened.
+     */
+    private final LongAdder connectionsOpened = new LongAdder();
+
+    /**
+     * Sends served by an already open connection.
+     */
+    private final LongAdder connectionsReused = new LongAdder();
+
+    /**
+     * Reconnects after failed sends.
+     */
+    private final LongAdder reconnects = new LongAdder();
+
+    /**
+     * Messages sent.
+     */
+    private final LongAdder messagesSent = new LongAdder();
+
+    /**
+     * Messages which could not be sent.
+     */
+    private final LongAdder sendFailures = new LongAdder();
+
+    /**
+     * Connections currently sending.
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    /**
+     * EmailProperties.
+     */
+    @Autowired
+    private EmailProperties emailProperties;
+
+    /**
+     * Sets EmailProperties.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value EmailProperties
+     */
+    @Autowired
+    public void setEmailProperties(final EmailProperties value) {
+        emailProperties = value;
+    }
+
+    /**
+     * Gets the mail session for the provided sender, creating it on first use.
+     *
+     * @param username sender
+     * @param password for the sender's mailbox
+     * @return Session
+     */
+    public Session getSession(final String username, final String password) {
+        return pool(username, password).getSession();
+    }
+
+    /**
+     * Sends a message over a pooled connection for the provided sender.
+     *
+     * @param message message, created from this sender's session
+     * @param username sender
+     * @param password for the sender's mailbox
+     * @throws MessagingException when the message cannot be sent
+     */
+    public void send(final MimeMessage message, final String username, final String password)
+            throws MessagingException {
+        final SenderPool pool = pool(username, password);
+        message.saveChanges();
+        try {
+            pool.getPermits().acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+        active.incrementAndGet();
+        PooledTransport pooled = null;
+        try {
+            pooled = borrow(pool);
+            try {
+                pooled.getTransport().sendMessage(message, message.getAllRecipients());
+            } catch (SendFailedException e) {
+                throw e;
+            } catch (MessagingException e) {
+                log.info("SMTP send failed on existing connection, reconnecting: {}", e.getMessage());
+                close(pooled);
+                reconnects.increment();
+                pooled = open(pool);
+                pooled.getTransport().sendMessage(message, message.getAllRecipients());
+            }
+            pooled.setLastUsed(System.currentTimeMillis());
+            messagesSent.increment();
+            pool.getIdle().offerFirst(pooled);
+        } catch (SendFailedException e) {
+            sendFailures.increment();
+            if (pooled != null) {
+                pooled.setLastUsed(System.currentTimeMillis());
+                pool.getIdle().offerFirst(pooled);
+            }
+            throw e;
+        } catch (MessagingException e) {
+            sendFailures.increment();
+            if (pooled != null) {
+                close(pooled);
+            }
+            throw e;
+        } finally {
+            active.decrementAndGet();
+            pool.getPermits().release();
+        }
+    }
+
+    /**
+     * Gets pool metrics.
+     *
+     * @return SmtpPoolStats
+     */
+    public SmtpPoolStats getStats() {
+        return new SmtpPoolStats(connectionsOpened.sum(),
+                connectionsReused.sum(),
+                reconnects.sum(),
+                messagesSent.sum(),
+                sendFailures.sum(),
+                active.get(),
+                pools.values().stream().mapToInt(p -> p.getIdle().size()).sum());
+    }
+
+    /**
+     * Closes every idle connection.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(pool -> {
+            PooledTransport pooled = pool.getIdle().pollFirst();
+            while (pooled != null) {
+                close(pooled);
+                pooled = pool.getIdle().pollFirst();
+            }
+        });
+    }
+
+    /**
+     * Takes the most recently used open connection, discarding stale ones, or opens a new one.
+     *
+     * @param pool SenderPool
+     * @return PooledTransport
+     * @throws MessagingException when a connection cannot be opened
+     */
+    private PooledTransport borrow(final SenderPool pool) throws MessagingException {
+        final long staleBefore = System.currentTimeMillis()
+                - TimeUnit.SECONDS.toMillis(emailProperties.getMaxIdleSeconds());
+        PooledTransport pooled = pool.getIdle().pollFirst();
+        while (pooled != null) {
+            if (pooled.getLastUsed() >= staleBefore && pooled.getTransport().isConnected()) {
+                connectionsReused.increment();
+                return pooled;
+            }
+            close(pooled);
+            pooled = pool.getIdle().pollFirst();
+        }
+        return open(pool);
+    }
+
+    /**
+     * Opens and authenticates a new connection.
+     *
+     * @param pool SenderPool
+     * @return PooledTransport
+     * @throws MessagingException when a connection cannot be opened
+     */
+    private PooledTransport open(final SenderPool pool) throws MessagingException {
+        final Transport transport = pool.getSession().getTransport("smtp");
+        transport.connect();
+        connectionsOpened.increment();
+        return new PooledTransport(transport, System.currentTimeMillis());
+    }
+
+    /**
+     * Closes a connection, ignoring errors.
+     *
+     * @param pooled PooledTransport
+     */
+    private static void close(final PooledTransport pooled) {
+        try {
+            pooled.getTransport().close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Gets (or creates) the pool for the provided sender.  The password is only handed to the session's
+     * authenticator, never used as part of the key.
+     *
+     * @param username sender
+     * @param password for the sender's mailbox
+     * @return SenderPool
+     */
+    private SenderPool pool(final String username, final String password) {
+        return pools.computeIfAbsent(emailProperties.getHost() + "/" + username, key -> {
+            final Properties props = new Properties();
+            props.put("mail.smtp.host", emailProperties.getHost());
+            if (emailProperties.isSsl()) {
+                props.put("mail.smtp.socketFactory.port", "465");
+                props.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
+            }
+            props.put("mail.smtp.auth", "true");
+            props.put("mail.smtp.port", emailProperties.getSmtpPort());
+            final Session session = Session.getInstance(props, new PasswordAuthenticator(username, password));
+            return new SenderPool(session, new LinkedBlockingDeque<>(),
+                    new Semaphore(Math.max(1, emailProperties.getPoolSize())));
+        });
+    }
+
+    /**
+     * Connections for a single sender.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static final class SenderPool {
+
+        /**
+         * Mail session.
+         */
+        private final Session session;
+
+        /**
+         * Idle connections, most recently used first.
+         */
+        private final BlockingDeque<PooledTransport> idle;
+
+        /**
+         * Bounds the number of open connections.
+         */
+        private final Semaphore permits;
+    }
+
+    /**
+     * A pooled connection.
+     */
+    @Getter
+    @Setter
+    @AllArgsConstructor
+    private static final class PooledTransport {
+
+        /**
+         * Transport.
+         */
+        private final Transport transport;
+
+        /**
+         * Last time a message was sent over this connection, in milliseconds.
+         */
+        private long lastUsed;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.wx.TAF;
+
+import java.util.Objects;
+
+/**
+ * In-memory TAFs keyed by ICAO code.  A TAF is republished only when its issue time or raw text changes, which
+ * covers amendments and corrections as well as the regular issuances.
+ */
+public class TafStore extends WeatherStore<TAF> {
+
+    /**
+     * Constructor.
+     */
+    public TafStore() {
+        super(TAF.class, CommonConstants.TAF_KEY);
+    }
+
+    /**
+     * Checks whether two TAFs are the same issuance.
+     *
+     * @param a TAF
+     * @param b TAF
+     * @return true if issue time and raw text match
+     */
+    static boolean sameIssuance(final TAF a, final TAF b) {
+        return Objects.equals(issued(a), issued(b)) && Objects.equals(a.getRawText(), b.getRawText());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String icao(final TAF taf) {
+        return taf.getIcao();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean same(final TAF a, final TAF b) {
+        return sameIssuance(a, b);
+    }
+
+    /**
+     * Gets the issue time of a TAF.
+     *
+     * @param taf TAF
+     * @return issue time, or null if unknown
+     */
+    private static String issued(final TAF taf) {
+        if (taf.getTimestamp() == null) {
+            return null;
+        }
+        return taf.getTimestamp().getIssued();
+    }
+}
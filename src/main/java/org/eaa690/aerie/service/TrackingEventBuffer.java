@@ -0,0 +1,382 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.TrackingProperties;
+import org.eaa690.aerie.model.TrackingData;
+import org.eaa690.aerie.model.TrackingIngestStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for message open tracking events.  Tracking hits are appended to a lock-free queue and return
+ * immediately; a background writer drains the queue into the TRACKING_DATA table with JDBC batch inserts, updating
+ * the engagement aggregates alongside.  Repeat opens of the same message by the same member inside the deduplication
+ * window are dropped before they are buffered.  The events of a batch which cannot be written are retried one at a
+ * time, so that a row the database rejects is isolated and, after a few attempts, given up on without holding back
+ * the rest.
+ */
+@Slf4j
+public class TrackingEventBuffer {
+
+    /**
+     * Batch insert statement.
+     */
+    private static final String INSERT = "INSERT INTO TRACKING_DATA "
+            + "(ROSTER_ID, MESSAGE_ID, OPENED_DATE, CREATED_AT, UPDATED_AT) VALUES (?, ?, ?, ?, ?)";
+
+    /**
+     * ROSTER_ID parameter index.
+     */
+    private static final int ROSTER_ID_PARAM = 1;
+
+    /**
+     * MESSAGE_ID parameter index.
+     */
+    private static final int MESSAGE_ID_PARAM = 2;
+
+    /**
+     * OPENED_DATE parameter index.
+     */
+    private static final int OPENED_DATE_PARAM = 3;
+
+    /**
+     * CREATED_AT parameter index.
+     */
+    private static final int CREATED_AT_PARAM = 4;
+
+    /**
+     * UPDATED_AT parameter index.
+     */
+    private static final int UPDATED_AT_PARAM = 5;
+
+    /**
+     * Buffered events.
+     */
+    private final Queue<TrackingData> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of buffered events.  Tracked separately as ConcurrentLinkedQueue.size() is O(n).
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Time each (roster ID, message ID) pair was last accepted, in milliseconds.
+     */
+    private final Map<String, Long> lastAccepted = new ConcurrentHashMap<>();
+
+    /**
+     * Events accepted.
+     */
+    private final LongAdder accepted = new LongAdder();
+
+    /**
+     * Duplicate events dropped.
+     */
+    private final LongAdder duplicates = new LongAdder();
+
+    /**
+     * Events dropped on overflow.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Events written.
+     */
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * Failed writes.
+     */
+    private final LongAdder writeFailures = new LongAdder();
+
+    /**
+     * Events given up on.
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Events of failed batches, to be written one at a time on the next flush.  Guarded by the flush lock.
+     */
+    private final List<TrackingData> retries = new ArrayList<>();
+
+    /**
+     * Failed single-event writes by event.  Guarded by the flush lock.
+     */
+    private final Map<TrackingData, Integer> writeAttempts = new IdentityHashMap<>();
+
+    /**
+     * Writer thread.
+     */
+    private ScheduledExecutorService executor;
+
+    /**
+     * TrackingProperties.
+     */
+    @Autowired
+    private TrackingProperties trackingProperties;
+
+    /**
+     * JdbcTemplate.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * TransactionTemplate.
+     */
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * EngagementService.
+     */
+    @Autowired
+    private EngagementService engagementService;
+
+    /**
+     * Sets TransactionTemplate.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TransactionTemplate
+     */
+    @Autowired
+    public void setTransactionTemplate(final TransactionTemplate value) {
+        transactionTemplate = value;
+    }
+
+    /**
+     * Sets EngagementService.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value EngagementService
+     */
+    @Autowired
+    public void setEngagementService(final EngagementService value) {
+        engagementService = value;
+    }
+
+    /**
+     * Sets TrackingProperties.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TrackingProperties
+     */
+    @Autowired
+    public void setTrackingProperties(final TrackingProperties value) {
+        trackingProperties = value;
+    }
+
+    /**
+     * Sets JdbcTemplate.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value JdbcTemplate
+     */
+    @Autowired
+    public void setJdbcTemplate(final JdbcTemplate value) {
+        jdbcTemplate = value;
+    }
+
+    /**
+     * Starts the background writer.
+     */
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("tracking-writer-%d").setDaemon(true).build());
+        executor.scheduleWithFixedDelay(this::flush, trackingProperties.getFlushMillis(),
+                trackingProperties.getFlushMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background writer and writes any buffered events.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        flush();
+    }
+
+    /**
+     * Buffers a message open.  Never blocks on the database.
+     *
+     * @param rosterId Roster ID
+     * @param messageId Message ID
+     * @return true if the event was buffered, false if it was a duplicate or the buffer is full
+     */
+    public boolean offer(final Long rosterId, final Long messageId) {
+        final long now = System.currentTimeMillis();
+        final long window = TimeUnit.SECONDS.toMillis(trackingProperties.getDedupeWindowSeconds());
+        final boolean[] fresh = new boolean[1];
+        lastAccepted.compute(rosterId + "/" + messageId, (key, last) -> {
+            if (last == null || now - last >= window) {
+                fresh[0] = true;
+                return now;
+            }
+            return last;
+        });
+        if (!fresh[0]) {
+            duplicates.increment();
+            return false;
+        }
+        if (pending.incrementAndGet() > trackingProperties.getBufferCapacity()) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return false;
+        }
+        final TrackingData event = new TrackingData(rosterId, messageId, new Date(now));
+        queue.add(event);
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Writes the events of previously failed batches one at a time, then buffered events in batches until the buffer
+     * is empty, and forgets deduplication entries older than the window.  If a batch cannot be written its events
+     * are set aside and retried one at a time on the next flush.
+     */
+    public synchronized void flush() {
+        if (writeRetries()) {
+            final int batchSize = trackingProperties.getBatchSize();
+            List<TrackingData> batch = drain(batchSize);
+            while (!batch.isEmpty()) {
+                try {
+                    write(batch);
+                } catch (DataAccessException e) {
+                    writeFailures.increment();
+                    retries.addAll(batch);
+                    log.error("Unable to write {} tracking events, will retry one at a time: {}",
+                            batch.size(), e.getMessage());
+                    break;
+                }
+                pending.addAndGet(-batch.size());
+                written.add(batch.size());
+                batch = drain(batchSize);
+            }
+        }
+        final long cutoff = System.currentTimeMillis()
+                - TimeUnit.SECONDS.toMillis(trackingProperties.getDedupeWindowSeconds());
+        lastAccepted.values().removeIf(last -> last < cutoff);
+    }
+
+    /**
+     * Gets ingestion metrics.
+     *
+     * @return TrackingIngestStats
+     */
+    public TrackingIngestStats getStats() {
+        return new TrackingIngestStats(accepted.sum(), duplicates.sum(), dropped.sum(), written.sum(),
+                writeFailures.sum(), rejected.sum(), pending.get());
+    }
+
+    /**
+     * Writes the events of failed batches one at a time.  An event which keeps failing on its own is given up on
+     * after the configured number of attempts.  Stops at the first failure if nothing has been written yet, as the
+     * database is then most likely unavailable.
+     *
+     * @return true if every event was written or given up on
+     */
+    private boolean writeRetries() {
+        boolean progress = false;
+        final Iterator<TrackingData> it = retries.iterator();
+        while (it.hasNext()) {
+            final TrackingData event = it.next();
+            try {
+                write(Collections.singletonList(event));
+                it.remove();
+                writeAttempts.remove(event);
+                pending.decrementAndGet();
+                written.increment();
+                progress = true;
+            } catch (DataAccessException e) {
+                writeFailures.increment();
+                final int attempts = writeAttempts.merge(event, 1, Integer::sum);
+                if (attempts >= trackingProperties.getMaxWriteAttempts()) {
+                    it.remove();
+                    writeAttempts.remove(event);
+                    pending.decrementAndGet();
+                    rejected.increment();
+                    log.error("Giving up on tracking event for member {} and message {} after {} attempts: {}",
+                            event.getRosterId(), event.getMessageId(), attempts, e.getMessage());
+                } else if (!progress) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes up to the provided number of events from the buffer.
+     *
+     * @param max maximum number of events
+     * @return events
+     */
+    private List<TrackingData> drain(final int max) {
+        final List<TrackingData> batch = new ArrayList<>(max);
+        TrackingData event;
+        while (batch.size() < max && (event = queue.poll()) != null) {
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    /**
+     * Updates the engagement aggregates and inserts a batch of events with a single JDBC batch, in one transaction.
+     *
+     * @param batch events
+     */
+    private void write(final List<TrackingData> batch) {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        transactionTemplate.executeWithoutResult(status -> {
+            engagementService.record(batch);
+            jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, event) -> {
+                ps.setLong(ROSTER_ID_PARAM, event.getRosterId());
+                ps.setLong(MESSAGE_ID_PARAM, event.getMessageId());
+                ps.setTimestamp(OPENED_DATE_PARAM, new Timestamp(event.getOpenedDate().getTime()));
+                ps.setTimestamp(CREATED_AT_PARAM, now);
+                ps.setTimestamp(UPDATED_AT_PARAM, now);
+            });
+        });
+    }
+}
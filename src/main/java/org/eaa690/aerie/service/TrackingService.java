@@ -19,11 +19,13 @@ package org.eaa690.aerie.service;
 import org.eaa690.aerie.config.TrackingProperties;
 import org.eaa690.aerie.model.TrackingData;
 import org.eaa690.aerie.model.TrackingDataRepository;
+import org.eaa690.aerie.model.TrackingIngestStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * TrackingService.
@@ -42,6 +44,23 @@ public class TrackingService {
     @Autowired
     private TrackingDataRepository trackingDataRepository;
 
+    /**
+     * TrackingEventBuffer.
+     */
+    @Autowired
+    private TrackingEventBuffer trackingEventBuffer;
+
+    /**
+     * Sets TrackingEventBuffer.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value TrackingEventBuffer
+     */
+    @Autowired
+    public void setTrackingEventBuffer(final TrackingEventBuffer value) {
+        trackingEventBuffer = value;
+    }
+
     /**
      * Sets TrackingDataRepository.
      * Note: mostly used for unit test mocks
@@ -65,13 +84,23 @@ public class TrackingService {
     }
 
     /**
-     * Tracks message opens by members.
+     * Tracks message opens by members.  The open is buffered and written in the background, so this returns without
+     * waiting on the database.
      *
      * @param rosterId Roster ID
      * @param messageId Message ID
      */
     public void recordTrackingResponse(final Long rosterId, final Long messageId) {
-        trackingDataRepository.save(new TrackingData(rosterId, messageId, new Date()));
+        trackingEventBuffer.offer(rosterId, messageId);
+    }
+
+    /**
+     * Gets tracking event ingestion metrics.
+     *
+     * @return TrackingIngestStats
+     */
+    public TrackingIngestStats getIngestStats() {
+        return trackingEventBuffer.getStats();
     }
 
     /**
@@ -86,21 +115,39 @@ public class TrackingService {
     }
 
     /**
-     * Retrieves tracking data for the provided member.
+     * Retrieves tracking data for the provided member.  Buffered opens are written first so they are included.
      *
      * @param rosterId roster ID
      * @return matching TrackingData
      */
     public List<TrackingData> getTrackingDataByMember(final Long rosterId) {
+        trackingEventBuffer.flush();
         return trackingDataRepository.findByRosterId(rosterId).orElseGet(ArrayList::new);
     }
 
     /**
-     * Retrieves all tracking data.
+     * Retrieves tracking data in ID order, starting after the provided ID.  Buffered opens are written first when
+     * reading from the beginning so they are included.
+     *
+     * @param afterId ID of the last event already read, or null to start at the beginning
+     * @param limit maximum number of events
+     * @return TrackingData
+     */
+    public List<TrackingData> getTrackingDataAfter(final Long afterId, final int limit) {
+        if (afterId == null) {
+            trackingEventBuffer.flush();
+        }
+        return trackingDataRepository.findByIdGreaterThanOrderByIdAsc(Optional.ofNullable(afterId).orElse(0L),
+                PageRequest.of(0, limit));
+    }
+
+    /**
+     * Retrieves all tracking data.  Buffered opens are written first so they are included.
      *
      * @return all TrackingData
      */
     public List<TrackingData> getAllTrackingData() {
+        trackingEventBuffer.flush();
         return trackingDataRepository.findAll().orElseGet(ArrayList::new);
     }
 }
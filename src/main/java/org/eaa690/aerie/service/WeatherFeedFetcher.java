@@ -0,0 +1,320 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.google.common.io.CountingInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.model.WeatherFeedStats;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.eaa690.aerie.ssl.SSLUtilities;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fetches AviationWeather.gov feeds with conditional, compressed GETs.  The entity tag and Last-Modified of the last
+ * ingested response are sent back as If-None-Match and If-Modified-Since, so an unchanged feed costs a 304 and no
+ * decoding at all.  Responses are requested gzip compressed and inflated here, so the HTTP client used must not
+ * decompress them itself; see {@link #requestFactory()}.
+ */
+@Slf4j
+public class WeatherFeedFetcher {
+
+    /**
+     * gzip content coding.
+     */
+    private static final String GZIP = "gzip";
+
+    /**
+     * Used to measure decoding CPU time.
+     */
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Per-feed state.
+     */
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+
+    /**
+     * Rest template built on {@link #requestFactory()}.  Passed in rather than autowired, so that Spring does not
+     * replace it with the shared, decompressing rest template.
+     */
+    private final RestTemplate restTemplate;
+
+    /**
+     * SSLUtilities.
+     */
+    @Autowired
+    private SSLUtilities sslUtilities;
+
+    /**
+     * Creates a fetcher.
+     *
+     * @param value RestTemplate built on {@link #requestFactory()}
+     */
+    public WeatherFeedFetcher(final RestTemplate value) {
+        restTemplate = value;
+    }
+
+    /**
+     * Sets SSLUtilities.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value SSLUtilities
+     */
+    @Autowired
+    public void setSSLUtilities(final SSLUtilities value) {
+        sslUtilities = value;
+    }
+
+    /**
+     * Creates the request factory weather feeds must be fetched with.  Content compression is disabled in the HTTP
+     * client, which would otherwise inflate gzip responses and strip their Content-Encoding before the fetcher sees
+     * them, hiding the bytes actually received.
+     *
+     * @return ClientHttpRequestFactory
+     */
+    public static ClientHttpRequestFactory requestFactory() {
+        return new HttpComponentsClientHttpRequestFactory(HttpClientBuilder.create()
+                .useSystemProperties()
+                .disableContentCompression()
+                .build());
+    }
+
+    /**
+     * Installs the relaxed SSL settings once, rather than on every fetch.
+     */
+    @PostConstruct
+    public void init() {
+        // Ignoring SSL certificate checking
+        sslUtilities.trustAllHostnames();
+        sslUtilities.trustAllHttpsCertificates();
+    }
+
+    /**
+     * Fetches a feed, handing the decompressed body to the reader unless the server reports it unchanged since the
+     * last successful read.
+     *
+     * @param name feed name, used for metrics
+     * @param url feed URL
+     * @param reader consumes the feed body
+     * @return true if the feed was read, false if it was not modified
+     */
+    public boolean fetch(final String name, final String url, final FeedReader reader) {
+        final Feed feed = feeds.computeIfAbsent(name, key -> new Feed());
+        feed.requests.increment();
+        final Boolean read = restTemplate.execute(url, HttpMethod.GET, request -> {
+            final HttpHeaders headers = request.getHeaders();
+            headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+            headers.set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+            if (feed.etag != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, feed.etag);
+            }
+            if (feed.lastModified != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, feed.lastModified);
+            }
+        }, response -> {
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                feed.notModified();
+                return Boolean.FALSE;
+            }
+            final HttpHeaders headers = response.getHeaders();
+            final CountingInputStream wire = new CountingInputStream(response.getBody());
+            InputStream body = wire;
+            if (GZIP.equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING))) {
+                body = new GZIPInputStream(wire);
+            }
+            final CountingInputStream decoded = new CountingInputStream(body);
+            final long cpuStart = cpuTime();
+            reader.read(decoded);
+            feed.read(wire.getCount(), decoded.getCount(), cpuTime() - cpuStart);
+            feed.etag = headers.getETag();
+            feed.lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+            return Boolean.TRUE;
+        });
+        return Boolean.TRUE.equals(read);
+    }
+
+    /**
+     * Gets fetch metrics for each feed.
+     *
+     * @return WeatherFeedStats by feed name
+     */
+    public Map<String, WeatherFeedStats> getStats() {
+        final Map<String, WeatherFeedStats> stats = new TreeMap<>();
+        feeds.forEach((name, feed) -> stats.put(name, feed.toStats()));
+        return stats;
+    }
+
+    /**
+     * Gets the current thread's CPU time, falling back to wall time where CPU time is unavailable.
+     *
+     * @return nanoseconds
+     */
+    private static long cpuTime() {
+        if (THREADS.isCurrentThreadCpuTimeSupported()) {
+            return THREADS.getCurrentThreadCpuTime();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Consumes a feed body.
+     */
+    @FunctionalInterface
+    public interface FeedReader {
+
+        /**
+         * Reads the feed.
+         *
+         * @param body decompressed feed body
+         * @throws IOException when the body cannot be read
+         */
+        void read(InputStream body) throws IOException;
+    }
+
+    /**
+     * Validators and counters for one feed.
+     */
+    private static final class Feed {
+
+        /**
+         * Entity tag of the last response read.
+         */
+        private volatile String etag;
+
+        /**
+         * Last-Modified of the last response read.
+         */
+        private volatile String lastModified;
+
+        /**
+         * Size on the wire of the last response read.
+         */
+        private volatile long lastWireBytes;
+
+        /**
+         * Requests sent.
+         */
+        private final LongAdder requests = new LongAdder();
+
+        /**
+         * Not Modified responses.
+         */
+        private final LongAdder notModified = new LongAdder();
+
+        /**
+         * Responses read.
+         */
+        private final LongAdder reads = new LongAdder();
+
+        /**
+         * Bytes received.
+         */
+        private final LongAdder wireBytes = new LongAdder();
+
+        /**
+         * Bytes decoded.
+         */
+        private final LongAdder decodedBytes = new LongAdder();
+
+        /**
+         * Bytes avoided by Not Modified responses.
+         */
+        private final LongAdder notModifiedBytes = new LongAdder();
+
+        /**
+         * CPU time spent reading, in nanoseconds.
+         */
+        private final LongAdder readCpuNanos = new LongAdder();
+
+        /**
+         * CPU time avoided by Not Modified responses, in nanoseconds.
+         */
+        private final LongAdder savedCpuNanos = new LongAdder();
+
+        /**
+         * Records a Not Modified response, crediting the transfer size and average CPU cost of a full read.
+         */
+        void notModified() {
+            notModified.increment();
+            notModifiedBytes.add(lastWireBytes);
+            savedCpuNanos.add(averageReadCpuNanos());
+        }
+
+        /**
+         * Records a response read.
+         *
+         * @param wire bytes received
+         * @param decoded bytes decoded
+         * @param cpuNanos CPU time spent reading
+         */
+        void read(final long wire, final long decoded, final long cpuNanos) {
+            reads.increment();
+            wireBytes.add(wire);
+            decodedBytes.add(decoded);
+            readCpuNanos.add(cpuNanos);
+            lastWireBytes = wire;
+        }
+
+        /**
+         * Average CPU time of a read.
+         *
+         * @return nanoseconds
+         */
+        long averageReadCpuNanos() {
+            final long count = reads.sum();
+            if (count == 0) {
+                return 0;
+            }
+            return readCpuNanos.sum() / count;
+        }
+
+        /**
+         * Snapshot of the counters.
+         *
+         * @return WeatherFeedStats
+         */
+        WeatherFeedStats toStats() {
+            final double nanosPerMilli = TimeUnit.MILLISECONDS.toNanos(1);
+            final long received = wireBytes.sum();
+            final long decoded = decodedBytes.sum();
+            return new WeatherFeedStats(requests.sum(), notModified.sum(), received, decoded,
+                    decoded - received + notModifiedBytes.sum(),
+                    averageReadCpuNanos() / nanosPerMilli, savedCpuNanos.sum() / nanosPerMilli,
+                    etag, lastModified);
+        }
+    }
+}
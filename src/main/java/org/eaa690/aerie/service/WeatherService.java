@@ -16,15 +16,19 @@
 
 package org.eaa690.aerie.service;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
@@ -32,29 +36,22 @@ import org.eaa690.aerie.config.CommonConstants;
 import org.eaa690.aerie.config.WeatherConstants;
 import org.eaa690.aerie.config.WeatherProperties;
 import org.eaa690.aerie.exception.ResourceNotFoundException;
-import org.eaa690.aerie.model.WeatherProduct;
-import org.eaa690.aerie.model.WeatherProductRepository;
+import org.eaa690.aerie.model.WeatherFeedStats;
+import org.eaa690.aerie.model.WeatherIngestSummary;
 import org.eaa690.aerie.model.wx.Barometer;
 import org.eaa690.aerie.model.wx.Ceiling;
 import org.eaa690.aerie.model.wx.Cloud;
 import org.eaa690.aerie.model.wx.Dewpoint;
+import org.eaa690.aerie.model.wx.Forecast;
+import org.eaa690.aerie.model.wx.ForecastTimestamp;
 import org.eaa690.aerie.model.wx.METAR;
+import org.eaa690.aerie.model.wx.TAF;
 import org.eaa690.aerie.model.wx.Temperature;
+import org.eaa690.aerie.model.wx.Timestamp;
 import org.eaa690.aerie.model.wx.Visibility;
 import org.eaa690.aerie.model.wx.Wind;
-import org.eaa690.aerie.ssl.SSLUtilities;
-import org.json.JSONArray;
-import org.json.JSONObject;
-import org.json.JSONTokener;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
 
@@ -65,10 +62,30 @@ import javax.annotation.PostConstruct;
 public class WeatherService {
 
     /**
-     * Synchronous rest template.
+     * METAR product name.
+     */
+    private static final String METAR_PRODUCT = "METAR";
+
+    /**
+     * TAF product name.
+     */
+    private static final String TAF_PRODUCT = "TAF";
+
+    /**
+     * AviationWeather.gov JSON feed base URL.
+     */
+    private static final String FEED_URL = "https://www.aviationweather.gov/cgi-bin/json/";
+
+    /**
+     * Feed query covering the Atlanta Sectional Chart.
+     */
+    private static final String FEED_QUERY = "?density=all&bbox=-85.6898,30.1588,-80.8209,35.1475";
+
+    /**
+     * WeatherFeedFetcher.
      */
     @Autowired
-    private RestTemplate restTemplate;
+    private WeatherFeedFetcher weatherFeedFetcher;
 
     /**
      * PropertyService.
@@ -77,22 +94,20 @@ public class WeatherService {
     private WeatherProperties weatherProperties;
 
     /**
-     * SSLUtilities.
+     * Most recent ingestion summary for each weather product.
      */
-    @Autowired
-    private SSLUtilities sslUtilities;
+    private final Map<String, WeatherIngestSummary> lastIngest = new ConcurrentHashMap<>();
 
     /**
-     * JSON Object Serializer/Deserializer.
+     * Stations on the Atlanta Sectional Chart, read from WeatherProperties on first use.
      */
-    @Autowired
-    private ObjectMapper objectMapper;
+    private volatile Set<String> served;
 
     /**
-     * WeatherProductRepository.
+     * JSON Object Serializer/Deserializer.
      */
     @Autowired
-    private WeatherProductRepository weatherProductRepository;
+    private ObjectMapper objectMapper;
 
     /**
      * Sets ObjectMapper.
@@ -106,47 +121,59 @@ public class WeatherService {
     }
 
     /**
-     * Sets WeatherProductRepository.
+     * MetarStore.
+     */
+    @Autowired
+    private MetarStore metarStore;
+
+    /**
+     * Sets MetarStore.
      * Note: mostly used for unit test mocks
      *
-     * @param wpRepository WeatherProductRepository
+     * @param value MetarStore
      */
     @Autowired
-    public void setWeatherProductRepository(final WeatherProductRepository wpRepository) {
-        weatherProductRepository = wpRepository;
+    public void setMetarStore(final MetarStore value) {
+        metarStore = value;
     }
 
     /**
-     * Sets SSLUtilities.
+     * TafStore.
+     */
+    @Autowired
+    private TafStore tafStore;
+
+    /**
+     * Sets TafStore.
      * Note: mostly used for unit test mocks
      *
-     * @param value SSLUtilities
+     * @param value TafStore
      */
     @Autowired
-    public void setSSLUtilities(final SSLUtilities value) {
-        sslUtilities = value;
+    public void setTafStore(final TafStore value) {
+        tafStore = value;
     }
 
     /**
-     * Sets WeatherProperties.
+     * Sets WeatherFeedFetcher.
      * Note: mostly used for unit test mocks
      *
-     * @param value WeatherProperties
+     * @param value WeatherFeedFetcher
      */
     @Autowired
-    public void setWeatherProperties(final WeatherProperties value) {
-        weatherProperties = value;
+    public void setWeatherFeedFetcher(final WeatherFeedFetcher value) {
+        weatherFeedFetcher = value;
     }
 
     /**
-     * Sets RestTemplate.
+     * Sets WeatherProperties.
      * Note: mostly used for unit test mocks
      *
-     * @param value RestTemplate
+     * @param value WeatherProperties
      */
     @Autowired
-    public void setRestTemplate(final RestTemplate value) {
-        restTemplate = value;
+    public void setWeatherProperties(final WeatherProperties value) {
+        weatherProperties = value;
     }
 
     /**
@@ -154,8 +181,27 @@ public class WeatherService {
      */
     @PostConstruct
     public void update() {
-        getMETARsFromAviationWeather();
-        // https://www.aviationweather.gov/cgi-bin/json/TafJSON.php?density=all&bbox=-85.6898,30.1588,-80.8209,35.1475
+        ingest(METAR_PRODUCT, FEED_URL + "MetarJSON.php" + FEED_QUERY, metarStore,
+                (metars, props) -> metars.put(props.get(WeatherConstants.ID), parseMetar(props)));
+        ingest(TAF_PRODUCT, FEED_URL + "TafJSON.php" + FEED_QUERY, tafStore, WeatherService::addForecast);
+    }
+
+    /**
+     * Gets the most recent ingestion summary for each weather product.
+     *
+     * @return WeatherIngestSummary by product
+     */
+    public Map<String, WeatherIngestSummary> getLastIngest() {
+        return new TreeMap<>(lastIngest);
+    }
+
+    /**
+     * Gets fetch metrics for each weather feed.
+     *
+     * @return WeatherFeedStats by feed
+     */
+    public Map<String, WeatherFeedStats> getFeedStats() {
+        return weatherFeedFetcher.getStats();
     }
 
     /**
@@ -187,21 +233,36 @@ public class WeatherService {
      * @throws ResourceNotFoundException when no information is found for the given ID
      */
     public METAR getMETAR(final String icaoCode) throws ResourceNotFoundException {
-        METAR cachedMetar = null;
-        Optional<WeatherProduct> weatherProductOpt =
-                weatherProductRepository.findByKey(CommonConstants.METAR_KEY + icaoCode);
-        if (weatherProductOpt.isPresent()) {
-            WeatherProduct weatherProduct = weatherProductOpt.get();
-            try {
-                cachedMetar = objectMapper.readValue(weatherProduct.getValue(), METAR.class);
-            } catch (IOException e) {
-                log.warn(String.format("Unable to deserialize METAR from cache: %s", e.getMessage()));
-            }
-        }
-        if (cachedMetar != null) {
-            return cachedMetar;
+        return metarStore.get(icaoCode).orElseThrow(() ->
+                new ResourceNotFoundException(String.format("METAR information not found for %s", icaoCode)));
+    }
+
+    /**
+     * Retrieves the current TAFs for the given airports.  Stations without a TAF are skipped, as most of the smaller
+     * fields we serve do not issue one.
+     *
+     * @param icaoCodes for the TAFs
+     * @return list of {@link TAF}
+     */
+    public List<TAF> getTAFs(final List<String> icaoCodes) {
+        final List<TAF> tafs = new ArrayList<>();
+        if (icaoCodes == null || icaoCodes.isEmpty()) {
+            return tafs;
         }
-        throw new ResourceNotFoundException(String.format("METAR information not found for %s", icaoCode));
+        icaoCodes.forEach(icaoCode -> tafStore.get(icaoCode).ifPresent(tafs::add));
+        return tafs;
+    }
+
+    /**
+     * Retrieves the current TAF for a given airport.
+     *
+     * @param icaoCode for the TAF
+     * @return {@link TAF}
+     * @throws ResourceNotFoundException when no information is found for the given ID
+     */
+    public TAF getTAF(final String icaoCode) throws ResourceNotFoundException {
+        return tafStore.get(icaoCode).orElseThrow(() ->
+                new ResourceNotFoundException(String.format("TAF information not found for %s", icaoCode)));
     }
 
     /**
@@ -211,137 +272,222 @@ public class WeatherService {
      * @return if station is valid
      */
     public boolean isValidStation(final String station) {
-        boolean response = false;
-        final List<String> validStationsList = Arrays.asList(weatherProperties.getAtlantaIcaoCodes().split(","));
-        if (validStationsList.contains(station)) {
-            response = true;
-        }
-        return response;
+        return station != null && servedStations().contains(station);
     }
 
     /**
-     * Queries AviationWeather.gov for METAR information.
+     * Queries AviationWeather.gov for a weather product.  The feed is decoded as it streams in, and stations we do
+     * not serve are dropped without being decoded.  Nothing is ingested when the feed has not changed.
+     *
+     * @param product product name
+     * @param url feed URL
+     * @param store publishes the decoded products
+     * @param accumulator adds one feature's properties to the decoded products by ICAO code
+     * @param <T> product type
      */
-    private void getMETARsFromAviationWeather() {
-        log.info("Querying AviationWeather.gov for METAR information");
-        final String url = "https://www.aviationweather.gov/cgi-bin/json/MetarJSON.php"
-            + "?density=all&bbox=-85.6898,30.1588,-80.8209,35.1475";
-        final HttpHeaders headers = new HttpHeaders();
-        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-        final HttpEntity<String> headersEntity =  new HttpEntity<>("parameters", headers);
-        // Ignoring SSL certificate checking
-        sslUtilities.trustAllHostnames();
-        sslUtilities.trustAllHttpsCertificates();
+    private <T> void ingest(final String product, final String url, final WeatherStore<T> store,
+                            final BiConsumer<Map<String, T>, Map<String, String>> accumulator) {
+        log.info("Querying AviationWeather.gov for {} information", product);
+        final WeatherIngestSummary summary = new WeatherIngestSummary(product);
+        final long start = System.currentTimeMillis();
+        final GeoJsonFeatureDecoder decoder =
+                new GeoJsonFeatureDecoder(objectMapper.getFactory(), this::isValidStation);
+        final Map<String, T> decoded = new LinkedHashMap<>();
         try {
-            final ResponseEntity<String> data =
-                    restTemplate.exchange(url, HttpMethod.GET, headersEntity, String.class);
-            if (data.getBody() != null
-                    && data.getStatusCodeValue() >= HttpStatus.OK.value()
-                    && data.getStatusCodeValue() < HttpStatus.MULTIPLE_CHOICES.value()) {
-                JSONObject root = new JSONObject(new JSONTokener(data.getBody()));
-                JSONArray features = root.getJSONArray("features");
-                for (int i = 0; i < features.length(); i++) {
-                    JSONObject station = features.getJSONObject(i);
-                    if (station.has("id")) {
-                        JSONObject props = station.getJSONObject("properties");
-                        final METAR metar = parseMetar(props);
-                        cacheMetar(metar.getIcao(), metar);
-                    }
-                }
+            if (!weatherFeedFetcher.fetch(product, url,
+                    body -> summary.setIgnored(decoder.decode(body, props -> accumulator.accept(decoded, props))))) {
+                log.info("{} feed not modified since last update", product);
+                return;
             }
+            store.publish(decoded.values(), summary);
+            summary.setElapsedMillis(System.currentTimeMillis() - start);
+            lastIngest.put(product, summary);
+            log.info("{} ingestion complete: {}", product, summary);
         } catch (RestClientException rce) {
-            String msg = String.format("[RestClientException] Unable to retrieve METARs: %s", rce.getMessage());
+            String msg = String.format("[RestClientException] Unable to retrieve %ss: %s", product, rce.getMessage());
             log.error(msg, rce);
         }
     }
 
     /**
-     * Parses METAR information from AviationWeather.gov response.
+     * Gets the stations on the Atlanta Sectional Chart.
+     *
+     * @return ICAO codes
+     */
+    private Set<String> servedStations() {
+        Set<String> stations = served;
+        if (stations == null) {
+            stations = Arrays.stream(weatherProperties.getAtlantaIcaoCodes().split(","))
+                    .map(String::trim)
+                    .filter(code -> !code.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+            served = stations;
+        }
+        return stations;
+    }
+
+    /**
+     * Parses METAR information from AviationWeather.gov feature properties.
      *
-     * @param props JSONObject
+     * @param props feature properties
      * @return METAR
      */
-    private METAR parseMetar(final JSONObject props) {
+    private static METAR parseMetar(final Map<String, String> props) {
         final METAR metar = new METAR();
-        metar.setIcao(props.getString(WeatherConstants.ID));
-        metar.setObserved(props.getString(WeatherConstants.OBSERVED_TIME));
-        if (props.has(WeatherConstants.TEMPERATURE)) {
+        metar.setIcao(props.get(WeatherConstants.ID));
+        metar.setObserved(props.get(WeatherConstants.OBSERVED_TIME));
+        final Double temp = number(props, WeatherConstants.TEMPERATURE);
+        if (temp != null) {
             final Temperature temperature = new Temperature();
-            temperature.setCelsius(Math.round(props.getDouble(WeatherConstants.TEMPERATURE)));
+            temperature.setCelsius(Math.round(temp));
             metar.setTemperature(temperature);
         }
-        if (props.has(WeatherConstants.DEWPOINT)) {
+        final Double dewp = number(props, WeatherConstants.DEWPOINT);
+        if (dewp != null) {
             final Dewpoint dewpoint = new Dewpoint();
-            dewpoint.setCelsius(Math.round(props.getDouble(WeatherConstants.DEWPOINT)));
+            dewpoint.setCelsius(Math.round(dewp));
             metar.setDewpoint(dewpoint);
         }
-        if (props.has(WeatherConstants.WIND_SPEED)) {
-            final Wind wind = new Wind();
-            wind.setSpeedKt(props.getInt(WeatherConstants.WIND_SPEED));
-            wind.setDegrees(props.getInt(WeatherConstants.WIND_DIRECTION));
-            metar.setWind(wind);
-        }
-        if (props.has(WeatherConstants.CEILING)) {
+        metar.setWind(parseWind(props));
+        final Double ceil = number(props, WeatherConstants.CEILING);
+        if (ceil != null) {
             final Ceiling ceiling = new Ceiling();
-            ceiling.setFeet(props.getDouble(WeatherConstants.CEILING));
-            ceiling.setCode(props.getString(WeatherConstants.COVER));
+            ceiling.setFeet(ceil);
+            ceiling.setCode(props.get(WeatherConstants.COVER));
             metar.setCeiling(ceiling);
         }
-        if (props.has(WeatherConstants.CLOUD_COVER + "1")) {
-            final List<Cloud> clouds = new ArrayList<>();
-            for (int j = 1; j < CommonConstants.TEN; j++) {
-                if (props.has(WeatherConstants.CLOUD_COVER + j)) {
-                    final Cloud cloud = new Cloud();
-                    cloud.setCode(props.getString(WeatherConstants.CLOUD_COVER + j));
-                    if (props.has(WeatherConstants.CLOUD_BASE + j)) {
-                        cloud.setBaseFeetAgl(Double.parseDouble(props.getString(WeatherConstants.CLOUD_BASE + j))
-                                * CommonConstants.ONE_HUNDRED);
-                    }
-                    clouds.add(cloud);
-                }
-            }
-            metar.setClouds(clouds);
-        }
-        if (props.has(WeatherConstants.VISIBILITY)) {
-            final Visibility visibility = new Visibility();
-            visibility.setMiles(props.get(WeatherConstants.VISIBILITY).toString());
-            metar.setVisibility(visibility);
+        metar.setClouds(parseClouds(props));
+        metar.setVisibility(parseVisibility(props));
+        if (props.containsKey(WeatherConstants.FLIGHT_CATEGORY)) {
+            metar.setFlightCategory(props.get(WeatherConstants.FLIGHT_CATEGORY));
         }
-        if (props.has(WeatherConstants.FLIGHT_CATEGORY)) {
-            metar.setFlightCategory(props.getString(WeatherConstants.FLIGHT_CATEGORY));
-        }
-        if (props.has(WeatherConstants.ALTIMETER)) {
+        final Double altim = number(props, WeatherConstants.ALTIMETER);
+        if (altim != null) {
             final Barometer barometer = new Barometer();
-            barometer.setMb(props.getDouble(WeatherConstants.ALTIMETER));
+            barometer.setMb(altim);
             metar.setBarometer(barometer);
         }
-        metar.setRawText(props.getString(WeatherConstants.RAW_OBSERVATION));
+        metar.setRawText(props.get(WeatherConstants.RAW_OBSERVATION));
         metar.setCreatedAt(new Date());
         metar.setUpdatedAt(new Date());
         return metar;
     }
 
     /**
-     * Caches METAR.
+     * Adds one forecast period from AviationWeather.gov feature properties to the TAF for its station.  The feed
+     * carries one feature per forecast period, each repeating the TAF's issue time and raw text.
      *
-     * @param icaoCode ICAO Code key for cached value
-     * @param metar METAR to be cached
+     * @param tafs TAFs by ICAO code
+     * @param props feature properties
      */
-    private void cacheMetar(final String icaoCode, final METAR metar) {
-        try {
-            WeatherProduct weatherProduct = new WeatherProduct();
-            weatherProduct.setKey(CommonConstants.METAR_KEY + icaoCode);
-            weatherProduct.setCreatedAt(new Date());
-            final Optional<WeatherProduct> weatherProductOpt =
-                    weatherProductRepository.findByKey(CommonConstants.METAR_KEY + icaoCode);
-            if (weatherProductOpt.isPresent()) {
-                weatherProduct = weatherProductOpt.get();
+    private static void addForecast(final Map<String, TAF> tafs, final Map<String, String> props) {
+        final TAF taf = tafs.computeIfAbsent(props.get(WeatherConstants.ID), icao -> {
+            final TAF created = new TAF();
+            created.setIcao(icao);
+            created.setRawText(props.get(WeatherConstants.RAW_TAF));
+            final Timestamp timestamp = new Timestamp();
+            timestamp.setIssued(props.get(WeatherConstants.ISSUE_TIME));
+            timestamp.setBulletin(props.get(WeatherConstants.BULLETIN_TIME));
+            timestamp.setValidFrom(props.get(WeatherConstants.VALID_TIME_FROM));
+            timestamp.setValidTo(props.get(WeatherConstants.VALID_TIME_TO));
+            created.setTimestamp(timestamp);
+            created.setForecast(new ArrayList<>());
+            created.setCreatedAt(new Date());
+            created.setUpdatedAt(new Date());
+            return created;
+        });
+        final Forecast forecast = new Forecast();
+        final ForecastTimestamp timestamp = new ForecastTimestamp();
+        timestamp.setForecastFrom(props.get(WeatherConstants.FORECAST_TIME_FROM));
+        timestamp.setForecastTo(props.get(WeatherConstants.FORECAST_TIME_TO));
+        forecast.setTimestamp(timestamp);
+        forecast.setChangeIndicator(props.get(WeatherConstants.FORECAST_TYPE));
+        forecast.setWind(parseWind(props));
+        forecast.setVisibility(parseVisibility(props));
+        forecast.setClouds(parseClouds(props));
+        taf.getForecast().add(forecast);
+    }
+
+    /**
+     * Parses wind from feature properties.
+     *
+     * @param props feature properties
+     * @return Wind, or null if no wind speed is reported
+     */
+    private static Wind parseWind(final Map<String, String> props) {
+        final Double speed = number(props, WeatherConstants.WIND_SPEED);
+        if (speed == null) {
+            return null;
+        }
+        final Wind wind = new Wind();
+        wind.setSpeedKt(speed.intValue());
+        final Double direction = number(props, WeatherConstants.WIND_DIRECTION);
+        if (direction != null) {
+            wind.setDegrees(direction.intValue());
+        }
+        final Double gust = number(props, WeatherConstants.WIND_GUST);
+        if (gust != null) {
+            wind.setGustKt(gust.intValue());
+        }
+        return wind;
+    }
+
+    /**
+     * Parses cloud layers from feature properties.
+     *
+     * @param props feature properties
+     * @return clouds, or null if no layers are reported
+     */
+    private static List<Cloud> parseClouds(final Map<String, String> props) {
+        if (!props.containsKey(WeatherConstants.CLOUD_COVER + "1")) {
+            return null;
+        }
+        final List<Cloud> clouds = new ArrayList<>();
+        for (int j = 1; j < CommonConstants.TEN; j++) {
+            if (props.containsKey(WeatherConstants.CLOUD_COVER + j)) {
+                final Cloud cloud = new Cloud();
+                cloud.setCode(props.get(WeatherConstants.CLOUD_COVER + j));
+                final Double base = number(props, WeatherConstants.CLOUD_BASE + j);
+                if (base != null) {
+                    cloud.setBaseFeetAgl(base * CommonConstants.ONE_HUNDRED);
+                }
+                clouds.add(cloud);
             }
-            weatherProduct.setValue(objectMapper.writeValueAsString(metar));
-            weatherProduct.setUpdatedAt(new Date());
-            weatherProductRepository.save(weatherProduct);
-        } catch (JsonProcessingException jpe) {
-            log.warn(String.format("Unable to serialize METAR [%s]: %s", metar, jpe.getMessage()));
+        }
+        return clouds;
+    }
+
+    /**
+     * Parses visibility from feature properties.
+     *
+     * @param props feature properties
+     * @return Visibility, or null if none is reported
+     */
+    private static Visibility parseVisibility(final Map<String, String> props) {
+        if (!props.containsKey(WeatherConstants.VISIBILITY)) {
+            return null;
+        }
+        final Visibility visibility = new Visibility();
+        visibility.setMiles(props.get(WeatherConstants.VISIBILITY));
+        return visibility;
+    }
+
+    /**
+     * Reads a numeric feature property.
+     *
+     * @param props feature properties
+     * @param name property name
+     * @return value, or null if the property is missing or not a number (for example a VRB wind direction)
+     */
+    private static Double number(final Map<String, String> props, final String name) {
+        final String value = props.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
 
@@ -0,0 +1,306 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.WeatherIngestSummary;
+import org.eaa690.aerie.model.WeatherProduct;
+import org.eaa690.aerie.model.WeatherProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory weather products keyed by ICAO code.  Each weather update publishes a new immutable map, so readers never
+ * see a partially applied update and never touch the database or parse JSON.  Published products are written behind
+ * to WeatherProduct so that the store can be restored after a restart; stations whose write fails are written again
+ * with the next publish.  Stored products are shared and must not be modified.
+ *
+ * @param <T> weather product type
+ */
+@Slf4j
+public abstract class WeatherStore<T> {
+
+    /**
+     * Product type.
+     */
+    private final Class<T> type;
+
+    /**
+     * WeatherProduct key prefix.
+     */
+    private final String keyPrefix;
+
+    /**
+     * Products by ICAO code.  Replaced as a whole, never modified in place.
+     */
+    private volatile Map<String, T> products = Collections.emptyMap();
+
+    /**
+     * Stations published but not yet persisted because their last write failed.
+     */
+    private final Set<String> unpersisted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Persistence writer.
+     */
+    private ExecutorService writer;
+
+    /**
+     * WeatherProductRepository.
+     */
+    @Autowired
+    private WeatherProductRepository weatherProductRepository;
+
+    /**
+     * JSON Object Serializer/Deserializer.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Constructor.
+     *
+     * @param productType product type
+     * @param productKeyPrefix WeatherProduct key prefix
+     */
+    protected WeatherStore(final Class<T> productType, final String productKeyPrefix) {
+        type = productType;
+        keyPrefix = productKeyPrefix;
+    }
+
+    /**
+     * Sets WeatherProductRepository.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value WeatherProductRepository
+     */
+    @Autowired
+    public void setWeatherProductRepository(final WeatherProductRepository value) {
+        weatherProductRepository = value;
+    }
+
+    /**
+     * Sets ObjectMapper.
+     * Note: mostly used for unit test mocks
+     *
+     * @param value ObjectMapper
+     */
+    @Autowired
+    public void setObjectMapper(final ObjectMapper value) {
+        objectMapper = value;
+    }
+
+    /**
+     * Starts the persistence writer and restores the products persisted before the last shutdown.
+     */
+    @PostConstruct
+    public void init() {
+        writer = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                .setNameFormat(type.getSimpleName().toLowerCase() + "-writer-%d").setDaemon(true).build());
+        final Map<String, T> restored = new HashMap<>();
+        for (final WeatherProduct product : weatherProductRepository.findByKeyStartingWith(keyPrefix)) {
+            try {
+                final T value = objectMapper.readValue(product.getValue(), type);
+                restored.put(icao(value), value);
+            } catch (IOException e) {
+                log.warn("Unable to restore {} [{}]: {}", type.getSimpleName(), product.getKey(), e.getMessage());
+            }
+        }
+        products = Collections.unmodifiableMap(restored);
+        log.info("Restored {} {}s", restored.size(), type.getSimpleName());
+    }
+
+    /**
+     * Stops the persistence writer once pending writes complete.
+     */
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CommonConstants.TEN, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the product for a station.
+     *
+     * @param icaoCode ICAO code
+     * @return product, if one has been published
+     */
+    public Optional<T> get(final String icaoCode) {
+        return Optional.ofNullable(products.get(icaoCode));
+    }
+
+    /**
+     * Gets all products.
+     *
+     * @return products by ICAO code
+     */
+    public Map<String, T> all() {
+        return products;
+    }
+
+    /**
+     * Publishes fetched products.  A station whose product matches the published one is left alone; new and changed
+     * stations replace the published map in one step and are then queued to be persisted, along with any stations
+     * whose last write failed.
+     *
+     * @param fetched products
+     * @param summary counts of new, changed and unchanged stations
+     */
+    public void publish(final Collection<T> fetched, final WeatherIngestSummary summary) {
+        final List<T> changed = new ArrayList<>();
+        final Map<String, T> writes = new LinkedHashMap<>();
+        synchronized (this) {
+            final Map<String, T> current = products;
+            for (final T product : fetched) {
+                final T previous = current.get(icao(product));
+                if (previous == null) {
+                    summary.added();
+                    changed.add(product);
+                } else if (same(previous, product)) {
+                    summary.unchanged();
+                } else {
+                    summary.changed();
+                    changed.add(product);
+                }
+            }
+            if (!changed.isEmpty()) {
+                final Map<String, T> next = new HashMap<>(current);
+                changed.forEach(product -> next.put(icao(product), product));
+                products = Collections.unmodifiableMap(next);
+            }
+            for (final String icao : unpersisted) {
+                unpersisted.remove(icao);
+                final T product = products.get(icao);
+                if (product != null) {
+                    writes.put(icao, product);
+                }
+            }
+            changed.forEach(product -> writes.put(icao(product), product));
+        }
+        if (!writes.isEmpty()) {
+            final List<T> updated = new ArrayList<>(writes.values());
+            writer.execute(() -> persist(updated));
+        }
+    }
+
+    /**
+     * Gets the station a product is for.
+     *
+     * @param product product
+     * @return ICAO code
+     */
+    protected abstract String icao(T product);
+
+    /**
+     * Checks whether two products for the same station carry the same report.
+     *
+     * @param a product
+     * @param b product
+     * @return true if the newer product need not be published
+     */
+    protected abstract boolean same(T a, T b);
+
+    /**
+     * Writes products to WeatherProduct in one batched transaction, updating existing rows in place.  If the write
+     * fails the stations are remembered, and written again with the next publish.
+     *
+     * @param updated products
+     */
+    void persist(final List<T> updated) {
+        try {
+            write(updated);
+        } catch (RuntimeException e) {
+            updated.forEach(product -> unpersisted.add(icao(product)));
+            log.error("Unable to persist {} {}s, will retry: {}", updated.size(), type.getSimpleName(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the number of stations waiting to be persisted again.
+     *
+     * @return count
+     */
+    int unpersistedCount() {
+        return unpersisted.size();
+    }
+
+    /**
+     * Writes products to WeatherProduct.
+     *
+     * @param updated products
+     */
+    private void write(final List<T> updated) {
+        final Map<String, WeatherProduct> existing = weatherProductRepository
+                .findByKeyIn(updated.stream().map(this::key).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(WeatherProduct::getKey, Function.identity(), (a, b) -> a));
+        final List<WeatherProduct> rows = new ArrayList<>();
+        for (final T product : updated) {
+            try {
+                final WeatherProduct row = existing.computeIfAbsent(key(product), k -> {
+                    final WeatherProduct created = new WeatherProduct();
+                    created.setKey(k);
+                    return created;
+                });
+                row.setValue(objectMapper.writeValueAsString(product));
+                row.setUpdatedAt(new Date());
+                rows.add(row);
+            } catch (JsonProcessingException e) {
+                log.warn("Unable to serialize {} [{}]: {}", type.getSimpleName(), icao(product), e.getMessage());
+            }
+        }
+        weatherProductRepository.saveAll(rows);
+    }
+
+    /**
+     * Builds the WeatherProduct key for a product.
+     *
+     * @param product product
+     * @return key
+     */
+    private String key(final T product) {
+        return keyPrefix + icao(product);
+    }
+}
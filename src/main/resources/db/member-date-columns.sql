@@ -0,0 +1,29 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+-- Converts MEMBER.BIRTH_DATE and MEMBER.JOINED from yyyy-MM-dd strings to DATE columns.
+-- Only needed for databases created before these columns were typed; Hibernate does not alter column types.
+-- Values that are blank or not in yyyy-MM-dd format are cleared and will be refilled by the next roster sync.
+
+UPDATE MEMBER SET BIRTH_DATE = NULL WHERE NOT REGEXP_LIKE(TRIM(BIRTH_DATE), '^[0-9]{4}-[0-9]{2}-[0-9]{2}$');
+UPDATE MEMBER SET JOINED = NULL WHERE NOT REGEXP_LIKE(TRIM(JOINED), '^[0-9]{4}-[0-9]{2}-[0-9]{2}$');
+
+-- H2
+ALTER TABLE MEMBER ALTER COLUMN BIRTH_DATE SET DATA TYPE DATE;
+ALTER TABLE MEMBER ALTER COLUMN JOINED SET DATA TYPE DATE;
+-- MySQL: ALTER TABLE MEMBER MODIFY BIRTH_DATE DATE, MODIFY JOINED DATE;
+
+CREATE INDEX IF NOT EXISTS IDX_MEMBER_JOINED ON MEMBER (JOINED);
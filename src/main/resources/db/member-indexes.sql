@@ -0,0 +1,24 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+-- Adds the MEMBER indexes declared on the Member entity to databases created before they existed.
+
+CREATE INDEX IF NOT EXISTS IDX_MEMBER_ROSTER_ID ON MEMBER (ROSTER_ID);
+CREATE INDEX IF NOT EXISTS IDX_MEMBER_RFID ON MEMBER (RFID);
+CREATE INDEX IF NOT EXISTS IDX_MEMBER_EMAIL ON MEMBER (EMAIL);
+CREATE INDEX IF NOT EXISTS IDX_MEMBER_EXPIRATION ON MEMBER (EXPIRATION);
+CREATE INDEX IF NOT EXISTS IDX_MEMBER_TYPE_STATUS_EXPIRATION ON MEMBER (MEMBER_TYPE, STATUS, EXPIRATION);
+CREATE INDEX IF NOT EXISTS IDX_MEMBER_JOINED ON MEMBER (JOINED);
@@ -0,0 +1,30 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+
+-- Adds the outbox columns and indexes declared on the Message entity to databases created before they existed.
+-- Rows recorded before the outbox were delivered synchronously, so they are marked SENT.
+
+ALTER TABLE MESSAGE ADD COLUMN IF NOT EXISTS CHANNEL VARCHAR(255);
+ALTER TABLE MESSAGE ADD COLUMN IF NOT EXISTS STATUS VARCHAR(255);
+ALTER TABLE MESSAGE ADD COLUMN IF NOT EXISTS ATTEMPTS INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE MESSAGE ADD COLUMN IF NOT EXISTS NEXT_ATTEMPT_AT TIMESTAMP;
+ALTER TABLE MESSAGE ADD COLUMN IF NOT EXISTS LEASE_OWNER VARCHAR(255);
+ALTER TABLE MESSAGE ADD COLUMN IF NOT EXISTS LEASE_EXPIRES_AT TIMESTAMP;
+ALTER TABLE MESSAGE ADD COLUMN IF NOT EXISTS LAST_ERROR VARCHAR(1000);
+UPDATE MESSAGE SET STATUS = 'SENT' WHERE STATUS IS NULL AND SENT IS NOT NULL;
+CREATE INDEX IF NOT EXISTS IDX_MESSAGE_STATUS_NEXT_ATTEMPT ON MESSAGE (STATUS, NEXT_ATTEMPT_AT);
+CREATE INDEX IF NOT EXISTS IDX_MESSAGE_LEASE_OWNER ON MESSAGE (LEASE_OWNER);
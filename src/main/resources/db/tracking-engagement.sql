@@ -0,0 +1,63 @@
+--
+--  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+--
+--  Licensed under the Apache License, Version 2.0 (the "License");
+--  you may not use this file except in compliance with the License.
+--  You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--  Unless required by applicable law or agreed to in writing, software
+--  distributed under the License is distributed on an "AS IS" BASIS,
+--  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--  See the License for the specific language governing permissions and
+--  limitations under the License.
+--
+
+
+-- Creates the engagement aggregate tables declared on the MessageEngagement and MemberEngagement entities, and the
+-- TRACKING_DATA indexes they rely on, then seeds the aggregates from the tracking events already recorded.
+-- Run once, before the application starts writing tracking events.
+
+CREATE INDEX IF NOT EXISTS IDX_TRACKING_DATA_MESSAGE_ROSTER ON TRACKING_DATA (MESSAGE_ID, ROSTER_ID);
+CREATE INDEX IF NOT EXISTS IDX_TRACKING_DATA_ROSTER_ID ON TRACKING_DATA (ROSTER_ID);
+
+CREATE TABLE IF NOT EXISTS MESSAGE_ENGAGEMENT (
+    ID BIGINT AUTO_INCREMENT PRIMARY KEY,
+    CREATED_AT TIMESTAMP NOT NULL,
+    UPDATED_AT TIMESTAMP NOT NULL,
+    MESSAGE_ID BIGINT,
+    UNIQUE_OPENS INTEGER NOT NULL,
+    OPENS INTEGER NOT NULL,
+    FIRST_OPENED TIMESTAMP,
+    LAST_OPENED TIMESTAMP
+);
+CREATE UNIQUE INDEX IF NOT EXISTS IDX_MESSAGE_ENGAGEMENT_MESSAGE_ID ON MESSAGE_ENGAGEMENT (MESSAGE_ID);
+CREATE INDEX IF NOT EXISTS IDX_MESSAGE_ENGAGEMENT_LAST_OPENED ON MESSAGE_ENGAGEMENT (LAST_OPENED);
+
+CREATE TABLE IF NOT EXISTS MEMBER_ENGAGEMENT (
+    ID BIGINT AUTO_INCREMENT PRIMARY KEY,
+    CREATED_AT TIMESTAMP NOT NULL,
+    UPDATED_AT TIMESTAMP NOT NULL,
+    ROSTER_ID BIGINT,
+    MESSAGES_OPENED INTEGER NOT NULL,
+    OPENS INTEGER NOT NULL,
+    FIRST_OPENED TIMESTAMP,
+    LAST_OPENED TIMESTAMP
+);
+CREATE UNIQUE INDEX IF NOT EXISTS IDX_MEMBER_ENGAGEMENT_ROSTER_ID ON MEMBER_ENGAGEMENT (ROSTER_ID);
+CREATE INDEX IF NOT EXISTS IDX_MEMBER_ENGAGEMENT_LAST_OPENED ON MEMBER_ENGAGEMENT (LAST_OPENED);
+
+INSERT INTO MESSAGE_ENGAGEMENT (CREATED_AT, UPDATED_AT, MESSAGE_ID, UNIQUE_OPENS, OPENS, FIRST_OPENED, LAST_OPENED)
+SELECT CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, MESSAGE_ID, COUNT(DISTINCT ROSTER_ID), COUNT(*),
+       MIN(OPENED_DATE), MAX(OPENED_DATE)
+FROM TRACKING_DATA
+WHERE MESSAGE_ID NOT IN (SELECT MESSAGE_ID FROM MESSAGE_ENGAGEMENT)
+GROUP BY MESSAGE_ID;
+
+INSERT INTO MEMBER_ENGAGEMENT (CREATED_AT, UPDATED_AT, ROSTER_ID, MESSAGES_OPENED, OPENS, FIRST_OPENED, LAST_OPENED)
+SELECT CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, ROSTER_ID, COUNT(DISTINCT MESSAGE_ID), COUNT(*),
+       MIN(OPENED_DATE), MAX(OPENED_DATE)
+FROM TRACKING_DATA
+WHERE ROSTER_ID NOT IN (SELECT ROSTER_ID FROM MEMBER_ENGAGEMENT)
+GROUP BY ROSTER_ID;
@@ -0,0 +1,83 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.config;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class ReloadingFileTemplateResolverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+
+    private File template;
+
+    @Before
+    public void setUp() throws IOException {
+        final File email = folder.newFolder("email");
+        template = new File(email, "greeting.html");
+        final ReloadingFileTemplateResolver resolver = new ReloadingFileTemplateResolver(0);
+        resolver.setPrefix(folder.getRoot().getAbsolutePath() + File.separator);
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.TEXT);
+        templateEngine.setTemplateResolver(resolver);
+    }
+
+    @Test
+    public void testCachesUntilModified() throws IOException {
+        write("Hello [(${name})]", 1_000_000L);
+        Assert.assertEquals("Hello Brian", render());
+
+        // Same modification time: the cached template is used even though the content changed
+        write("Goodbye [(${name})]", 1_000_000L);
+        Assert.assertEquals("Hello Brian", render());
+
+        write("Goodbye [(${name})]", 2_000_000L);
+        Assert.assertEquals("Goodbye Brian", render());
+    }
+
+    @Test
+    public void testMissingTemplateIsNotCached() {
+        final ReloadingFileTemplateResolver.FileModifiedValidity validity =
+                new ReloadingFileTemplateResolver.FileModifiedValidity(template.toPath(), 0);
+        Assert.assertFalse(validity.isCacheable());
+    }
+
+    private String render() {
+        final Context context = new Context();
+        context.setVariable("name", "Brian");
+        return templateEngine.process("email/greeting", context);
+    }
+
+    private void write(final String content, final long lastModified) throws IOException {
+        Files.write(template.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(template.setLastModified(lastModified));
+    }
+}
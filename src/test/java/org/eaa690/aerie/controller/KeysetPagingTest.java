@@ -0,0 +1,73 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eaa690.aerie.model.CursorPage;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class KeysetPagingTest {
+
+    private final List<Long> fetches = new ArrayList<>();
+
+    private BiFunction<Long, Integer, List<Long>> rows(final long count) {
+        return (after, limit) -> {
+            fetches.add(after);
+            final long start = after == null ? 1 : after + 1;
+            return LongStream.range(start, Math.min(count + 1, start + limit))
+                    .boxed()
+                    .collect(Collectors.toList());
+        };
+    }
+
+    @Test
+    public void testPageReturnsCursorUntilLastPage() {
+        final CursorPage<Long> first = KeysetPaging.page(rows(5), id -> id, null, 3);
+        Assert.assertEquals(3, first.getItems().size());
+        Assert.assertEquals("3", first.getNext());
+
+        final CursorPage<Long> last = KeysetPaging.page(rows(5), id -> id, 3L, 3);
+        Assert.assertEquals(2, last.getItems().size());
+        Assert.assertNull(last.getNext());
+    }
+
+    @Test
+    public void testStreamWritesEveryRowInBatches() throws Exception {
+        final ResponseEntity<StreamingResponseBody> response =
+                KeysetPaging.stream(new ObjectMapper(), rows(1200), id -> id);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        final String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        Assert.assertEquals(1200, lines.length);
+        Assert.assertEquals("1", lines[0]);
+        Assert.assertEquals("1200", lines[1199]);
+        Assert.assertEquals(3, fetches.size());
+        Assert.assertEquals(KeysetPaging.NDJSON, response.getHeaders().getContentType().toString());
+    }
+}
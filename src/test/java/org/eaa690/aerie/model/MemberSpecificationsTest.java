@@ -0,0 +1,118 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.model;
+
+import org.eaa690.aerie.model.roster.MemberType;
+import org.eaa690.aerie.model.roster.Status;
+import org.eaa690.aerie.service.RosterService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class MemberSpecificationsTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private final RosterService rosterService = new RosterService();
+
+    @Before
+    public void setUp() {
+        rosterService.setMemberRepository(memberRepository);
+        memberRepository.saveAll(Arrays.asList(
+                member(1L, MemberType.Regular, Status.ACTIVE, 30, LocalDate.of(2020, 1, 1)),
+                member(2L, MemberType.Family, Status.ACTIVE, 400, LocalDate.of(2023, 6, 1)),
+                member(3L, MemberType.Regular, Status.INACTIVE, -10, LocalDate.of(2010, 1, 1)),
+                member(4L, MemberType.Lifetime, Status.ACTIVE, 1000, LocalDate.of(2024, 1, 1))));
+    }
+
+    @Test
+    public void testNoCriteriaMatchesEveryMember() {
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L), rosterIds(null, null, null, null, null));
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L, 4L),
+                rosterIds(Collections.emptyList(), null, null, null, null));
+    }
+
+    @Test
+    public void testTypeAndStatus() {
+        Assert.assertEquals(Arrays.asList(1L, 3L),
+                rosterIds(Collections.singletonList(MemberType.Regular), null, null, null, null));
+        Assert.assertEquals(Arrays.asList(1L, 2L),
+                rosterIds(Arrays.asList(MemberType.Regular, MemberType.Family), Status.ACTIVE, null, null, null));
+        Assert.assertEquals(Collections.singletonList(3L),
+                rosterIds(null, Status.INACTIVE, null, null, null));
+    }
+
+    @Test
+    public void testExpirationWindowWithTypeAndStatus() {
+        final Date now = new Date();
+        final Date sixtyDays = Date.from(Instant.now().plus(60, ChronoUnit.DAYS));
+        Assert.assertEquals(Collections.singletonList(1L), rosterIds(null, Status.ACTIVE, now, sixtyDays, null));
+        Assert.assertEquals(Arrays.asList(2L, 4L), rosterIds(null, null, sixtyDays, null, null));
+        Assert.assertEquals(Collections.singletonList(3L),
+                rosterIds(Collections.singletonList(MemberType.Regular), Status.INACTIVE, null, now, null));
+        Assert.assertTrue(rosterIds(Collections.singletonList(MemberType.Lifetime), Status.ACTIVE, null, now, null)
+                .isEmpty());
+    }
+
+    @Test
+    public void testJoinedAfter() {
+        Assert.assertEquals(Arrays.asList(2L, 4L), rosterIds(null, null, null, null, date(LocalDate.of(2022, 1, 1))));
+        Assert.assertEquals(Collections.singletonList(2L), rosterIds(null, Status.ACTIVE, null,
+                Date.from(Instant.now().plus(500, ChronoUnit.DAYS)), date(LocalDate.of(2022, 1, 1))));
+    }
+
+    private List<Long> rosterIds(final List<MemberType> types, final Status status, final Date expiresAfter,
+                                 final Date expiresBefore, final Date joinedAfter) {
+        return rosterService.findMembers(types, status, expiresAfter, expiresBefore, joinedAfter)
+                .stream()
+                .map(Member::getRosterId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static Member member(final Long rosterId, final MemberType type, final Status status,
+                                 final int expiresInDays, final LocalDate joined) {
+        final Member member = new Member();
+        member.setRosterId(rosterId);
+        member.setMemberType(type);
+        member.setStatus(status);
+        member.setExpiration(Date.from(Instant.now().plus(expiresInDays, ChronoUnit.DAYS)));
+        member.setJoined(date(joined));
+        return member;
+    }
+
+    private static Date date(final LocalDate value) {
+        return Date.from(value.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -19,6 +19,9 @@ package org.eaa690.aerie.model;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.sql.Timestamp;
+import java.util.Date;
+
 public class MemberTest {
 
     @Test
@@ -53,4 +56,36 @@ public class MemberTest {
         m1.setId(1L);
         Assert.assertNotNull(m1.equals(null));
     }
+
+    @Test
+    public void testMergeRosterDataUnchanged() {
+        final Date expiration = new Date();
+        final Member existing = new Member();
+        existing.setRosterId(1L);
+        existing.setFirstName("Brian");
+        existing.setExpiration(new Timestamp(expiration.getTime()));
+        final Member parsed = new Member();
+        parsed.setRosterId(1L);
+        parsed.setFirstName("Brian");
+        parsed.setExpiration(expiration);
+        Assert.assertFalse(existing.mergeRosterData(parsed));
+    }
+
+    @Test
+    public void testMergeRosterDataChanged() {
+        final Member existing = new Member();
+        existing.setId(5L);
+        existing.setRosterId(1L);
+        existing.setLastName("Smith");
+        existing.setEmailEnabled(true);
+        final Member parsed = new Member();
+        parsed.setRosterId(1L);
+        parsed.setLastName("Michael");
+        parsed.setExpiration(new Date());
+        Assert.assertTrue(existing.mergeRosterData(parsed));
+        Assert.assertEquals("Michael", existing.getLastName());
+        Assert.assertEquals(parsed.getExpiration(), existing.getExpiration());
+        Assert.assertEquals(Long.valueOf(5L), existing.getId());
+        Assert.assertTrue(existing.isEmailEnabled());
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.roster;
+
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.roster.MemberType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RosterManagerHelperTest {
+
+    private static final String EXPORT = "<html><body><table>"
+            + "<tr><th>ID</th><th>Type</th><th>Nick</th><th>First</th><th>Last</th></tr>"
+            + "<TR><td>42648</td><td>Regular</td><td>Bri</td><td>Brian</td><td>Michael</td>"
+            + "<td></td><td>Male</td><td>brian@example.com</td></TR>"
+            + "<tr class=\"alt\"><td>67972</td><td>Non-Member</td><td></td><td>Jane</td><td>Doe</td>"
+            + "<tr><td>12345</td><td>Family</td><td></td><td>John</td><td>Smith</td></tr>"
+            + "</table></body></html>";
+
+    @Test
+    public void testStreamingParserMatchesDomParser() throws IOException {
+        final RosterManagerHelper helper = new RosterManagerHelper();
+        final List<Member> dom = helper.parseRecords(EXPORT);
+        final List<Member> streamed = new ArrayList<>();
+        helper.parseRecords(new ByteArrayInputStream(EXPORT.getBytes(StandardCharsets.UTF_8)), streamed::add);
+        Assert.assertEquals(3, streamed.size());
+        Assert.assertEquals(dom.size(), streamed.size());
+        for (int i = 0; i < dom.size(); i++) {
+            Assert.assertEquals(dom.get(i).getRosterId(), streamed.get(i).getRosterId());
+            Assert.assertEquals(dom.get(i).getMemberType(), streamed.get(i).getMemberType());
+            Assert.assertEquals(dom.get(i).getFirstName(), streamed.get(i).getFirstName());
+            Assert.assertEquals(dom.get(i).getLastName(), streamed.get(i).getLastName());
+            Assert.assertEquals(dom.get(i).getEmail(), streamed.get(i).getEmail());
+        }
+        Assert.assertEquals(MemberType.NonMember, streamed.get(1).getMemberType());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testTruncatedExportFails() throws IOException {
+        final String truncated = EXPORT.substring(0, EXPORT.indexOf("<tr><td>12345"));
+        new RosterManagerHelper().parseRecords(
+                new ByteArrayInputStream(truncated.getBytes(StandardCharsets.UTF_8)), member -> { });
+    }
+
+    @Test
+    public void testTableRowReaderIgnoresContentOutsideRows() throws IOException {
+        final TableRowReader reader = new TableRowReader(new StringReader(
+                "<table><caption>x</caption><tr><td>1</td></tr><track/></table><p>after</p>"));
+        Assert.assertEquals("<tr><td>1</td></tr>", reader.nextRow());
+        Assert.assertNull(reader.nextRow());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.roster;
+
+import org.eaa690.aerie.model.SlackRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class SlackNameIndexTest {
+
+    private final SlackNameIndex index = SlackNameIndex.of(Arrays.asList(
+            new SlackRecord("U1", "Brian Michael", "brian"),
+            new SlackRecord("U2", "  José   O'Neil ", "jose"),
+            new SlackRecord("U3", "John Smith", "jsmith"),
+            new SlackRecord("U4", "john smith", "johnsmith"),
+            new SlackRecord("U5", "Jane Doe", "NULL"),
+            new SlackRecord("U6", null, "noname"),
+            new SlackRecord("U7", "Brian Michael", "brian")));
+
+    @Test
+    public void testMatchesNormalizedFullName() {
+        Assert.assertEquals("brian", index.match("Brian", "Michael"));
+        Assert.assertEquals("brian", index.match("BRIAN ", " michael"));
+        Assert.assertEquals("jose", index.match("Jose", "ONeil"));
+        Assert.assertEquals(3, index.getMatched());
+    }
+
+    @Test
+    public void testReportsAmbiguousNames() {
+        Assert.assertNull(index.match("John", "Smith"));
+        Assert.assertEquals(Collections.singletonList("John Smith"), index.getAmbiguousMembers());
+        Assert.assertEquals(0, index.getMatched());
+    }
+
+    @Test
+    public void testIgnoresUnusableSlackUsers() {
+        Assert.assertNull(index.match("Jane", "Doe"));
+        Assert.assertNull(index.match("Brian", null));
+        Assert.assertNull(SlackNameIndex.empty().match("Brian", "Michael"));
+        Assert.assertTrue(index.getAmbiguousMembers().isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.model.MemberEngagement;
+import org.eaa690.aerie.model.MemberEngagementRepository;
+import org.eaa690.aerie.model.MessageEngagement;
+import org.eaa690.aerie.model.MessageEngagementRepository;
+import org.eaa690.aerie.model.TrackingData;
+import org.eaa690.aerie.model.TrackingDataRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class EngagementServiceTest {
+
+    private final EngagementService engagementService = new EngagementService();
+
+    private final TrackingDataRepository trackingDataRepository = Mockito.mock(TrackingDataRepository.class);
+
+    private final MessageEngagementRepository messageEngagementRepository =
+            Mockito.mock(MessageEngagementRepository.class);
+
+    private final MemberEngagementRepository memberEngagementRepository =
+            Mockito.mock(MemberEngagementRepository.class);
+
+    @Before
+    public void setUp() {
+        engagementService.setTrackingDataRepository(trackingDataRepository);
+        engagementService.setMessageEngagementRepository(messageEngagementRepository);
+        engagementService.setMemberEngagementRepository(memberEngagementRepository);
+    }
+
+    @Test
+    public void testFirstOpensCreateAggregates() {
+        Mockito.when(trackingDataRepository.findByMessageIdIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(messageEngagementRepository.findByMessageIdIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(memberEngagementRepository.findByRosterIdIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Collections.emptyList());
+
+        engagementService.record(Arrays.asList(
+                new TrackingData(1L, 10L, new Date(2000)),
+                new TrackingData(2L, 10L, new Date(1000)),
+                new TrackingData(1L, 10L, new Date(3000)),
+                new TrackingData(1L, 11L, new Date(4000))));
+
+        final Map<Long, MessageEngagement> messages = savedMessages();
+        Assert.assertEquals(2, messages.get(10L).getUniqueOpens());
+        Assert.assertEquals(3, messages.get(10L).getOpens());
+        Assert.assertEquals(new Date(1000), messages.get(10L).getFirstOpened());
+        Assert.assertEquals(new Date(3000), messages.get(10L).getLastOpened());
+        Assert.assertEquals(1, messages.get(11L).getUniqueOpens());
+
+        final Map<Long, MemberEngagement> members = savedMembers();
+        Assert.assertEquals(2, members.get(1L).getMessagesOpened());
+        Assert.assertEquals(3, members.get(1L).getOpens());
+        Assert.assertEquals(new Date(2000), members.get(1L).getFirstOpened());
+        Assert.assertEquals(new Date(4000), members.get(1L).getLastOpened());
+        Assert.assertEquals(1, members.get(2L).getMessagesOpened());
+    }
+
+    @Test
+    public void testRepeatOpenUpdatesExistingAggregates() {
+        final MessageEngagement message = new MessageEngagement(10L);
+        message.setUniqueOpens(1);
+        message.setOpens(1);
+        message.setFirstOpened(new Date(1000));
+        message.setLastOpened(new Date(1000));
+        final MemberEngagement member = new MemberEngagement(1L);
+        member.setMessagesOpened(1);
+        member.setOpens(1);
+        member.setFirstOpened(new Date(1000));
+        member.setLastOpened(new Date(1000));
+        Mockito.when(trackingDataRepository.findByMessageIdIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Collections.singletonList(new TrackingData(1L, 10L, new Date(1000))));
+        Mockito.when(messageEngagementRepository.findByMessageIdIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Collections.singletonList(message));
+        Mockito.when(memberEngagementRepository.findByRosterIdIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Collections.singletonList(member));
+
+        engagementService.record(Collections.singletonList(new TrackingData(1L, 10L, new Date(5000))));
+
+        Assert.assertEquals(1, message.getUniqueOpens());
+        Assert.assertEquals(2, message.getOpens());
+        Assert.assertEquals(new Date(1000), message.getFirstOpened());
+        Assert.assertEquals(new Date(5000), message.getLastOpened());
+        Assert.assertEquals(1, member.getMessagesOpened());
+        Assert.assertEquals(2, member.getOpens());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, MessageEngagement> savedMessages() {
+        final ArgumentCaptor<Iterable<MessageEngagement>> saved = ArgumentCaptor.forClass(Iterable.class);
+        Mockito.verify(messageEngagementRepository).saveAll(saved.capture());
+        return toList(saved.getValue()).stream()
+                .collect(Collectors.toMap(MessageEngagement::getMessageId, Function.identity()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, MemberEngagement> savedMembers() {
+        final ArgumentCaptor<Iterable<MemberEngagement>> saved = ArgumentCaptor.forClass(Iterable.class);
+        Mockito.verify(memberEngagementRepository).saveAll(saved.capture());
+        return toList(saved.getValue()).stream()
+                .collect(Collectors.toMap(MemberEngagement::getRosterId, Function.identity()));
+    }
+
+    private static <T> List<T> toList(final Iterable<T> values) {
+        return StreamSupport.stream(values.spliterator(), false).collect(Collectors.toCollection(ArrayList::new));
+    }
+}
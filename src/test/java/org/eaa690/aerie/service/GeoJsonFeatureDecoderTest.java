@@ -0,0 +1,60 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class GeoJsonFeatureDecoderTest {
+
+    private final GeoJsonFeatureDecoder decoder =
+            new GeoJsonFeatureDecoder(new JsonFactory(), Set.of("KATL", "KPDK", "KGVL")::contains);
+
+    @Test
+    public void testDecodesServedStationsOnly() throws IOException {
+        final List<Map<String, String>> features = new ArrayList<>();
+        final int dropped;
+        try (InputStream in = getClass().getResourceAsStream("/weather/metars.json")) {
+            dropped = decoder.decode(in, props -> features.add(new HashMap<>(props)));
+        }
+
+        Assert.assertEquals(1, dropped);
+        Assert.assertEquals(2, features.size());
+        Assert.assertEquals("KATL", features.get(0).get("id"));
+        Assert.assertEquals("18.3", features.get(0).get("temp"));
+        Assert.assertEquals("10+", features.get(0).get("visib"));
+        Assert.assertEquals("KPDK", features.get(1).get("id"));
+        Assert.assertEquals("VRB", features.get(1).get("wdir"));
+        Assert.assertFalse(features.get(1).containsKey("temp"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsNonObject() throws IOException {
+        decoder.decode(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)), props -> { });
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.mail.Session;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.Properties;
+
+public class InlineAssetCacheTest {
+
+    private final InlineAssetCache cache = new InlineAssetCache();
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("letterhead", ".png");
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testInlinePart() throws Exception {
+        final MimeBodyPart part = cache.inlinePart(file.getAbsolutePath(), "image_id");
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, decode(part));
+        Assert.assertEquals("image/png", part.getDataHandler().getContentType());
+        Assert.assertEquals("image_id", part.getHeader("Content-ID")[0]);
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testReloadedWhenFileChanges() throws Exception {
+        cache.inlinePart(file.getAbsolutePath(), "image_id");
+        Files.write(file.toPath(), new byte[] {4, 5, 6, 7});
+        Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis() + 60000));
+        Thread.sleep(1100);
+        Assert.assertArrayEquals(new byte[] {4, 5, 6, 7},
+                decode(cache.inlinePart(file.getAbsolutePath(), "image_id")));
+    }
+
+    private static byte[] decode(final MimeBodyPart part) throws Exception {
+        final Session session = Session.getInstance(new Properties());
+        final MimeMessage message = new MimeMessage(session);
+        message.setContent(new MimeMultipart(part));
+        message.saveChanges();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        message.writeTo(out);
+        final MimeMessage parsed = new MimeMessage(session, new ByteArrayInputStream(out.toByteArray()));
+        try (InputStream in = ((MimeMultipart) parsed.getContent()).getBodyPart(0).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
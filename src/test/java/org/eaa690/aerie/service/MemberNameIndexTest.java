@@ -0,0 +1,154 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberData;
+import org.eaa690.aerie.model.MemberRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+public class MemberNameIndexTest {
+
+    private MemberNameIndex index;
+
+    @Before
+    public void setUp() {
+        index = new MemberNameIndex();
+        index.rebuild(Arrays.asList(
+                member(1L, "Brian", "Michael", "Bri", "Jennifer Michael"),
+                member(2L, "Jennifer", "Michael", null, "Brian Michael"),
+                member(3L, "Bryan", "Mitchell", null, null),
+                member(4L, "John", "Smith", "Johnny", null)));
+    }
+
+    @Test
+    public void testExactBeforeSpouseBeforeTypo() {
+        Assert.assertEquals(Arrays.asList(1L, 2L, 3L), rosterIds(index.search("brian", null, 10)));
+    }
+
+    @Test
+    public void testPrefixCaseInsensitive() {
+        Assert.assertEquals(Arrays.asList(1L, 3L, 2L), rosterIds(index.search(null, "MI", 10)));
+    }
+
+    @Test
+    public void testNicknameAndTypo() {
+        Assert.assertEquals(Collections.singletonList(4L), rosterIds(index.search("johny", "smyth", 10)));
+    }
+
+    @Test
+    public void testPreferredFieldRanksAboveSpouse() {
+        Assert.assertEquals(Arrays.asList(2L, 1L), rosterIds(index.search("jennifer", "michael", 10)));
+    }
+
+    @Test
+    public void testLimit() {
+        Assert.assertEquals(1, index.search(null, "mi", 1).size());
+    }
+
+    @Test
+    public void testNonPositiveLimitReturnsNothing() {
+        Assert.assertTrue(index.search(null, "mi", 0).isEmpty());
+        Assert.assertTrue(index.search(null, "mi", -1).isEmpty());
+    }
+
+    @Test
+    public void testSearchDuringUpdatesSeesConsistentIndex() throws Exception {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread writer = new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                index.update(Collections.singletonList(member(3L, "Bryan", "Mitchell" + (i++ % 2), null, null)));
+                index.rebuild(Arrays.asList(
+                        member(1L, "Brian", "Michael", "Bri", "Jennifer Michael"),
+                        member(3L, "Bryan", "Mitchell", null, null)));
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                Assert.assertEquals(1L, (long) index.search("brian", "michael", 10).get(0).getRosterId());
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    @Test
+    public void testUpdate() {
+        index.update(Collections.singletonList(member(4L, "Jon", "Smithers", null, null)));
+        Assert.assertTrue(index.search("johnny", null, 10).isEmpty());
+        Assert.assertEquals(Collections.singletonList(4L), rosterIds(index.search(null, "smithers", 10)));
+        Assert.assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testMultiWordAndHyphenatedTerms() {
+        index.update(Collections.singletonList(member(5L, "Mary Ann", "Smith-Jones", null, null)));
+
+        Assert.assertEquals(Collections.singletonList(5L), rosterIds(index.search("Mary Ann", null, 10)));
+        Assert.assertEquals(Collections.singletonList(5L), rosterIds(index.search(null, "Smith-Jones", 10)));
+        Assert.assertEquals(Collections.singletonList(5L), rosterIds(index.search("mary  ann", "smith jones", 10)));
+        Assert.assertTrue(index.search("Mary Beth", null, 10).isEmpty());
+    }
+
+    @Test
+    public void testRosterServiceLoadsEmptyIndexFromRepository() {
+        final MemberRepository memberRepository = Mockito.mock(MemberRepository.class);
+        Mockito.when(memberRepository.findAll())
+                .thenReturn(Optional.of(Collections.singletonList(member(6L, "Amelia", "Earhart", null, null))));
+        final RosterService rosterService = new RosterService();
+        rosterService.setMemberNameIndex(new MemberNameIndex());
+        rosterService.setMemberRepository(memberRepository);
+
+        Assert.assertEquals(Collections.singletonList(6L), rosterIds(rosterService.findByName("amelia", null, 10)));
+        Assert.assertEquals(Collections.singletonList(6L), rosterIds(rosterService.findByName(null, "earhart", 10)));
+        Mockito.verify(memberRepository, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    public void testWithinDistance() {
+        Assert.assertTrue(MemberNameIndex.withinDistance("michael", "micheal", 2));
+        Assert.assertFalse(MemberNameIndex.withinDistance("michael", "mitchell", 1));
+    }
+
+    private static List<Long> rosterIds(final List<MemberData> results) {
+        return results.stream().map(MemberData::getRosterId).collect(Collectors.toList());
+    }
+
+    private static Member member(final Long rosterId, final String firstName, final String lastName,
+                                 final String nickname, final String spouse) {
+        final Member member = new Member();
+        member.setRosterId(rosterId);
+        member.setFirstName(firstName);
+        member.setLastName(lastName);
+        member.setNickname(nickname);
+        member.setSpouse(spouse);
+        return member;
+    }
+}
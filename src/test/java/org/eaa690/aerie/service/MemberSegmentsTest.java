@@ -0,0 +1,79 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.roster.MemberType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class MemberSegmentsTest {
+
+    @Test
+    public void testRebuild() {
+        final MemberSegments segments = new MemberSegments();
+        final Member current = member(1L, MemberType.Regular, 100);
+        current.setEaaExpiration(Date.from(Instant.now().plus(1, ChronoUnit.DAYS)));
+        current.setJoined(Date.from(Instant.now().minus(10, ChronoUnit.DAYS)));
+        final Member expiring = member(2L, MemberType.Family, 10);
+        final Member expired = member(3L, MemberType.Student, -10);
+        final Member lifetime = member(4L, MemberType.Lifetime, -1000);
+        segments.rebuild(Arrays.asList(expired, lifetime, expiring, current));
+
+        final List<Member> currentMembers = segments.getMembers(MemberSegments.Segment.CURRENT);
+        Assert.assertEquals(Arrays.asList(current, expiring, lifetime), currentMembers);
+        Assert.assertEquals(Arrays.asList(expiring, expired), segments.getMembers(MemberSegments.Segment.EXPIRING));
+        Assert.assertEquals(Arrays.asList(expired), segments.getMembers(MemberSegments.Segment.EXPIRED));
+        Assert.assertEquals(Arrays.asList(expiring), segments.getMembers(MemberSegments.Segment.NON_NATIONAL));
+        Assert.assertEquals(Arrays.asList(current), segments.getMembers(MemberSegments.Segment.NEW_PAST_MONTH));
+        Assert.assertEquals(Arrays.asList(current), segments.getMembers(MemberSegments.Segment.NEW_PAST_YEAR));
+    }
+
+    @Test
+    public void testUpdateReplacesSnapshotMember() {
+        final MemberSegments segments = new MemberSegments();
+        final Member expiring = member(2L, MemberType.Family, 10);
+        expiring.setEmailEnabled(Boolean.TRUE);
+        segments.rebuild(Arrays.asList(member(1L, MemberType.Regular, 100), expiring));
+
+        final Member saved = member(2L, MemberType.Family, 10);
+        saved.setEmailEnabled(Boolean.FALSE);
+        saved.setRfid("0123");
+        segments.update(saved);
+        segments.update(member(3L, MemberType.Regular, 10));
+
+        final List<Member> expiringMembers = segments.getMembers(MemberSegments.Segment.EXPIRING);
+        Assert.assertEquals(1, expiringMembers.size());
+        Assert.assertSame(saved, expiringMembers.get(0));
+        Assert.assertEquals(2, segments.getMembers(MemberSegments.Segment.CURRENT).size());
+    }
+
+    private static Member member(final Long id, final MemberType type, final int expiresInDays) {
+        final Member member = new Member();
+        member.setId(id);
+        member.setRosterId(id);
+        member.setMemberType(type);
+        member.setExpiration(Date.from(Instant.now().plus(expiresInDays, ChronoUnit.DAYS)));
+        return member;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MembershipReport;
+import org.eaa690.aerie.model.roster.MemberType;
+import org.eaa690.aerie.model.roster.Status;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+public class MembershipReportEngineTest {
+
+    @Test
+    public void testRebuild() {
+        final MembershipReportEngine engine = new MembershipReportEngine();
+        engine.rebuild(Arrays.asList(
+                member(1L, MemberType.Regular, 100, null),
+                member(2L, MemberType.Regular, 10, null),
+                member(3L, MemberType.Family, -10, 3L),
+                member(4L, MemberType.Family, 200, 2L),
+                member(5L, MemberType.Lifetime, 0, null)));
+        final MembershipReport report = engine.getReport();
+        Assert.assertEquals(Long.valueOf(2), report.getRegularMemberCount());
+        Assert.assertEquals(Long.valueOf(1), report.getRegularMemberWillExpire30DaysCount());
+        Assert.assertEquals(Long.valueOf(1), report.getFamilyMembershipCount());
+        Assert.assertEquals(Long.valueOf(2), report.getFamilyMemberCount());
+        Assert.assertEquals(Long.valueOf(1), report.getFamilyMembershipExpiredCount());
+        Assert.assertEquals(Long.valueOf(3), report.getFamilyMemberExpiredCount());
+        Assert.assertEquals(Long.valueOf(1), report.getLifetimeMemberCount());
+    }
+
+    @Test
+    public void testApplyChangedMember() {
+        final MembershipReportEngine engine = new MembershipReportEngine();
+        engine.rebuild(Collections.singletonList(member(1L, MemberType.Regular, -5, null)));
+        Assert.assertEquals(Long.valueOf(1), engine.getReport().getRegularMemberExpiredCount());
+
+        engine.apply(Collections.singletonList(member(1L, MemberType.Regular, 300, null)));
+        final MembershipReport report = engine.getReport();
+        Assert.assertEquals(Long.valueOf(0), report.getRegularMemberExpiredCount());
+        Assert.assertEquals(Long.valueOf(1), report.getRegularMemberCount());
+    }
+
+    private static Member member(final Long rosterId, final MemberType type, final int expiresInDays,
+                                 final Long numOfFamily) {
+        final Member member = new Member();
+        member.setRosterId(rosterId);
+        member.setMemberType(type);
+        member.setStatus(Status.ACTIVE);
+        member.setNumOfFamily(numOfFamily);
+        member.setExpiration(Date.from(Instant.now().plus(expiresInDays, ChronoUnit.DAYS)));
+        return member;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.awaitility.Awaitility;
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.WeatherIngestSummary;
+import org.eaa690.aerie.model.WeatherProduct;
+import org.eaa690.aerie.model.WeatherProductRepository;
+import org.eaa690.aerie.model.wx.METAR;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class MetarStoreTest {
+
+    private final MetarStore metarStore = new MetarStore();
+
+    private final WeatherProductRepository weatherProductRepository = Mockito.mock(WeatherProductRepository.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void setUp() throws Exception {
+        final WeatherProduct persisted = new WeatherProduct();
+        persisted.setKey(CommonConstants.METAR_KEY + "KATL");
+        persisted.setValue(objectMapper.writeValueAsString(metar("KATL", "KATL 171152Z 27005KT")));
+        final WeatherProduct corrupt = new WeatherProduct();
+        corrupt.setKey(CommonConstants.METAR_KEY + "KPDK");
+        corrupt.setValue("{");
+        Mockito.when(weatherProductRepository.findByKeyStartingWith(CommonConstants.METAR_KEY))
+                .thenReturn(Arrays.asList(persisted, corrupt));
+        metarStore.setWeatherProductRepository(weatherProductRepository);
+        metarStore.setObjectMapper(objectMapper);
+        metarStore.init();
+    }
+
+    @After
+    public void tearDown() {
+        metarStore.shutdown();
+    }
+
+    @Test
+    public void testRestoresPersistedMetars() {
+        Assert.assertEquals("KATL 171152Z 27005KT", metarStore.get("KATL").get().getRawText());
+        Assert.assertFalse(metarStore.get("KPDK").isPresent());
+    }
+
+    @Test
+    public void testPublishReplacesSnapshot() {
+        final Map<String, METAR> before = metarStore.all();
+
+        final WeatherIngestSummary summary = new WeatherIngestSummary("METAR");
+        metarStore.publish(Arrays.asList(metar("KATL", "KATL 171252Z 28006KT"), metar("KPDK", "KPDK 171253Z")),
+                summary);
+
+        Assert.assertEquals("KATL 171152Z 27005KT", before.get("KATL").getRawText());
+        Assert.assertEquals(1, before.size());
+        Assert.assertEquals("KATL 171252Z 28006KT", metarStore.get("KATL").get().getRawText());
+        Assert.assertEquals(2, metarStore.all().size());
+        Assert.assertEquals(1, summary.getAdded());
+        Assert.assertEquals(1, summary.getChanged());
+        Mockito.verify(weatherProductRepository, Mockito.timeout(1000)).saveAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testUnchangedObservationsAreSkipped() {
+        final Map<String, METAR> before = metarStore.all();
+        final WeatherIngestSummary summary = new WeatherIngestSummary("METAR");
+
+        metarStore.publish(Collections.singletonList(metar("KATL", "KATL 171152Z 27005KT")), summary);
+
+        Assert.assertSame(before, metarStore.all());
+        Assert.assertEquals(0, summary.getAdded());
+        Assert.assertEquals(0, summary.getChanged());
+        Assert.assertEquals(1, summary.getUnchanged());
+        Mockito.verify(weatherProductRepository, Mockito.after(100).never()).saveAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPersistUpdatesExistingRows() throws Exception {
+        final WeatherProduct existing = new WeatherProduct();
+        existing.setKey(CommonConstants.METAR_KEY + "KATL");
+        existing.setValue("{}");
+        Mockito.when(weatherProductRepository.findByKeyIn(ArgumentMatchers.anyCollection()))
+                .thenReturn(Collections.singletonList(existing));
+
+        metarStore.persist(Arrays.asList(metar("KATL", "KATL 171252Z"), metar("KLZU", "KLZU 171253Z")));
+
+        final ArgumentCaptor<Iterable<WeatherProduct>> saved = ArgumentCaptor.forClass(Iterable.class);
+        Mockito.verify(weatherProductRepository).saveAll(saved.capture());
+        final List<WeatherProduct> products = new ArrayList<>();
+        saved.getValue().forEach(products::add);
+        Assert.assertEquals(2, products.size());
+        Assert.assertSame(existing, products.get(0));
+        Assert.assertEquals("KATL 171252Z", objectMapper.readValue(existing.getValue(), METAR.class).getRawText());
+        Assert.assertEquals(CommonConstants.METAR_KEY + "KLZU", products.get(1).getKey());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailedWriteIsRetriedOnNextPublish() {
+        Mockito.when(weatherProductRepository.saveAll(ArgumentMatchers.any()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(Collections.emptyList());
+
+        metarStore.publish(Collections.singletonList(metar("KPDK", "KPDK 171253Z")),
+                new WeatherIngestSummary("METAR"));
+        Mockito.verify(weatherProductRepository, Mockito.timeout(1000)).saveAll(ArgumentMatchers.any());
+        Awaitility.await().atMost(Duration.ofSeconds(1)).until(() -> metarStore.unpersistedCount() == 1);
+
+        final WeatherIngestSummary summary = new WeatherIngestSummary("METAR");
+        metarStore.publish(Collections.singletonList(metar("KPDK", "KPDK 171253Z")), summary);
+
+        Assert.assertEquals(1, summary.getUnchanged());
+        final ArgumentCaptor<Iterable<WeatherProduct>> saved = ArgumentCaptor.forClass(Iterable.class);
+        Mockito.verify(weatherProductRepository, Mockito.timeout(1000).times(2)).saveAll(saved.capture());
+        final List<WeatherProduct> products = new ArrayList<>();
+        saved.getValue().forEach(products::add);
+        Assert.assertEquals(1, products.size());
+        Assert.assertEquals(CommonConstants.METAR_KEY + "KPDK", products.get(0).getKey());
+        Awaitility.await().atMost(Duration.ofSeconds(1)).until(() -> metarStore.unpersistedCount() == 0);
+    }
+
+    private static METAR metar(final String icao, final String rawText) {
+        final METAR metar = new METAR();
+        metar.setIcao(icao);
+        metar.setRawText(rawText);
+        metar.setObserved("2026-10-17T" + rawText.substring(7, 9) + ":" + rawText.substring(9, 11) + ":00Z");
+        return metar;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.config.MembershipProperties;
+import org.eaa690.aerie.config.OutboxProperties;
+import org.eaa690.aerie.model.Message;
+import org.eaa690.aerie.model.MessageRepository;
+import org.eaa690.aerie.model.MessageStatus;
+import org.eaa690.aerie.model.MessageType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class OutboxServiceTest {
+
+    private final OutboxService outboxService = new OutboxService();
+
+    private final OutboxProperties outboxProperties = new OutboxProperties();
+
+    private final MessageRepository messageRepository = Mockito.mock(MessageRepository.class);
+
+    private final EmailService emailService = Mockito.mock(EmailService.class);
+
+    private final SlackService slackService = Mockito.mock(SlackService.class);
+
+    @Before
+    public void setUp() {
+        outboxProperties.setMaxAttempts(2);
+        outboxService.setOutboxProperties(outboxProperties);
+        outboxService.setMembershipProperties(new MembershipProperties());
+        outboxService.setMessageRepository(messageRepository);
+        outboxService.setEmailService(emailService);
+        outboxService.setSlackService(slackService);
+        Mockito.when(emailService.isEnabled()).thenReturn(true);
+        Mockito.when(slackService.isEnabled()).thenReturn(true);
+        Mockito.when(messageRepository.saveAll(Mockito.any())).thenAnswer(i -> i.getArgument(0));
+    }
+
+    @Test
+    public void testEnqueueMarksMessagesPending() {
+        final Message message = new Message().channel(MessageType.Email).to("one@example.com");
+        message.setAttempts(3);
+
+        final List<Message> queued = outboxService.enqueue(Collections.singletonList(message));
+
+        Assert.assertEquals(1, queued.size());
+        Assert.assertEquals(MessageStatus.PENDING, message.getStatus());
+        Assert.assertEquals(0, message.getAttempts());
+        Assert.assertNotNull(message.getNextAttemptAt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEnqueueRequiresChannel() {
+        outboxService.enqueue(Collections.singletonList(new Message().to("one@example.com")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProcessBatchRecordsOutcomes() {
+        final Message delivered = message(1L, MessageType.Email, 0);
+        final Message retried = message(2L, MessageType.Slack, 0);
+        final Message abandoned = message(3L, MessageType.Slack, 1);
+        claim(delivered, retried, abandoned);
+        Mockito.when(emailService.deliverEmailMessage(Mockito.eq(delivered), Mockito.any(), Mockito.any()))
+                .thenReturn(true);
+        Mockito.when(slackService.deliverSlackMessage(retried)).thenReturn(false);
+        Mockito.when(slackService.deliverSlackMessage(abandoned)).thenThrow(new IllegalStateException("boom"));
+
+        Assert.assertEquals(3, outboxService.processBatch());
+
+        final ArgumentCaptor<Collection<Long>> sent = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(messageRepository).markSent(sent.capture(), Mockito.any(Instant.class));
+        Assert.assertEquals(Collections.singletonList(1L), sent.getValue());
+        Mockito.verify(messageRepository).saveAll(Arrays.asList(retried, abandoned));
+        Assert.assertEquals(MessageStatus.PENDING, retried.getStatus());
+        Assert.assertEquals(1, retried.getAttempts());
+        Assert.assertTrue(retried.getNextAttemptAt().isAfter(Instant.now()));
+        Assert.assertNull(retried.getLeaseOwner());
+        Assert.assertEquals(MessageStatus.FAILED, abandoned.getStatus());
+        Assert.assertEquals(2, abandoned.getAttempts());
+        Assert.assertEquals("boom", abandoned.getLastError());
+    }
+
+    @Test
+    public void testProcessBatchSkipsMessagesClaimedElsewhere() {
+        Mockito.when(messageRepository.findClaimable(Mockito.any(Instant.class), Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.singletonList(1L));
+        Mockito.when(messageRepository.claim(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(0);
+
+        Assert.assertEquals(0, outboxService.processBatch());
+
+        Mockito.verify(messageRepository, Mockito.never()).findByLeaseOwnerAndStatus(Mockito.any(), Mockito.any());
+        Mockito.verify(emailService, Mockito.never()).deliverEmailMessage(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verify(slackService, Mockito.never()).deliverSlackMessage(Mockito.any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDisabledChannelIsNotClaimed() {
+        Mockito.when(slackService.isEnabled()).thenReturn(false);
+        final Message delivered = message(1L, MessageType.Email, 0);
+        claim(delivered);
+        Mockito.when(emailService.deliverEmailMessage(Mockito.eq(delivered), Mockito.any(), Mockito.any()))
+                .thenReturn(true);
+
+        Assert.assertEquals(1, outboxService.processBatch());
+
+        final ArgumentCaptor<Collection<MessageType>> channels = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(messageRepository).findClaimable(Mockito.any(Instant.class), channels.capture(),
+                Mockito.any(Pageable.class));
+        Assert.assertEquals(Collections.singletonList(MessageType.Email), channels.getValue());
+    }
+
+    @Test
+    public void testNothingClaimedWhileAllChannelsDisabled() {
+        Mockito.when(emailService.isEnabled()).thenReturn(false);
+        Mockito.when(slackService.isEnabled()).thenReturn(false);
+
+        Assert.assertEquals(0, outboxService.processBatch());
+
+        Mockito.verify(messageRepository, Mockito.never())
+                .findClaimable(Mockito.any(Instant.class), Mockito.any(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    public void testChannelDisabledAfterClaimKeepsAttempts() {
+        final Message message = message(1L, MessageType.Slack, 1);
+        claim(message);
+        Mockito.when(slackService.isEnabled()).thenReturn(true, false);
+
+        Assert.assertEquals(1, outboxService.processBatch());
+
+        Mockito.verify(slackService, Mockito.never()).deliverSlackMessage(Mockito.any());
+        Mockito.verify(messageRepository).saveAll(Collections.singletonList(message));
+        Assert.assertEquals(MessageStatus.PENDING, message.getStatus());
+        Assert.assertEquals(1, message.getAttempts());
+        Assert.assertNull(message.getLeaseOwner());
+    }
+
+    private void claim(final Message... messages) {
+        Mockito.when(messageRepository.findClaimable(Mockito.any(Instant.class), Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(Arrays.asList(1L, 2L, 3L));
+        Mockito.when(messageRepository.claim(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(messages.length);
+        Mockito.when(messageRepository.findByLeaseOwnerAndStatus(Mockito.any(), Mockito.eq(MessageStatus.SENDING)))
+                .thenReturn(Optional.of(Arrays.asList(messages)));
+    }
+
+    private static Message message(final Long id, final MessageType channel, final int attempts) {
+        final Message message = new Message().channel(channel).status(MessageStatus.SENDING).to("someone");
+        message.setId(id);
+        message.setAttempts(attempts);
+        message.setLeaseOwner("worker");
+        return message;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.config.DispatchProperties;
+import org.eaa690.aerie.config.MembershipProperties;
+import org.eaa690.aerie.model.DispatchStageStats;
+import org.eaa690.aerie.model.DispatchSummary;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.Message;
+import org.eaa690.aerie.model.MessageRepository;
+import org.eaa690.aerie.model.MessageStatus;
+import org.eaa690.aerie.model.MessageType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class RenewalDispatcherTest {
+
+    private final RenewalDispatcher dispatcher = new RenewalDispatcher();
+
+    private final JotFormService jotFormService = Mockito.mock(JotFormService.class);
+
+    private final EmailService emailService = Mockito.mock(EmailService.class);
+
+    private final SlackService slackService = Mockito.mock(SlackService.class);
+
+    private final OutboxService outboxService = Mockito.mock(OutboxService.class);
+
+    private final MessageRepository messageRepository = Mockito.mock(MessageRepository.class);
+
+    private final TrackingService trackingService = Mockito.mock(TrackingService.class);
+
+    @Before
+    public void setUp() {
+        final DispatchProperties dispatchProperties = new DispatchProperties();
+        dispatchProperties.setBackoffMillis(1);
+        dispatchProperties.setEmailPerSecond(1000);
+        Mockito.when(messageRepository.save(Mockito.any(Message.class))).thenAnswer(i -> i.getArgument(0));
+        final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(new StringTemplateResolver());
+        dispatcher.setDispatchProperties(dispatchProperties);
+        dispatcher.setMembershipProperties(new MembershipProperties());
+        dispatcher.setMessageRepository(messageRepository);
+        dispatcher.setTemplateEngine(templateEngine);
+        dispatcher.setTrackingService(trackingService);
+        Mockito.when(emailService.isEnabled()).thenReturn(true);
+        Mockito.when(emailService.sendEmailMessage(Mockito.any(Message.class), Mockito.any(), Mockito.any()))
+                .thenReturn(true);
+        Mockito.when(slackService.isEnabled()).thenReturn(true);
+        Mockito.when(slackService.sendSlackMessageAsync(Mockito.any(Message.class)))
+                .thenReturn(CompletableFuture.completedFuture(true));
+        dispatcher.setJotFormService(jotFormService);
+        dispatcher.setEmailService(emailService);
+        dispatcher.setSlackService(slackService);
+        dispatcher.setOutboxService(outboxService);
+        dispatcher.init();
+    }
+
+    @After
+    public void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void testDispatchRetriesAndReportsFailures() {
+        final Member retried = member(1L, "one@example.com", "one");
+        final Member failed = member(2L, "two@example.com", null);
+        final Member emailOnly = member(3L, "three@example.com", null);
+        Mockito.when(jotFormService.buildRenewMembershipUrl(retried)).thenReturn(null).thenReturn("https://tiny/1");
+        Mockito.when(jotFormService.buildRenewMembershipUrl(failed)).thenReturn(null);
+        Mockito.when(jotFormService.buildRenewMembershipUrl(emailOnly)).thenReturn("https://tiny/3");
+
+        final DispatchSummary summary = dispatcher.dispatch(Arrays.asList(retried, failed, emailOnly));
+
+        Assert.assertEquals(3, summary.getMembers());
+        Assert.assertEquals(2, summary.getDelivered());
+        Assert.assertEquals(1, summary.getFailed());
+        final Map<String, DispatchStageStats> stages = summary.getStages().stream()
+                .collect(Collectors.toMap(DispatchStageStats::getStage, Function.identity()));
+        Assert.assertEquals(2, stages.get("SHORTEN").getSucceeded());
+        Assert.assertEquals(1, stages.get("SHORTEN").getFailed());
+        Assert.assertEquals(3, stages.get("SHORTEN").getRetried());
+        Assert.assertEquals(2, stages.get("EMAIL").getSucceeded());
+        Assert.assertEquals(1, stages.get("SLACK").getSucceeded());
+        Mockito.verify(emailService, Mockito.times(2))
+                .sendEmailMessage(Mockito.any(Message.class), Mockito.any(), Mockito.any());
+        Mockito.verify(slackService).sendSlackMessageAsync(Mockito.any(Message.class));
+        Mockito.verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDispatchQueuesUndeliveredMessages() {
+        final Member member = member(1L, "one@example.com", "one");
+        Mockito.when(jotFormService.buildRenewMembershipUrl(member)).thenReturn("https://tiny/1");
+        Mockito.when(emailService.sendEmailMessage(Mockito.any(Message.class), Mockito.any(), Mockito.any()))
+                .thenReturn(false);
+
+        final DispatchSummary summary = dispatcher.dispatch(Collections.singletonList(member));
+
+        Assert.assertEquals(0, summary.getDelivered());
+        Assert.assertEquals(1, summary.getQueued());
+        Assert.assertEquals(0, summary.getFailed());
+        Mockito.verify(slackService).sendSlackMessageAsync(Mockito.any(Message.class));
+        final ArgumentCaptor<Message> attempted = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(emailService, Mockito.atLeastOnce())
+                .sendEmailMessage(attempted.capture(), Mockito.any(), Mockito.any());
+        final ArgumentCaptor<List<Message>> queued = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(outboxService).enqueue(queued.capture());
+        Assert.assertSame(attempted.getValue(), queued.getValue().get(0));
+        Assert.assertEquals(MessageType.Email, queued.getValue().get(0).getChannel());
+        Assert.assertEquals("one@example.com", queued.getValue().get(0).getTo());
+    }
+
+    @Test
+    public void testRenderRetryRecordsMessageOnce() {
+        final Member member = member(1L, "one@example.com", null);
+        Mockito.when(jotFormService.buildRenewMembershipUrl(member)).thenReturn("https://tiny/1");
+        Mockito.when(trackingService.generateTrackingLink(Mockito.any(), Mockito.any()))
+                .thenThrow(new IllegalStateException("template unavailable"))
+                .thenReturn("https://track/1");
+
+        final DispatchSummary summary = dispatcher.dispatch(Collections.singletonList(member));
+
+        Assert.assertEquals(1, summary.getDelivered());
+        Mockito.verify(messageRepository, Mockito.times(1)).save(Mockito.any(Message.class));
+    }
+
+    @Test
+    public void testSlackOnlyMemberIsSentAsRecordedMessage() {
+        final Member member = member(1L, null, "one");
+        Mockito.when(jotFormService.buildRenewMembershipUrl(member)).thenReturn("https://tiny/1");
+
+        final DispatchSummary summary = dispatcher.dispatch(Collections.singletonList(member));
+
+        Assert.assertEquals(1, summary.getDelivered());
+        final ArgumentCaptor<Message> recorded = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(messageRepository).save(recorded.capture());
+        Assert.assertEquals(MessageStatus.PENDING, recorded.getValue().getStatus());
+        Assert.assertNull(recorded.getValue().getSent());
+        final ArgumentCaptor<Message> posted = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(slackService).sendSlackMessageAsync(posted.capture());
+        Assert.assertSame(recorded.getValue(), posted.getValue());
+        Assert.assertEquals(MessageType.Slack, posted.getValue().getChannel());
+        Assert.assertEquals("one", posted.getValue().getTo());
+        Mockito.verify(messageRepository, Mockito.never()).delete(Mockito.any(Message.class));
+    }
+
+    @Test
+    public void testDisabledEmailIsNotCountedAsDelivered() {
+        Mockito.when(emailService.isEnabled()).thenReturn(false);
+        final Member both = member(1L, "one@example.com", "one");
+        final Member emailOnly = member(2L, "two@example.com", null);
+        Mockito.when(jotFormService.buildRenewMembershipUrl(Mockito.any(Member.class))).thenReturn("https://tiny/1");
+
+        final DispatchSummary summary = dispatcher.dispatch(Arrays.asList(both, emailOnly));
+
+        Assert.assertEquals(1, summary.getDelivered());
+        Assert.assertEquals(1, summary.getSkipped());
+        Mockito.verify(emailService, Mockito.never())
+                .sendEmailMessage(Mockito.any(Message.class), Mockito.any(), Mockito.any());
+        final ArgumentCaptor<Message> posted = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(slackService).sendSlackMessageAsync(posted.capture());
+        Assert.assertEquals(MessageType.Slack, posted.getValue().getChannel());
+        Mockito.verify(messageRepository, Mockito.times(2)).save(Mockito.any(Message.class));
+        Mockito.verify(messageRepository).delete(Mockito.any(Message.class));
+        Mockito.verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    public void testFailedRenderRemovesRecordedMessage() {
+        final Member member = member(1L, "one@example.com", null);
+        Mockito.when(jotFormService.buildRenewMembershipUrl(member)).thenReturn("https://tiny/1");
+        Mockito.when(trackingService.generateTrackingLink(Mockito.any(), Mockito.any()))
+                .thenThrow(new IllegalStateException("template unavailable"));
+
+        final DispatchSummary summary = dispatcher.dispatch(Collections.singletonList(member));
+
+        Assert.assertEquals(1, summary.getFailed());
+        final ArgumentCaptor<Message> recorded = ArgumentCaptor.forClass(Message.class);
+        Mockito.verify(messageRepository).save(recorded.capture());
+        Mockito.verify(messageRepository).delete(recorded.getValue());
+        Mockito.verifyNoInteractions(outboxService);
+    }
+
+    private static Member member(final Long rosterId, final String email, final String slack) {
+        final Member member = new Member();
+        member.setRosterId(rosterId);
+        member.setEmail(email);
+        member.setSlack(slack);
+        member.setExpiration(new Date());
+        return member;
+    }
+}
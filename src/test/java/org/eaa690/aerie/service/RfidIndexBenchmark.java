@@ -0,0 +1,91 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.model.FindByRFIDResponse;
+import org.eaa690.aerie.model.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RFID lookup latency under concurrent readers.  SampleTime mode reports p50/p90/p99/p99.9 per lookup.
+ *
+ * Run from the test classpath (mvn dependency:build-classpath -Dmdep.includeScope=test), e.g.
+ * java -cp target/test-classes:target/classes:$CP org.eaa690.aerie.service.RfidIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RfidIndexBenchmark {
+
+    private static final int MEMBERS = 2_000;
+
+    private final RfidIndex rfidIndex = new RfidIndex();
+
+    private final List<String> rfids = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final List<Member> members = new ArrayList<>();
+        for (long i = 0; i < MEMBERS; i++) {
+            final Member member = new Member();
+            member.setId(i);
+            member.setRosterId(10_000 + i);
+            member.setRfid(String.format("%014X", i * 7919));
+            members.add(member);
+            rfids.add(member.getRfid());
+        }
+        rfidIndex.rebuild(members);
+    }
+
+    @Benchmark
+    public Optional<FindByRFIDResponse> lookupHit() {
+        return rfidIndex.find(rfids.get(ThreadLocalRandom.current().nextInt(MEMBERS)));
+    }
+
+    @Benchmark
+    public Optional<FindByRFIDResponse> lookupMiss() {
+        return rfidIndex.find("UNKNOWN" + ThreadLocalRandom.current().nextInt(MEMBERS));
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RfidIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.exception.ResourceNotFoundException;
+import org.eaa690.aerie.model.FindByRFIDResponse;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberRepository;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+public class RfidIndexTest {
+
+    private final RfidIndex index = new RfidIndex();
+
+    @Before
+    public void setUp() {
+        index.rebuild(Arrays.asList(member(1L, 100L, "ABC123"), member(2L, 200L, " DEF456 "), member(3L, 300L, null)));
+    }
+
+    @Test
+    public void testFindsIndexedMembers() {
+        Assert.assertEquals(2, index.size());
+        final FindByRFIDResponse found = index.find("ABC123").get();
+        Assert.assertEquals(Long.valueOf(1L), found.getId());
+        Assert.assertEquals(Long.valueOf(100L), found.getRosterId());
+        Assert.assertEquals(Boolean.FALSE, found.getAdmin());
+        Assert.assertEquals(Long.valueOf(2L), index.find("DEF456 ").get().getId());
+    }
+
+    @Test
+    public void testMisses() {
+        Assert.assertFalse(index.find("XYZ789").isPresent());
+        Assert.assertFalse(index.find(" ").isPresent());
+        Assert.assertFalse(index.find(null).isPresent());
+    }
+
+    @Test
+    public void testUpdateMovesRfid() {
+        final Member member = member(1L, 100L, "GHI789");
+
+        index.update(member, "ABC123");
+
+        Assert.assertFalse(index.find("ABC123").isPresent());
+        Assert.assertEquals(Long.valueOf(1L), index.find("GHI789").get().getId());
+        Assert.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testRebuildReplacesEntries() {
+        index.rebuild(Collections.singletonList(member(4L, 400L, "JKL012")));
+
+        Assert.assertEquals(1, index.size());
+        Assert.assertFalse(index.find("ABC123").isPresent());
+        Assert.assertEquals(Long.valueOf(4L), index.find("JKL012").get().getId());
+    }
+
+    @Test
+    public void testResponsesDoNotShareIndexedState() {
+        final FindByRFIDResponse found = index.find("ABC123").get();
+        found.setId(99L);
+        found.setAdmin(Boolean.TRUE);
+
+        final FindByRFIDResponse again = index.find("ABC123").get();
+        Assert.assertNotSame(found, again);
+        Assert.assertEquals(Long.valueOf(1L), again.getId());
+        Assert.assertEquals(Boolean.FALSE, again.getAdmin());
+    }
+
+    @Test
+    public void testRosterServiceFallsBackToRepositoryOnMiss() throws ResourceNotFoundException {
+        final MemberRepository memberRepository = Mockito.mock(MemberRepository.class);
+        Mockito.when(memberRepository.findByRfid("XYZ789")).thenReturn(Optional.of(member(5L, 500L, "XYZ789")));
+        Mockito.when(memberRepository.findByRfid("NONE")).thenReturn(Optional.empty());
+        final RosterService rosterService = new RosterService();
+        rosterService.setRfidIndex(index);
+        rosterService.setMemberRepository(memberRepository);
+
+        Assert.assertEquals(Long.valueOf(1L), rosterService.findByRFID("ABC123").getId());
+        Mockito.verify(memberRepository, Mockito.never()).findByRfid("ABC123");
+        Assert.assertEquals(Long.valueOf(5L), rosterService.findByRFID("XYZ789").getId());
+        Assert.assertEquals(Long.valueOf(500L), index.find("XYZ789").get().getRosterId());
+        try {
+            rosterService.findByRFID("NONE");
+            Assert.fail("expected no member to match");
+        } catch (ResourceNotFoundException e) {
+            Assert.assertTrue(e.getMessage().contains("NONE"));
+        }
+    }
+
+    private static Member member(final Long id, final Long rosterId, final String rfid) {
+        final Member member = new Member();
+        member.setId(id);
+        member.setRosterId(rosterId);
+        member.setRfid(rfid);
+        return member;
+    }
+}
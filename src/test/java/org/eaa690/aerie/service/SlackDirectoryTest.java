@@ -0,0 +1,119 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.ullink.slack.simpleslackapi.SlackSession;
+import com.ullink.slack.simpleslackapi.SlackUser;
+import org.eaa690.aerie.config.SlackProperties;
+import org.eaa690.aerie.model.SlackDirectoryStats;
+import org.eaa690.aerie.model.SlackRecord;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class SlackDirectoryTest {
+
+    private final SlackDirectory slackDirectory = new SlackDirectory();
+
+    private final SlackSession slackSession = Mockito.mock(SlackSession.class);
+
+    @Before
+    public void setUp() {
+        final List<SlackUser> users = Arrays.asList(
+                user("U1", "brian", "Brian Michael"),
+                user("U2", "bmichael2", "Brian  michael"),
+                user("U3", "jen", "Jennifer Michael"));
+        Mockito.when(slackSession.getUsers()).thenReturn(users);
+        slackDirectory.setSlackProperties(new SlackProperties());
+        slackDirectory.setSlackSession(slackSession);
+        slackDirectory.init();
+    }
+
+    @Test
+    public void testIndexes() {
+        Assert.assertEquals(3, slackDirectory.size());
+        Assert.assertEquals(Arrays.asList("bmichael2", "brian", "jen"),
+                slackDirectory.all().stream().map(SlackRecord::getUser).collect(Collectors.toList()));
+        Assert.assertEquals("U1", slackDirectory.findByUsername("Brian").get().getId());
+        Assert.assertEquals("jen", slackDirectory.findById("u3").get().getUser());
+        Assert.assertEquals(2, slackDirectory.findByRealName("brian michael").size());
+        Assert.assertTrue(slackDirectory.findByRealName("Nobody").isEmpty());
+        Assert.assertFalse(slackDirectory.findByUsername(null).isPresent());
+    }
+
+    @Test
+    public void testAfterPagesByUsername() {
+        Assert.assertEquals(Arrays.asList("bmichael2", "brian"),
+                slackDirectory.after(null, 2).stream().map(SlackRecord::getUser).collect(Collectors.toList()));
+        Assert.assertEquals(Collections.singletonList("jen"),
+                slackDirectory.after("Brian", 2).stream().map(SlackRecord::getUser).collect(Collectors.toList()));
+        Assert.assertEquals(Collections.singletonList("jen"),
+                slackDirectory.after("c", 5).stream().map(SlackRecord::getUser).collect(Collectors.toList()));
+        Assert.assertTrue(slackDirectory.after("jen", 2).isEmpty());
+    }
+
+    @Test
+    public void testAppliesUserEvents() {
+        slackDirectory.apply(user("U3", "jenny", "Jennifer Michael"));
+        slackDirectory.apply(user("U4", "billy", "Billy Michael"));
+
+        Assert.assertEquals(4, slackDirectory.size());
+        Assert.assertFalse(slackDirectory.findByUsername("jen").isPresent());
+        Assert.assertEquals("U3", slackDirectory.findByUsername("jenny").get().getId());
+        Assert.assertEquals("billy", slackDirectory.findById("U4").get().getUser());
+        Assert.assertEquals(2, slackDirectory.getStats().getEventUpdates());
+    }
+
+    @Test
+    public void testRefreshFailureKeepsDirectory() {
+        Mockito.doThrow(new IllegalStateException("offline")).when(slackSession).refetchUsers();
+
+        slackDirectory.refresh();
+
+        final SlackDirectoryStats stats = slackDirectory.getStats();
+        Assert.assertEquals(3, stats.getSize());
+        Assert.assertEquals(1, stats.getRefreshes());
+        Assert.assertEquals(1, stats.getRefreshFailures());
+        Assert.assertFalse(stats.isStale());
+    }
+
+    @Test
+    public void testRefreshReplacesDirectory() {
+        final List<SlackUser> users = Collections.singletonList(user("U9", "new", "New User"));
+        Mockito.when(slackSession.getUsers()).thenReturn(users);
+
+        slackDirectory.refresh();
+
+        Mockito.verify(slackSession).refetchUsers();
+        Assert.assertEquals(1, slackDirectory.size());
+        Assert.assertEquals(2, slackDirectory.getStats().getRefreshes());
+    }
+
+    private static SlackUser user(final String id, final String username, final String realName) {
+        final SlackUser user = Mockito.mock(SlackUser.class);
+        Mockito.when(user.getId()).thenReturn(id);
+        Mockito.when(user.getUserName()).thenReturn(username);
+        Mockito.when(user.getRealName()).thenReturn(realName);
+        return user;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.ullink.slack.simpleslackapi.SlackSession;
+import com.ullink.slack.simpleslackapi.SlackUser;
+import com.ullink.slack.simpleslackapi.events.userchange.SlackTeamJoin;
+import com.ullink.slack.simpleslackapi.events.userchange.SlackUserChange;
+import com.ullink.slack.simpleslackapi.listeners.SlackTeamJoinListener;
+import com.ullink.slack.simpleslackapi.listeners.SlackUserChangeListener;
+import org.eaa690.aerie.model.Member;
+import org.eaa690.aerie.model.MemberRepository;
+import org.eaa690.aerie.model.SlackRecord;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class SlackIdentityIndexTest {
+
+    private final SlackIdentityIndex index = new SlackIdentityIndex();
+
+    private final SlackService slackService = Mockito.mock(SlackService.class);
+
+    private final SlackSession slackSession = Mockito.mock(SlackSession.class);
+
+    private final MemberRepository memberRepository = Mockito.mock(MemberRepository.class);
+
+    private final Member brian = member(1L, "Brian");
+
+    private final Member jen = member(2L, "jen");
+
+    private final Member offline = member(3L, "");
+
+    @Before
+    public void setUp() {
+        final List<SlackRecord> users = Arrays.asList(
+                new SlackRecord("U1", "Brian Michael", "brian"),
+                new SlackRecord("U2", "Jennifer Michael", "JEN"),
+                new SlackRecord("U9", "Guest", "guest"));
+        Mockito.when(slackService.allSlackUsers()).thenReturn(users);
+        index.setSlackService(slackService);
+        index.setSlackSession(slackSession);
+        index.setMemberRepository(memberRepository);
+        index.init();
+        index.rebuild(Arrays.asList(brian, jen, offline));
+    }
+
+    @Test
+    public void testResolvesMembersBySlackUserId() {
+        Assert.assertEquals(2, index.size());
+        Assert.assertSame(brian, index.findBySlackUserId("U1").get());
+        Assert.assertSame(jen, index.findBySlackUserId("U2").get());
+    }
+
+    @Test
+    public void testMisses() {
+        Assert.assertFalse(index.findBySlackUserId("U9").isPresent());
+        Assert.assertFalse(index.findBySlackUserId("U404").isPresent());
+        Assert.assertFalse(index.findBySlackUserId(null).isPresent());
+    }
+
+    @Test
+    public void testLookupsIgnoreCase() {
+        Assert.assertSame(brian, index.findBySlackUserId("u1").get());
+        Assert.assertSame(jen, index.findBySlackUserId(" u2 ").get());
+    }
+
+    @Test
+    public void testRebuildReplacesIndex() {
+        Mockito.when(slackService.allSlackUsers())
+                .thenReturn(Collections.singletonList(new SlackRecord("U7", "Jennifer Michael", "jen")));
+
+        index.rebuild(Collections.singletonList(jen));
+
+        Assert.assertEquals(1, index.size());
+        Assert.assertFalse(index.findBySlackUserId("U1").isPresent());
+        Assert.assertFalse(index.findBySlackUserId("U2").isPresent());
+        Assert.assertSame(jen, index.findBySlackUserId("U7").get());
+        Mockito.verifyNoInteractions(memberRepository);
+    }
+
+    @Test
+    public void testLoadsFromRepositoryUntilFirstRebuild() {
+        Mockito.when(memberRepository.findAll()).thenReturn(Optional.of(Arrays.asList(brian, jen)));
+        final SlackIdentityIndex unsynced = new SlackIdentityIndex();
+        unsynced.setSlackService(slackService);
+        unsynced.setSlackSession(slackSession);
+        unsynced.setMemberRepository(memberRepository);
+
+        Assert.assertEquals(0, unsynced.size());
+        Assert.assertSame(brian, unsynced.findBySlackUserId("U1").get());
+        Assert.assertFalse(unsynced.findBySlackUserId("U9").isPresent());
+        Assert.assertEquals(2, unsynced.size());
+        Mockito.verify(memberRepository, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    public void testAppliesUserEvents() {
+        final ArgumentCaptor<SlackUserChangeListener> changes = ArgumentCaptor.forClass(SlackUserChangeListener.class);
+        Mockito.verify(slackSession).addSlackUserChangeListener(changes.capture());
+        final ArgumentCaptor<SlackTeamJoinListener> joins = ArgumentCaptor.forClass(SlackTeamJoinListener.class);
+        Mockito.verify(slackSession).addSlackTeamJoinListener(joins.capture());
+
+        changes.getValue().onEvent(new SlackUserChange(user("U1", "brian.m")), slackSession);
+        joins.getValue().onEvent(new SlackTeamJoin(user("U5", "Brian")), slackSession);
+
+        Assert.assertFalse(index.findBySlackUserId("U1").isPresent());
+        Assert.assertSame(brian, index.findBySlackUserId("U5").get());
+        Assert.assertSame(jen, index.findBySlackUserId("U2").get());
+    }
+
+    private static Member member(final Long id, final String slack) {
+        final Member member = new Member();
+        member.setId(id);
+        member.setSlack(slack);
+        return member;
+    }
+
+    private static SlackUser user(final String id, final String username) {
+        final SlackUser user = Mockito.mock(SlackUser.class);
+        Mockito.when(user.getId()).thenReturn(id);
+        Mockito.when(user.getUserName()).thenReturn(username);
+        return user;
+    }
+}
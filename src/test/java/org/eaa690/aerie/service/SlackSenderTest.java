@@ -0,0 +1,109 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.ullink.slack.simpleslackapi.SlackChannel;
+import com.ullink.slack.simpleslackapi.SlackMessageHandle;
+import com.ullink.slack.simpleslackapi.SlackSession;
+import com.ullink.slack.simpleslackapi.SlackUser;
+import com.ullink.slack.simpleslackapi.replies.SlackChannelReply;
+import com.ullink.slack.simpleslackapi.replies.SlackMessageReply;
+import org.eaa690.aerie.config.SlackProperties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+
+public class SlackSenderTest {
+
+    private final SlackSender slackSender = new SlackSender();
+
+    private final SlackSession slackSession = Mockito.mock(SlackSession.class);
+
+    private final SlackUser brian = Mockito.mock(SlackUser.class);
+
+    private final SlackChannel channel = Mockito.mock(SlackChannel.class);
+
+    @Before
+    public void setUp() {
+        final SlackProperties slackProperties = new SlackProperties();
+        slackProperties.setCoalesceMillis(50);
+        slackProperties.setCoalesceMaxMessages(3);
+        slackProperties.setPostMessagePerSecond(1000);
+        slackProperties.setConversationsOpenPerMinute(60_000);
+        slackSender.setSlackProperties(slackProperties);
+        slackSender.setSlackSession(slackSession);
+        slackSender.init();
+
+        Mockito.when(brian.getId()).thenReturn("U1");
+        Mockito.when(slackSession.findUserByUserName("Brian")).thenReturn(brian);
+        final SlackMessageHandle<SlackChannelReply> opened = new SlackMessageHandle<>(1);
+        opened.setReply(new SlackChannelReply(true, null, channel));
+        Mockito.when(slackSession.openDirectMessageChannel(brian)).thenReturn(opened);
+        final SlackMessageHandle<SlackMessageReply> posted = new SlackMessageHandle<>(2);
+        posted.setReply(new SlackMessageReply(true, null, 2, "1"));
+        Mockito.when(slackSession.sendMessage(Mockito.eq(channel), Mockito.anyString())).thenReturn(posted);
+    }
+
+    @After
+    public void tearDown() {
+        slackSender.shutdown();
+    }
+
+    @Test
+    public void testCoalescesMessagesToTheSameUser() {
+        final CompletableFuture<Boolean> first = slackSender.send("Brian", "one");
+        final CompletableFuture<Boolean> second = slackSender.send("brian ", "two");
+
+        Assert.assertTrue(first.join());
+        Assert.assertTrue(second.join());
+        Mockito.verify(slackSession).sendMessage(channel, "one\n\ntwo");
+        Assert.assertEquals(0, slackSender.getPendingUsers());
+    }
+
+    @Test
+    public void testFlushesFullBatchAndCachesChannel() {
+        slackSender.send("Brian", "one");
+        slackSender.send("Brian", "two");
+        Assert.assertTrue(slackSender.send("Brian", "three").join());
+        Assert.assertTrue(slackSender.send("Brian", "four").join());
+
+        Mockito.verify(slackSession).sendMessage(channel, "one\n\ntwo\n\nthree");
+        Mockito.verify(slackSession).sendMessage(channel, "four");
+        Mockito.verify(slackSession, Mockito.times(1)).findUserByUserName("Brian");
+        Mockito.verify(slackSession, Mockito.times(1)).openDirectMessageChannel(brian);
+    }
+
+    @Test
+    public void testFailsForUnknownUser() {
+        Assert.assertFalse(slackSender.send("nobody", "hello").join());
+        Assert.assertFalse(slackSender.send(null, "hello").join());
+        Mockito.verify(slackSession, Mockito.never()).sendMessage(Mockito.any(SlackChannel.class), Mockito.anyString());
+    }
+
+    @Test
+    public void testFailedPostCompletesFalse() {
+        final SlackMessageHandle<SlackMessageReply> rejected = new SlackMessageHandle<>(3);
+        rejected.setReply(new SlackMessageReply(false, "ratelimited", 3, null));
+        Mockito.when(slackSession.sendMessage(Mockito.eq(channel), Mockito.anyString())).thenReturn(rejected);
+
+        Assert.assertFalse(slackSender.send("Brian", "one").join());
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.eaa690.aerie.config.EmailProperties;
+import org.eaa690.aerie.model.Message;
+import org.eaa690.aerie.model.MessageRepository;
+import org.eaa690.aerie.model.SmtpPoolStats;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SmtpTransportPoolTest {
+
+    private static final String FROM = "membership@example.com";
+
+    private static final String PASSWORD = "secret";
+
+    private final GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
+
+    private final SmtpTransportPool pool = new SmtpTransportPool();
+
+    private final EmailService emailService = new EmailService();
+
+    private final MessageRepository messageRepository = Mockito.mock(MessageRepository.class);
+
+    private File letterhead;
+
+    @Before
+    public void setUp() throws IOException {
+        greenMail.start();
+        greenMail.setUser(FROM, PASSWORD);
+        letterhead = File.createTempFile("letterhead", ".png");
+        Files.write(letterhead.toPath(), new byte[] {1, 2, 3});
+        final EmailProperties emailProperties = new EmailProperties();
+        emailProperties.setHost("localhost");
+        emailProperties.setSmtpPort(String.valueOf(ServerSetupTest.SMTP.getPort()));
+        emailProperties.setSsl(false);
+        emailProperties.setLetterhead(letterhead.getAbsolutePath());
+        pool.setEmailProperties(emailProperties);
+        emailService.setEmailProperties(emailProperties);
+        emailService.setMessageRepository(messageRepository);
+        emailService.setSmtpTransportPool(pool);
+        emailService.setInlineAssetCache(new InlineAssetCache());
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+        greenMail.stop();
+        letterhead.delete();
+    }
+
+    @Test
+    public void testConnectionReused() {
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(emailService.sendEmailMessage(message(i), FROM, PASSWORD));
+        }
+        Assert.assertEquals(5, greenMail.getReceivedMessages().length);
+        final SmtpPoolStats stats = pool.getStats();
+        Assert.assertEquals(1, stats.getConnectionsOpened());
+        Assert.assertEquals(4, stats.getConnectionsReused());
+        Assert.assertEquals(5, stats.getMessagesSent());
+        Assert.assertEquals(1, stats.getIdle());
+    }
+
+    @Test
+    public void testStaleConnectionReplaced() {
+        Assert.assertTrue(emailService.sendEmailMessage(message(1), FROM, PASSWORD));
+        greenMail.reset();
+        greenMail.setUser(FROM, PASSWORD);
+        Assert.assertTrue(emailService.sendEmailMessage(message(2), FROM, PASSWORD));
+        Assert.assertEquals(1, greenMail.getReceivedMessages().length);
+        Assert.assertEquals(2, pool.getStats().getConnectionsOpened());
+    }
+
+    @Test
+    public void testRejectedRecipientKeepsConnection() throws Exception {
+        try (RejectingSmtpServer server = new RejectingSmtpServer("rejected@example.com")) {
+            final EmailProperties emailProperties = new EmailProperties();
+            emailProperties.setHost("localhost");
+            emailProperties.setSmtpPort(String.valueOf(server.getPort()));
+            emailProperties.setSsl(false);
+            final SmtpTransportPool rejectingPool = new SmtpTransportPool();
+            rejectingPool.setEmailProperties(emailProperties);
+            try {
+                rejectingPool.send(mime(rejectingPool, "member@example.com"), FROM, PASSWORD);
+                try {
+                    rejectingPool.send(mime(rejectingPool, "rejected@example.com"), FROM, PASSWORD);
+                    Assert.fail("expected the recipient to be rejected");
+                } catch (SendFailedException e) {
+                    Assert.assertEquals(1, e.getInvalidAddresses().length);
+                }
+                rejectingPool.send(mime(rejectingPool, "member@example.com"), FROM, PASSWORD);
+
+                final SmtpPoolStats stats = rejectingPool.getStats();
+                Assert.assertEquals(1, stats.getSendFailures());
+                Assert.assertEquals(1, stats.getConnectionsOpened());
+                Assert.assertEquals(2, stats.getMessagesSent());
+                Assert.assertEquals(1, server.getConnections());
+            } finally {
+                rejectingPool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testUndeliveredMessageIsNotRecordedAsSent() {
+        greenMail.stop();
+
+        Assert.assertFalse(emailService.sendEmailMessage(message(1), FROM, PASSWORD));
+        Mockito.verify(messageRepository, Mockito.never()).save(Mockito.any(Message.class));
+    }
+
+    private static MimeMessage mime(final SmtpTransportPool smtpPool, final String to) throws MessagingException {
+        final MimeMessage mime = new MimeMessage(smtpPool.getSession(FROM, PASSWORD));
+        mime.setFrom(new InternetAddress(FROM));
+        mime.setRecipients(javax.mail.Message.RecipientType.TO, InternetAddress.parse(to));
+        mime.setText("Hello");
+        return mime;
+    }
+
+    private static Message message(final int i) {
+        return new Message().to("member" + i + "@example.com").subject("Renewal " + i).body("<p>Hello</p>");
+    }
+
+    /**
+     * Minimal SMTP server which accepts every command but rejects one recipient.
+     */
+    private static final class RejectingSmtpServer implements AutoCloseable {
+
+        private final ServerSocket socket = new ServerSocket(0);
+
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private final Thread acceptor;
+
+        RejectingSmtpServer(final String rejected) throws IOException {
+            acceptor = new Thread(() -> {
+                while (!socket.isClosed()) {
+                    try (Socket client = socket.accept()) {
+                        connections.incrementAndGet();
+                        converse(client, rejected);
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return socket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        private static void converse(final Socket client, final String rejected) throws IOException {
+            final BufferedReader in = new BufferedReader(
+                    new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII));
+            final PrintWriter out = new PrintWriter(
+                    new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII), true);
+            reply(out, "220 localhost");
+            String line = in.readLine();
+            while (line != null) {
+                final String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT") && line.contains(rejected)) {
+                    reply(out, "550 No such user");
+                } else if (command.startsWith("DATA")) {
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    String data = in.readLine();
+                    while (data != null && !".".equals(data)) {
+                        data = in.readLine();
+                    }
+                    reply(out, "250 OK");
+                } else if (command.startsWith("QUIT")) {
+                    reply(out, "221 Bye");
+                    return;
+                } else {
+                    reply(out, "250 OK");
+                }
+                line = in.readLine();
+            }
+        }
+
+        private static void reply(final PrintWriter out, final String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eaa690.aerie.config.CommonConstants;
+import org.eaa690.aerie.model.WeatherIngestSummary;
+import org.eaa690.aerie.model.WeatherProduct;
+import org.eaa690.aerie.model.WeatherProductRepository;
+import org.eaa690.aerie.model.wx.TAF;
+import org.eaa690.aerie.model.wx.Timestamp;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+
+public class TafStoreTest {
+
+    private final TafStore tafStore = new TafStore();
+
+    private final WeatherProductRepository weatherProductRepository = Mockito.mock(WeatherProductRepository.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void setUp() throws Exception {
+        final WeatherProduct persisted = new WeatherProduct();
+        persisted.setKey(CommonConstants.TAF_KEY + "KATL");
+        persisted.setValue(objectMapper.writeValueAsString(taf("2026-10-17T11:20:00Z", "TAF KATL 171120Z")));
+        Mockito.when(weatherProductRepository.findByKeyStartingWith(CommonConstants.TAF_KEY))
+                .thenReturn(Collections.singletonList(persisted));
+        tafStore.setWeatherProductRepository(weatherProductRepository);
+        tafStore.setObjectMapper(objectMapper);
+        tafStore.init();
+    }
+
+    @After
+    public void tearDown() {
+        tafStore.shutdown();
+    }
+
+    @Test
+    public void testRestoresPersistedTafs() {
+        final TAF katl = tafStore.get("KATL").get();
+        Assert.assertEquals("2026-10-17T11:20:00Z", katl.getTimestamp().getIssued());
+        Assert.assertEquals("TAF KATL 171120Z", katl.getRawText());
+    }
+
+    @Test
+    public void testSameIssuanceIsSkipped() {
+        final WeatherIngestSummary summary = new WeatherIngestSummary("TAF");
+
+        tafStore.publish(Collections.singletonList(taf("2026-10-17T11:20:00Z", "TAF KATL 171120Z")), summary);
+
+        Assert.assertEquals(1, summary.getUnchanged());
+        Mockito.verify(weatherProductRepository, Mockito.after(100).never()).saveAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testAmendmentIsPublished() {
+        final WeatherIngestSummary summary = new WeatherIngestSummary("TAF");
+
+        tafStore.publish(Collections.singletonList(taf("2026-10-17T11:20:00Z", "TAF AMD KATL 171120Z")), summary);
+
+        Assert.assertEquals(1, summary.getChanged());
+        Assert.assertEquals("TAF AMD KATL 171120Z", tafStore.get("KATL").get().getRawText());
+        Mockito.verify(weatherProductRepository, Mockito.timeout(1000)).saveAll(ArgumentMatchers.any());
+    }
+
+    private static TAF taf(final String issued, final String rawText) {
+        final TAF taf = new TAF();
+        taf.setIcao("KATL");
+        taf.setRawText(rawText);
+        final Timestamp timestamp = new Timestamp();
+        timestamp.setIssued(issued);
+        taf.setTimestamp(timestamp);
+        return taf;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.config.ReloadingFileTemplateResolver;
+import org.eaa690.aerie.model.Member;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.AbstractConfigurableTemplateResolver;
+import org.thymeleaf.templateresolver.FileTemplateResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Renewal email render throughput with the previous uncached file resolver versus the modification-aware cached
+ * resolver.
+ *
+ * Run from the test classpath (mvn dependency:build-classpath -Dmdep.includeScope=test), e.g.
+ * java -cp target/test-classes:target/classes:$CP org.eaa690.aerie.service.TemplateRenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(2)
+public class TemplateRenderBenchmark {
+
+    private static final String TEMPLATE = "<html><body>\n"
+            + "<img src=\"cid:image_id\"/>\n"
+            + "<p>Dear [(${member.firstName})] [(${member.lastName})],</p>\n"
+            + "<p>Your EAA 690 membership expires on [(${expiration})].  Please renew at [(${url})].</p>\n"
+            + "[# th:if=\"${member.slack != null}\"]<p>We will also remind you on Slack as "
+            + "[(${member.slack})].</p>[/]\n"
+            + "<p>Thank you for being a member!</p>\n"
+            + "<img src=\"[(${trackingUrl})]\"/>\n"
+            + "<p><a href=\"[(${unsubscribeUrl})]\">Unsubscribe</a></p>\n"
+            + "</body></html>\n";
+
+    private Path templateDir;
+
+    private SpringTemplateEngine uncachedEngine;
+
+    private SpringTemplateEngine cachedEngine;
+
+    private Context context;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        templateDir = Files.createTempDirectory("templates");
+        Files.createDirectories(templateDir.resolve("email"));
+        Files.write(templateDir.resolve("email/renewing-member.html"), TEMPLATE.getBytes(StandardCharsets.UTF_8));
+
+        final FileTemplateResolver uncached = new FileTemplateResolver();
+        uncached.setCacheable(Boolean.FALSE);
+        uncachedEngine = engine(uncached);
+        cachedEngine = engine(new ReloadingFileTemplateResolver(1_000));
+
+        final Member member = new Member();
+        member.setFirstName("Brian");
+        member.setLastName("Michael");
+        member.setSlack("brian");
+        context = new Context();
+        context.setVariable("member", member);
+        context.setVariable("expiration", new Date().toString());
+        context.setVariable("url", "https://tinyurl.com/abc123");
+        context.setVariable("trackingUrl", "http://aerie.eaa690.org/t/1/2");
+        context.setVariable("unsubscribeUrl", "http://aerie.eaa690.org/unsubscribe/1/email");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(templateDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String renderUncached() {
+        return uncachedEngine.process("email/renewing-member", context);
+    }
+
+    @Benchmark
+    public String renderCached() {
+        return cachedEngine.process("email/renewing-member", context);
+    }
+
+    private SpringTemplateEngine engine(final AbstractConfigurableTemplateResolver resolver) {
+        resolver.setPrefix(templateDir.toString() + "/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.TEXT);
+        final SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TemplateRenderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import org.eaa690.aerie.config.TrackingProperties;
+import org.eaa690.aerie.model.TrackingData;
+import org.eaa690.aerie.model.TrackingIngestStats;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+
+public class TrackingEventBufferTest {
+
+    private final TrackingEventBuffer buffer = new TrackingEventBuffer();
+
+    private final JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+    private final EngagementService engagementService = Mockito.mock(EngagementService.class);
+
+    private final TrackingProperties trackingProperties = new TrackingProperties();
+
+    @Before
+    public void setUp() {
+        trackingProperties.setBufferCapacity(5);
+        trackingProperties.setBatchSize(2);
+        trackingProperties.setDedupeWindowSeconds(60);
+        buffer.setTrackingProperties(trackingProperties);
+        buffer.setJdbcTemplate(jdbcTemplate);
+        buffer.setEngagementService(engagementService);
+        buffer.setTransactionTemplate(new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    public void testRepeatOpensInsideWindowAreIgnored() {
+        Assert.assertTrue(buffer.offer(1L, 10L));
+        Assert.assertFalse(buffer.offer(1L, 10L));
+        Assert.assertTrue(buffer.offer(1L, 11L));
+        Assert.assertTrue(buffer.offer(2L, 10L));
+
+        final TrackingIngestStats stats = buffer.getStats();
+        Assert.assertEquals(3, stats.getAccepted());
+        Assert.assertEquals(1, stats.getDuplicates());
+        Assert.assertEquals(3, stats.getPending());
+    }
+
+    @Test
+    public void testRepeatOpensAfterWindowAreAccepted() {
+        trackingProperties.setDedupeWindowSeconds(0);
+
+        Assert.assertTrue(buffer.offer(1L, 10L));
+        Assert.assertTrue(buffer.offer(1L, 10L));
+    }
+
+    @Test
+    public void testFullBufferDropsEvents() {
+        for (long i = 0; i < 7; i++) {
+            buffer.offer(i, 10L);
+        }
+
+        final TrackingIngestStats stats = buffer.getStats();
+        Assert.assertEquals(5, stats.getAccepted());
+        Assert.assertEquals(2, stats.getDropped());
+        Assert.assertEquals(5, stats.getPending());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushWritesInBatches() {
+        for (long i = 0; i < 5; i++) {
+            buffer.offer(i, 10L);
+        }
+
+        buffer.flush();
+
+        final ArgumentCaptor<Collection<TrackingData>> batches = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(jdbcTemplate, Mockito.times(3)).batchUpdate(ArgumentMatchers.startsWith("INSERT"),
+                batches.capture(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<TrackingData>>any());
+        Assert.assertEquals(2, batches.getAllValues().get(0).size());
+        Assert.assertEquals(1, batches.getAllValues().get(2).size());
+        Mockito.verify(engagementService, Mockito.times(3)).record(ArgumentMatchers.anyList());
+        Assert.assertEquals(5, buffer.getStats().getWritten());
+        Assert.assertEquals(0, buffer.getStats().getPending());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFailedBatchIsRetried() {
+        buffer.offer(1L, 10L);
+        Mockito.when(jdbcTemplate.batchUpdate(ArgumentMatchers.anyString(),
+                ArgumentMatchers.<Collection<TrackingData>>any(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<TrackingData>>any()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[0][]);
+
+        buffer.flush();
+        Assert.assertEquals(1, buffer.getStats().getWriteFailures());
+        Assert.assertEquals(1, buffer.getStats().getPending());
+
+        buffer.flush();
+        Assert.assertEquals(1, buffer.getStats().getWritten());
+        Assert.assertEquals(0, buffer.getStats().getPending());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUnwritableEventIsIsolatedAndGivenUp() {
+        trackingProperties.setMaxWriteAttempts(2);
+        buffer.offer(1L, 10L);
+        buffer.offer(2L, 10L);
+        Mockito.when(jdbcTemplate.batchUpdate(ArgumentMatchers.anyString(),
+                ArgumentMatchers.<Collection<TrackingData>>any(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<TrackingData>>any()))
+                .thenAnswer(invocation -> {
+                    final Collection<TrackingData> batch = invocation.getArgument(1);
+                    if (batch.stream().anyMatch(event -> event.getRosterId() == 2L)) {
+                        throw new DataIntegrityViolationException("bad row");
+                    }
+                    return new int[0][];
+                });
+
+        buffer.flush();
+        Assert.assertEquals(0, buffer.getStats().getWritten());
+        Assert.assertEquals(2, buffer.getStats().getPending());
+
+        buffer.offer(3L, 10L);
+        buffer.flush();
+        Assert.assertEquals(2, buffer.getStats().getWritten());
+        Assert.assertEquals(1, buffer.getStats().getPending());
+
+        buffer.flush();
+        final TrackingIngestStats stats = buffer.getStats();
+        Assert.assertEquals(2, stats.getWritten());
+        Assert.assertEquals(1, stats.getRejected());
+        Assert.assertEquals(0, stats.getPending());
+        Assert.assertEquals(3, stats.getWriteFailures());
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.eaa690.aerie.config.ServiceConfig;
+import org.eaa690.aerie.model.WeatherFeedStats;
+import org.eaa690.aerie.ssl.SSLUtilities;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+public class WeatherFeedFetcherTest {
+
+    private static final String JSON = "{\"features\":[" + "{\"id\":1},".repeat(200) + "{\"id\":2}]}";
+
+    private static final String ETAG = "\"abc\"";
+
+    private static final String LAST_MODIFIED = "Sat, 17 Oct 2026 12:00:00 GMT";
+
+    private final WeatherFeedFetcher fetcher =
+            new WeatherFeedFetcher(new RestTemplate(WeatherFeedFetcher.requestFactory()));
+
+    private final SSLUtilities sslUtilities = Mockito.mock(SSLUtilities.class);
+
+    private final List<Headers> requests = new CopyOnWriteArrayList<>();
+
+    private byte[] gzipped;
+
+    private HttpServer server;
+
+    private String url;
+
+    @Before
+    public void setUp() throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(JSON.getBytes(StandardCharsets.UTF_8));
+        }
+        gzipped = compressed.toByteArray();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/feed", this::respond);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/feed";
+        fetcher.setSSLUtilities(sslUtilities);
+        fetcher.init();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException {
+        requests.add(exchange.getRequestHeaders());
+        if (ETAG.equals(exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.getResponseHeaders().set(HttpHeaders.ETAG, ETAG);
+        exchange.getResponseHeaders().set(HttpHeaders.LAST_MODIFIED, LAST_MODIFIED);
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING))) {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            exchange.sendResponseHeaders(200, gzipped.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(gzipped);
+            }
+        } else {
+            final byte[] plain = JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, plain.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(plain);
+            }
+        }
+    }
+
+    @Test
+    public void testInstallsSslSettingsOnce() {
+        Mockito.verify(sslUtilities).trustAllHostnames();
+        Mockito.verify(sslUtilities).trustAllHttpsCertificates();
+    }
+
+    @Test
+    public void testCountsCompressedBytesAndSendsValidators() {
+        final StringBuilder body = new StringBuilder();
+        Assert.assertTrue(fetcher.fetch("METAR", url,
+                in -> body.append(new String(in.readAllBytes(), StandardCharsets.UTF_8))));
+        Assert.assertFalse(fetcher.fetch("METAR", url, in -> Assert.fail("not modified feed was read")));
+
+        Assert.assertEquals(JSON, body.toString());
+        Assert.assertEquals(2, requests.size());
+        Assert.assertEquals(ETAG, requests.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+        Assert.assertEquals(LAST_MODIFIED, requests.get(1).getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+        final WeatherFeedStats stats = fetcher.getStats().get("METAR");
+        Assert.assertEquals(2, stats.getRequests());
+        Assert.assertEquals(1, stats.getNotModified());
+        Assert.assertEquals(gzipped.length, stats.getBytesReceived());
+        Assert.assertEquals(JSON.length(), stats.getBytesDecoded());
+        Assert.assertEquals(JSON.length() - gzipped.length + gzipped.length, stats.getBytesSaved());
+        Assert.assertEquals(ETAG, stats.getEtag());
+        Assert.assertEquals(LAST_MODIFIED, stats.getLastModified());
+    }
+
+    @Test
+    public void testContextKeepsTheFetchersOwnRestTemplate() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(FeedConfig.class)) {
+            final WeatherFeedFetcher configured = context.getBean(WeatherFeedFetcher.class);
+
+            Assert.assertTrue(configured.fetch("METAR", url, in -> Assert.assertEquals(JSON.length(),
+                    in.readAllBytes().length)));
+
+            final WeatherFeedStats stats = configured.getStats().get("METAR");
+            Assert.assertEquals(gzipped.length, stats.getBytesReceived());
+            Assert.assertEquals(JSON.length(), stats.getBytesDecoded());
+        }
+    }
+
+    @Test
+    public void testFailedReadKeepsFetchingUnconditionally() {
+        try {
+            fetcher.fetch("METAR", url, in -> {
+                throw new IOException("truncated");
+            });
+            Assert.fail("expected read failure");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("truncated"));
+        }
+        Assert.assertTrue(fetcher.fetch("METAR", url, in -> in.readAllBytes()));
+        Assert.assertNull(requests.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    /**
+     * Wires the fetcher as ServiceConfig does, next to a shared rest template whose client decompresses responses.
+     */
+    @Configuration
+    static class FeedConfig {
+
+        @Bean
+        public RestTemplate restTemplate() {
+            return new RestTemplateBuilder().build();
+        }
+
+        @Bean
+        public SSLUtilities sslUtilities() {
+            return Mockito.mock(SSLUtilities.class);
+        }
+
+        @Bean
+        public WeatherFeedFetcher weatherFeedFetcher(final SSLUtilities sslUtilities) {
+            return new ServiceConfig().weatherFeedFetcher(new RestTemplateBuilder(), sslUtilities);
+        }
+    }
+}
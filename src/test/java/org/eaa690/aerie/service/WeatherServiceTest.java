@@ -0,0 +1,209 @@
+/*
+ *  Copyright (C) 2021 Gwinnett County Experimental Aircraft Association
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.eaa690.aerie.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eaa690.aerie.config.WeatherProperties;
+import org.eaa690.aerie.exception.ResourceNotFoundException;
+import org.eaa690.aerie.model.WeatherFeedStats;
+import org.eaa690.aerie.model.WeatherIngestSummary;
+import org.eaa690.aerie.model.WeatherProductRepository;
+import org.eaa690.aerie.model.wx.METAR;
+import org.eaa690.aerie.model.wx.TAF;
+import org.eaa690.aerie.ssl.SSLUtilities;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.match.MockRestRequestMatchers;
+import org.springframework.test.web.client.response.MockRestResponseCreators;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class WeatherServiceTest {
+
+    private final WeatherService weatherService = new WeatherService();
+
+    private final MetarStore metarStore = new MetarStore();
+
+    private final TafStore tafStore = new TafStore();
+
+    private final RestTemplate restTemplate = new RestTemplate();
+
+    private MockRestServiceServer server;
+
+    @Before
+    public void setUp() {
+        final WeatherProductRepository weatherProductRepository = Mockito.mock(WeatherProductRepository.class);
+        Mockito.when(weatherProductRepository.findByKeyStartingWith(Mockito.anyString()))
+                .thenReturn(Collections.emptyList());
+        final ObjectMapper objectMapper = new ObjectMapper();
+        metarStore.setWeatherProductRepository(weatherProductRepository);
+        metarStore.setObjectMapper(objectMapper);
+        metarStore.init();
+        tafStore.setWeatherProductRepository(weatherProductRepository);
+        tafStore.setObjectMapper(objectMapper);
+        tafStore.init();
+        final WeatherProperties weatherProperties = new WeatherProperties();
+        weatherProperties.setAtlantaIcaoCodes("KATL,KPDK,KGVL");
+        weatherService.setWeatherProperties(weatherProperties);
+        weatherService.setObjectMapper(objectMapper);
+        weatherService.setMetarStore(metarStore);
+        weatherService.setTafStore(tafStore);
+        final WeatherFeedFetcher weatherFeedFetcher = new WeatherFeedFetcher(restTemplate);
+        weatherFeedFetcher.setSSLUtilities(Mockito.mock(SSLUtilities.class));
+        weatherService.setWeatherFeedFetcher(weatherFeedFetcher);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @After
+    public void tearDown() {
+        metarStore.shutdown();
+        tafStore.shutdown();
+    }
+
+    private void expectMetars() {
+        server.expect(MockRestRequestMatchers.requestTo(Matchers.containsString("MetarJSON.php")))
+                .andRespond(MockRestResponseCreators.withSuccess(
+                        new ClassPathResource("weather/metars.json"), MediaType.APPLICATION_JSON));
+        server.expect(MockRestRequestMatchers.requestTo(Matchers.containsString("TafJSON.php")))
+                .andRespond(MockRestResponseCreators.withSuccess(
+                        new ClassPathResource("weather/tafs.json"), MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testUpdateParsesServedStations() throws ResourceNotFoundException {
+        expectMetars();
+
+        weatherService.update();
+
+        final METAR katl = weatherService.getMETAR("KATL");
+        Assert.assertEquals("2026-10-17T11:52:00Z", katl.getObserved());
+        Assert.assertEquals(Long.valueOf(18), katl.getTemperature().getCelsius());
+        Assert.assertEquals(Integer.valueOf(270), katl.getWind().getDegrees());
+        Assert.assertEquals(2, katl.getClouds().size());
+        Assert.assertEquals(2500.0, katl.getClouds().get(1).getBaseFeetAgl(), 0.001);
+        Assert.assertEquals("10+", katl.getVisibility().getMiles());
+        final METAR kpdk = weatherService.getMETAR("KPDK");
+        Assert.assertNull(kpdk.getWind().getDegrees());
+        Assert.assertEquals("9", kpdk.getVisibility().getMiles());
+        Assert.assertTrue(weatherService.getMETARs(Collections.singletonList("KJAX")).isEmpty());
+
+        final WeatherIngestSummary summary = weatherService.getLastIngest().get("METAR");
+        Assert.assertEquals(2, summary.getAdded());
+        Assert.assertEquals(1, summary.getIgnored());
+        server.verify();
+    }
+
+    @Test
+    public void testUpdateGroupsForecastPeriodsIntoTafs() throws ResourceNotFoundException {
+        expectMetars();
+
+        weatherService.update();
+
+        final TAF katl = weatherService.getTAF("KATL");
+        Assert.assertEquals("2026-10-17T11:20:00Z", katl.getTimestamp().getIssued());
+        Assert.assertEquals("2026-10-18T18:00:00Z", katl.getTimestamp().getValidTo());
+        Assert.assertTrue(katl.getRawText().startsWith("TAF KATL 171120Z"));
+        Assert.assertEquals(2, katl.getForecast().size());
+        Assert.assertEquals("FROM", katl.getForecast().get(0).getChangeIndicator());
+        Assert.assertEquals("SCT", katl.getForecast().get(0).getClouds().get(0).getCode());
+        Assert.assertEquals("2026-10-17T18:00:00Z", katl.getForecast().get(1).getTimestamp().getForecastFrom());
+        Assert.assertEquals(Integer.valueOf(20), katl.getForecast().get(1).getWind().getGustKt());
+        Assert.assertEquals(1, weatherService.getTAFs(Arrays.asList("KATL", "KPDK", "KJAX")).size());
+
+        final WeatherIngestSummary summary = weatherService.getLastIngest().get("TAF");
+        Assert.assertEquals(1, summary.getAdded());
+        Assert.assertEquals(1, summary.getIgnored());
+        server.verify();
+    }
+
+    @Test
+    public void testServedStationsTolerateDuplicatesAndSpaces() {
+        final WeatherProperties weatherProperties = new WeatherProperties();
+        weatherProperties.setAtlantaIcaoCodes("KATL, KPDK,KATL ,,KGVL");
+        weatherService.setWeatherProperties(weatherProperties);
+
+        Assert.assertTrue(weatherService.isValidStation("KATL"));
+        Assert.assertTrue(weatherService.isValidStation("KPDK"));
+        Assert.assertTrue(weatherService.isValidStation("KGVL"));
+        Assert.assertFalse(weatherService.isValidStation(""));
+        Assert.assertFalse(weatherService.isValidStation("KRYY"));
+        Assert.assertFalse(weatherService.isValidStation(null));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void testMissingTafIsNotFound() throws ResourceNotFoundException {
+        expectMetars();
+
+        weatherService.update();
+
+        weatherService.getTAF("KPDK");
+    }
+
+    @Test
+    public void testNotModifiedSkipsIngest() {
+        final HttpHeaders validators = new HttpHeaders();
+        validators.setETag("\"v1\"");
+        server.expect(MockRestRequestMatchers.requestTo(Matchers.containsString("MetarJSON.php")))
+                .andRespond(MockRestResponseCreators.withSuccess(
+                        new ClassPathResource("weather/metars.json"), MediaType.APPLICATION_JSON)
+                        .headers(validators));
+        server.expect(MockRestRequestMatchers.requestTo(Matchers.containsString("TafJSON.php")))
+                .andRespond(MockRestResponseCreators.withSuccess(
+                        new ClassPathResource("weather/tafs.json"), MediaType.APPLICATION_JSON));
+        server.expect(MockRestRequestMatchers.header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(MockRestResponseCreators.withStatus(HttpStatus.NOT_MODIFIED));
+        server.expect(MockRestRequestMatchers.requestTo(Matchers.containsString("TafJSON.php")))
+                .andRespond(MockRestResponseCreators.withSuccess(
+                        new ClassPathResource("weather/tafs.json"), MediaType.APPLICATION_JSON));
+
+        weatherService.update();
+        final WeatherIngestSummary first = weatherService.getLastIngest().get("METAR");
+        weatherService.update();
+
+        Assert.assertSame(first, weatherService.getLastIngest().get("METAR"));
+        final WeatherFeedStats stats = weatherService.getFeedStats().get("METAR");
+        Assert.assertEquals(2, stats.getRequests());
+        Assert.assertEquals(1, stats.getNotModified());
+        Assert.assertEquals(stats.getBytesDecoded(), stats.getBytesSaved());
+        server.verify();
+    }
+
+    @Test
+    public void testRepeatedUpdateReportsUnchanged() {
+        expectMetars();
+        expectMetars();
+
+        weatherService.update();
+        weatherService.update();
+
+        final WeatherIngestSummary summary = weatherService.getLastIngest().get("METAR");
+        Assert.assertEquals(0, summary.getAdded());
+        Assert.assertEquals(2, summary.getUnchanged());
+        Assert.assertEquals(1, weatherService.getLastIngest().get("TAF").getUnchanged());
+    }
+}